@@ -0,0 +1,167 @@
+package com.example.api.bench;
+
+import com.example.api.emulator.EmbeddedBookstoreServer;
+import com.example.api.emulator.EmulatorOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Cost of making the stateful emulator durable: how many journaled writes per second it acknowledges, and how
+ * long a restart takes to rebuild the catalog from its snapshot and log.
+ * <p>
+ * {@link #journaledWrites} sends {@code PUT /api/v1/Books/{id}} from many threads at once, so concurrent
+ * writers share each fsync; compare it with {@code fsync=false} and with no data directory at all.
+ * {@link #recovery} starts and stops an emulator on a directory written once per trial.
+ */
+@Fork(1)
+public class JournalBenchmark {
+    private static final int SEED_BOOKS = 100_000;
+
+    private static Path temporaryDirectory() {
+        try {
+            return Files.createTempDirectory("emulator-journal");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String book(int id, int round) {
+        return "{\"id\":" + id + ",\"title\":\"Book " + id + " round " + round + "\",\"description\":\"Journaled\","
+            + "\"pageCount\":" + round + ",\"excerpt\":null,\"publishDate\":\"2025-08-05T08:00:00\"}";
+    }
+
+    @State(Scope.Benchmark)
+    public static class Writes {
+        /** {@code none} runs without a data directory, as a baseline. */
+        @Param({"fsync", "no-fsync", "none"})
+        public String durability;
+
+        EmbeddedBookstoreServer server;
+        HttpClient client;
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void start() {
+            EmulatorOptions options = new EmulatorOptions().stateful(true).seed(SEED_BOOKS, 0);
+            if (!durability.equals("none")) {
+                directory = temporaryDirectory();
+                options.dataDirectory(directory).fsync(durability.equals("fsync"));
+            }
+            server = EmbeddedBookstoreServer.start(options);
+            client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            server.close();
+            if (directory != null) {
+                delete(directory);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Recovery {
+        /** Book updates journaled on top of the seed before measuring. */
+        @Param({"100000", "1000000"})
+        public int updates;
+
+        /** Log size that triggers a snapshot; the default keeps most of the updates in the log. */
+        @Param({"67108864", "4194304"})
+        public long snapshotBytes;
+
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void write() throws Exception {
+            directory = temporaryDirectory();
+            EmbeddedBookstoreServer server = EmbeddedBookstoreServer.start(options());
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            URI base = URI.create(server.baseUri() + "/api/v1/Books/");
+            for (int i = 0; i < updates; i++) {
+                int id = 1 + i % SEED_BOOKS;
+                client.send(HttpRequest.newBuilder(base.resolve(String.valueOf(id)))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(book(id, i)))
+                        .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            }
+            server.close();
+        }
+
+        EmulatorOptions options() {
+            return new EmulatorOptions().stateful(true).seed(SEED_BOOKS, 0)
+                .dataDirectory(directory).fsync(false).snapshotBytes(snapshotBytes);
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() {
+            JournalBenchmark.delete(directory);
+        }
+    }
+
+    /**
+     * One acknowledged, journaled book update.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Threads(32)
+    public int journaledWrites(Writes writes) throws IOException, InterruptedException {
+        int id = 1 + ThreadLocalRandom.current().nextInt(SEED_BOOKS);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(writes.server.baseUri() + "/api/v1/Books/" + id))
+            .header("Content-Type", "application/json")
+            .PUT(HttpRequest.BodyPublishers.ofString(book(id, ThreadLocalRandom.current().nextInt(1_000))))
+            .build();
+        return writes.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Start an emulator on the written directory, restoring snapshot and log, and stop it again.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int recovery(Recovery recovery) {
+        try (EmbeddedBookstoreServer server = EmbeddedBookstoreServer.start(recovery.options())) {
+            return server.port();
+        }
+    }
+}
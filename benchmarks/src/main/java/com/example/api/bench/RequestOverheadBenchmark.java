@@ -0,0 +1,154 @@
+package com.example.api.bench;
+
+import com.example.api.emulator.EmbeddedBookstoreServer;
+import com.example.api.emulator.EmulatorOptions;
+import com.example.api.support.ConnectionPool;
+import io.restassured.RestAssured;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.hamcrest.Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * How much of a test's time is spent in our own JVM rather than on the wire.
+ * <p>
+ * The round-trip benchmarks all call {@code GET /api/v1/Books/1} on the embedded emulator over loopback
+ * keep-alive connections, so the difference to {@link #rawHttpClient()} is client-side overhead.
+ * The remaining benchmarks isolate individual pieces without any I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestOverheadBenchmark {
+    private static final Matcher<Integer> SUCCESS = anyOf(is(200), is(204));
+
+    private EmbeddedBookstoreServer server;
+    private ConnectionPool pool;
+    private HttpClient httpClient;
+    private HttpRequest rawRequest;
+    private String bookJson;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        server = EmbeddedBookstoreServer.start(new EmulatorOptions());
+        pool = new ConnectionPool(16, 16, Duration.ofMinutes(1), Duration.ofMinutes(5));
+        RestAssured.baseURI = server.baseUri();
+        RestAssured.config = RestAssured.config().httpClient(pool.httpClientConfig());
+        RestAssured.filters(pool.releasingFilter());
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        rawRequest = HttpRequest.newBuilder(URI.create(server.baseUri() + "/api/v1/Books/1")).GET().build();
+        bookJson = given().get("/api/v1/Books/1").asString();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        RestAssured.reset();
+        pool.close();
+        server.close();
+    }
+
+    /**
+     * The suite's full chain with a plain status assertion.
+     */
+    @Benchmark
+    public Response restAssuredChain() {
+        return given()
+            .pathParam("id", 1)
+            .when()
+            .get("/api/v1/Books/{id}")
+            .then()
+            .statusCode(200)
+            .extract().response();
+    }
+
+    /**
+     * The full chain asserting with the Hamcrest matcher the update and delete tests use.
+     */
+    @Benchmark
+    public Response restAssuredChainWithMatcher() {
+        return given()
+            .pathParam("id", 1)
+            .when()
+            .get("/api/v1/Books/{id}")
+            .then()
+            .statusCode(anyOf(is(200), is(204)))
+            .extract().response();
+    }
+
+    /**
+     * The full chain followed by the Groovy-based body extraction the create tests use.
+     */
+    @Benchmark
+    public int restAssuredJsonPathExtract() {
+        Response response = given()
+            .pathParam("id", 1)
+            .when()
+            .get("/api/v1/Books/{id}")
+            .then()
+            .statusCode(200)
+            .extract().response();
+        return response.jsonPath().getInt("id");
+    }
+
+    /**
+     * Baseline: the same request with the JDK client and no assertions.
+     */
+    @Benchmark
+    public byte[] rawHttpClient() throws IOException, InterruptedException {
+        return httpClient.send(rawRequest, HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    /**
+     * Building a request specification without sending it.
+     */
+    @Benchmark
+    public RequestSpecification specBuilding() {
+        return given()
+            .pathParam("id", 1)
+            .contentType("application/json")
+            .body(bookJson);
+    }
+
+    /**
+     * Groovy {@code JsonPath} parsing and extraction on an already fetched body.
+     */
+    @Benchmark
+    public int jsonPathOnly() {
+        return JsonPath.from(bookJson).getInt("id");
+    }
+
+    /**
+     * Matching a status code against a pre-built {@code anyOf(is(200), is(204))}.
+     */
+    @Benchmark
+    public boolean hamcrestMatchOnly() {
+        return SUCCESS.matches(200);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.api;
+
+import com.example.api.load.Endpoint;
+import com.example.api.load.LoadProfile;
+import com.example.api.load.LoadScenario;
+
+import java.time.Duration;
+
+/**
+ * A step-up on author writes, as when a bulk import starts: creates and updates climb in five equal steps
+ * over steady author reads, then stop.
+ */
+public class AuthorWriteStepScenario implements LoadScenario {
+    @Override
+    public LoadProfile profile() {
+        return LoadProfile.builder()
+            .endpoint(Endpoint.GET_AUTHOR)
+                .hold(500, Duration.ofMinutes(12))
+            .endpoint(Endpoint.CREATE_AUTHOR)
+                .pause(Duration.ofMinutes(1))
+                .steps(5, 100, Duration.ofMinutes(2))
+                .pause(Duration.ofMinutes(1))
+            .endpoint(Endpoint.UPDATE_AUTHOR)
+                .pause(Duration.ofMinutes(1))
+                .steps(5, 50, Duration.ofMinutes(2))
+                .pause(Duration.ofMinutes(1))
+            .build();
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.api;
 
+import com.example.api.support.LatencyBudget;
+import com.example.api.support.PageIterator;
+import com.example.api.support.Payloads;
+import com.example.api.support.ScenarioContext;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 
 import static io.restassured.RestAssured.*;
 import static org.hamcrest.Matchers.*;
@@ -10,16 +16,16 @@ import static org.hamcrest.Matchers.*;
 /**
  * Test suite for the Authors API endpoints.
  * Includes happy path and edge case scenarios.
+ * The create→get→update→delete chain lives in {@link Lifecycle} and carries its own
+ * {@link ScenarioContext}, so the remaining tests can run concurrently with it.
  */
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class AuthorsApiTest extends BaseTest {
-    private static int createdAuthorId;
 
     /**
-     * Verify that retrieving all authors returns status 200 and JSON content type.
+     * Verify that retrieving all authors returns status 200 and JSON content type
+     * within a single-shot latency budget.
      */
-    @Test
-    @Order(1)
+    @LatencyBudget(maxMillis = 2000)
     public void getAllAuthors() {
         given()
             .when()
@@ -30,85 +36,116 @@ public class AuthorsApiTest extends BaseTest {
     }
 
     /**
-     * Create a new author and capture its ID for later tests.
+     * Walk the authors collection in pages of 100; IDs ascend across pages with none repeated.
      */
     @Test
-    @Order(2)
-    public void createAuthor() {
-        String newAuthor = """
-        {
-            "firstName": "Test",
-            "lastName": "Author"
+    public void getAllAuthorsInPages() {
+        int lastId = Integer.MIN_VALUE;
+        for (Response page : PageIterator.pages("/api/v1/Authors", 100)) {
+            page.then().contentType(ContentType.JSON);
+            for (int id : page.jsonPath().getList("id", Integer.class)) {
+                Assertions.assertTrue(id > lastId, "author " + id + " after " + lastId);
+                lastId = id;
+            }
         }
-        """;
-        Response response = given()
-            .contentType(ContentType.JSON)
-            .body(newAuthor)
-            .when()
-            .post("/api/v1/Authors")
-            .then()
-            .statusCode(anyOf(is(200), is(201)))
-            .extract().response();
-        createdAuthorId = response.jsonPath().getInt("id");
-        // FakeRestAPI returns id: 0 for created resources, so we'll use this for our tests
-        Assertions.assertTrue(createdAuthorId >= 0, "Author ID should be zero or greater");
+        Assertions.assertTrue(lastId > 0, "Authors should not be empty");
     }
 
     /**
-     * Retrieve the author by ID and verify the returned ID matches the created author ID.
+     * Verify that listing the authors of one book returns only authors whose idBook matches.
      */
     @Test
-    @Order(3)
-    public void getAuthorById() {
-        Assumptions.assumeTrue(createdAuthorId >= 0, "Author ID not set from creation test");
+    public void getAuthorsByBook() {
         given()
-            .pathParam("id", createdAuthorId == 0 ? 1 : createdAuthorId) // Use existing ID since creation returns 0
+            .pathParam("idBook", 1)
             .when()
-            .get("/api/v1/Authors/{id}")
+            .get("/api/v1/Authors/authors/books/{idBook}")
             .then()
             .statusCode(200)
-            .body("id", equalTo(createdAuthorId == 0 ? 1 : createdAuthorId));
+            .contentType(ContentType.JSON)
+            .body("size()", greaterThan(0))
+            .body("idBook", everyItem(equalTo(1)));
     }
 
     /**
-     * Update the existing author and verify a success status code.
+     * Ordered create→get→update→delete chain for a single author.
+     * Steps run in order on one thread; the chain as a whole runs concurrently with other tests.
      */
-    @Test
-    @Order(4)
-    public void updateAuthor() {
-        Assumptions.assumeTrue(createdAuthorId >= 0, "Author ID not set from creation test");
-        int targetId = createdAuthorId == 0 ? 1 : createdAuthorId; // Use existing ID since creation returns 0
-        String updatedAuthor = """
-        {
-            "id": %d,
-            "firstName": "Updated",
-            "lastName": "Author"
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    @Execution(ExecutionMode.SAME_THREAD)
+    class Lifecycle {
+        private final ScenarioContext scenario = new ScenarioContext();
+
+        /**
+         * Create a new author and capture its ID for later tests.
+         */
+        @Test
+        @Order(1)
+        public void createAuthor() {
+            Response response = given()
+                .contentType(ContentType.JSON)
+                .body(Payloads.NEW_AUTHOR)
+                .when()
+                .post("/api/v1/Authors")
+                .then()
+                .statusCode(anyOf(is(200), is(201)))
+                .extract().response();
+            scenario.createdId(response.jsonPath().getInt("id"));
+            // FakeRestAPI returns id: 0 for created resources, so we'll use this for our tests
+            Assertions.assertTrue(scenario.hasCreatedId(), "Author ID should be zero or greater");
         }
-        """.formatted(targetId);
-        given()
-            .contentType(ContentType.JSON)
-            .pathParam("id", targetId)
-            .body(updatedAuthor)
-            .when()
-            .put("/api/v1/Authors/{id}")
-            .then()
-            .statusCode(anyOf(is(200), is(204)));
-    }
 
-    /**
-     * Delete the created author and verify a success status code.
-     */
-    @Test
-    @Order(5)
-    public void deleteAuthor() {
-        Assumptions.assumeTrue(createdAuthorId >= 0, "Author ID not set from creation test");
-        int targetId = createdAuthorId == 0 ? 1 : createdAuthorId; // Use existing ID since creation returns 0
-        given()
-            .pathParam("id", targetId)
-            .when()
-            .delete("/api/v1/Authors/{id}")
-            .then()
-            .statusCode(anyOf(is(200), is(204)));
+        /**
+         * Retrieve the author by ID and verify the returned ID matches the created author ID.
+         */
+        @Test
+        @Order(2)
+        public void getAuthorById() {
+            Assumptions.assumeTrue(scenario.hasCreatedId(), "Author ID not set from creation test");
+            given()
+                .pathParam("id", scenario.targetId()) // Use existing ID since creation returns 0
+                .when()
+                .get("/api/v1/Authors/{id}")
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(scenario.targetId()));
+        }
+
+        /**
+         * Update the existing author and verify a success status code.
+         */
+        @Test
+        @Order(3)
+        public void updateAuthor() {
+            Assumptions.assumeTrue(scenario.hasCreatedId(), "Author ID not set from creation test");
+            int targetId = scenario.targetId(); // Use existing ID since creation returns 0
+            given()
+                .contentType(ContentType.JSON)
+                .pathParam("id", targetId)
+                .body(Payloads.updatedAuthor(targetId))
+                .when()
+                .put("/api/v1/Authors/{id}")
+                .then()
+                .statusCode(anyOf(is(200), is(204)));
+        }
+
+        /**
+         * Delete the created author and verify a success status code.
+         */
+        @Test
+        @Order(4)
+        public void deleteAuthor() {
+            Assumptions.assumeTrue(scenario.hasCreatedId(), "Author ID not set from creation test");
+            int targetId = scenario.targetId(); // Use existing ID since creation returns 0
+            given()
+                .pathParam("id", targetId)
+                .when()
+                .delete("/api/v1/Authors/{id}")
+                .then()
+                .statusCode(anyOf(is(200), is(204)));
+        }
     }
 
     /**
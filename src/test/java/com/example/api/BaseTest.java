@@ -1,19 +1,94 @@
 package com.example.api;
 
+import com.example.api.emulator.EmbeddedBookstoreServer;
+import com.example.api.support.ConnectionPool;
+import com.example.api.support.LatencyRecorder;
+import com.example.api.support.LatencyReportExtension;
+import com.example.api.support.RevalidationCache;
+import com.example.api.support.Settings;
 import io.restassured.RestAssured;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
 
 /**
  * Base test class for setting up RestAssured configuration.
+ * Every exchange is timed by {@link LatencyRecorder}; percentiles per endpoint are printed at the end of the run.
+ * Setting {@code HTTP_REVALIDATION_CACHE=true} also routes GETs through a shared {@link RevalidationCache}.
+ * With {@code BASE_URL=embedded}, {@code EMULATOR_FAULTS} and {@code EMULATOR_FAULT_SEED} make the emulator delay or
+ * fail matching requests, repeatably.
+ * The connection pool is shared by every test class and closed once, at the end of the run.
  */
+@ExtendWith({LatencyReportExtension.class, BaseTest.PoolShutdown.class})
 public class BaseTest {
+    private static ConnectionPool connectionPool;
+    private static RevalidationCache revalidationCache;
+
     @BeforeAll
     public static void setup() {
         // Base URL is configurable via system property or environment variable
-        String baseUrl = System.getProperty("BASE_URL");
-        if (baseUrl == null || baseUrl.isEmpty()) {
-            baseUrl = System.getenv().getOrDefault("BASE_URL", "https://fakerestapi.azurewebsites.net");
+        String baseUrl = Settings.get("BASE_URL", "https://fakerestapi.azurewebsites.net");
+        if (baseUrl.equalsIgnoreCase("embedded")) {
+            // Hermetic run against the in-process stand-in on an ephemeral port
+            baseUrl = EmbeddedBookstoreServer.shared().baseUri();
         }
         RestAssured.baseURI = baseUrl;
+        // Every request shares one bounded keep-alive pool instead of opening a connection per test
+        RestAssured.config = RestAssured.config().httpClient(connectionPool().httpClientConfig());
+        installFilters();
+    }
+
+    private static synchronized void installFilters() {
+        if (RestAssured.filters().isEmpty()) {
+            RestAssured.filters(LatencyRecorder.global(), connectionPool().releasingFilter());
+            if (Settings.getBoolean("HTTP_REVALIDATION_CACHE", false)) {
+                // Innermost, so latency is recorded for the conditional exchange that actually happened
+                RestAssured.filters(revalidationCache());
+            }
+        }
+    }
+
+    /**
+     * The shared revalidation cache, installed for every request when {@code HTTP_REVALIDATION_CACHE} is set.
+     */
+    public static synchronized RevalidationCache revalidationCache() {
+        if (revalidationCache == null) {
+            revalidationCache = RevalidationCache.fromSettings();
+        }
+        return revalidationCache;
+    }
+
+    /**
+     * The shared connection pool; its {@link ConnectionPool#stats()} show whether connections are being reused.
+     */
+    public static synchronized ConnectionPool connectionPool() {
+        if (connectionPool == null) {
+            connectionPool = ConnectionPool.fromSettings();
+        }
+        return connectionPool;
+    }
+
+    /**
+     * Close the shared connection pool if one was created; the next request creates a fresh one.
+     */
+    public static synchronized void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.close();
+            connectionPool = null;
+        }
+    }
+
+    /**
+     * Closes the shared connection pool when the engine finishes, after the last test class.
+     */
+    static final class PoolShutdown implements BeforeAllCallback {
+        private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(PoolShutdown.class);
+
+        @Override
+        public void beforeAll(ExtensionContext context) {
+            context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent("pool",
+                key -> (ExtensionContext.Store.CloseableResource) BaseTest::closeConnectionPool);
+        }
     }
 }
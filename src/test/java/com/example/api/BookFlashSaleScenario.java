@@ -0,0 +1,28 @@
+package com.example.api;
+
+import com.example.api.load.Endpoint;
+import com.example.api.load.LoadProfile;
+import com.example.api.load.LoadScenario;
+
+import java.time.Duration;
+
+/**
+ * A flash sale: steady daytime reads, then a link goes out and {@code GET /api/v1/Books/{id}} jumps to fifty
+ * thousand requests per second within seconds, holds for a minute and drains away again. The listing sees a
+ * smaller echo of the same spike.
+ */
+public class BookFlashSaleScenario implements LoadScenario {
+    @Override
+    public LoadProfile profile() {
+        return LoadProfile.builder()
+            .endpoint(Endpoint.GET_BOOK)
+                .hold(1_000, Duration.ofMinutes(2))
+                .spike(50_000, Duration.ofSeconds(5), Duration.ofMinutes(1))
+                .hold(Duration.ofMinutes(2))
+            .endpoint(Endpoint.GET_BOOKS)
+                .hold(100, Duration.ofMinutes(2))
+                .spike(2_000, Duration.ofSeconds(5), Duration.ofMinutes(1))
+                .hold(Duration.ofMinutes(2))
+            .build();
+    }
+}
@@ -1,8 +1,22 @@
 package com.example.api;
 
+import com.example.api.support.CatalogValidator;
+import com.example.api.support.LatencyBudget;
+import com.example.api.support.PageIterator;
+import com.example.api.support.RevalidationCache;
+import com.example.api.support.Payloads;
+import com.example.api.support.ScenarioContext;
+import com.example.api.support.Settings;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Supplier;
 
 import static io.restassured.RestAssured.*;
 import static org.hamcrest.Matchers.*;
@@ -10,111 +24,194 @@ import static org.hamcrest.Matchers.*;
 /**
  * Test suite for the Books API endpoints.
  * Covers happy paths as well as common edge cases.
+ * The create→get→update→delete chain lives in {@link Lifecycle} and carries its own
+ * {@link ScenarioContext}, so the remaining tests can run concurrently with it.
  */
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class BooksApiTest extends BaseTest {
-    private static int createdBookId;
 
     /**
-     * Verify that retrieving the list of all books returns a 200 status and JSON content type.
+     * Verify that retrieving the list of all books returns a 200 status and JSON content type,
+     * and that every book in the collection matches the schema.
+     * The body is validated as a token stream, so no document tree is built however large the catalog is.
      */
     @Test
-    @Order(1)
-    public void getAllBooks() {
-        given()
+    public void getAllBooks() throws IOException {
+        InputStream body = given()
             .when()
             .get("/api/v1/Books")
             .then()
             .statusCode(200)
-            .contentType(ContentType.JSON);
+            .contentType(ContentType.JSON)
+            .extract().asInputStream();
+        CatalogValidator.Result result = new CatalogValidator(10).validate(body);
+        Assertions.assertTrue(result.count() > 0, "Catalog should not be empty");
+        Assertions.assertTrue(result.isValid(), result::toString);
     }
 
     /**
-     * Create a new book and capture its ID for subsequent tests.
+     * Walk the books collection in pages of 25, validating each page while the next one is prefetched.
+     * Across pages, books arrive in ascending ID order with none repeated.
      */
     @Test
-    @Order(2)
-    public void createBook() {
-        String newBookJson = """
-        {
-            "title": "Automated Test Book",
-            "description": "Book created by API automation tests",
-            "pageCount": 123,
-            "excerpt": "Testing is fun!",
-            "publishDate": "2020-01-01T00:00:00"
+    public void getAllBooksInPages() throws IOException {
+        int count = 0;
+        int lastId = Integer.MIN_VALUE;
+        for (Response page : PageIterator.pages("/api/v1/Books", 25)) {
+            CatalogValidator.Result result = new CatalogValidator(10).validate(page.asInputStream());
+            Assertions.assertTrue(result.isValid(), result::toString);
+            for (int id : page.jsonPath().getList("id", Integer.class)) {
+                Assertions.assertTrue(id > lastId, "book " + id + " after " + lastId);
+                lastId = id;
+            }
+            count += result.count();
         }
-        """;
-        Response response = given()
-            .contentType(ContentType.JSON)
-            .body(newBookJson)
-            .when()
-            .post("/api/v1/Books")
-            .then()
-            .statusCode(anyOf(is(200), is(201)))
-            .extract().response();
-        createdBookId = response.jsonPath().getInt("id");
-        // FakeRestAPI returns id: 0 for created resources, so we'll use this for our tests
-        Assertions.assertTrue(createdBookId >= 0, "Created book ID should be zero or greater");
+        Assertions.assertTrue(count > 0, "Catalog should not be empty");
     }
 
     /**
-     * Retrieve the newly created book by its ID and verify the ID matches.
+     * A GET repeated with the book's ETag in If-None-Match is answered 304 without a body.
+     * Skipped when the server does not send ETags, as the hosted API does not.
      */
     @Test
-    @Order(3)
-    public void getBookById() {
-        Assumptions.assumeTrue(createdBookId >= 0, "Book ID not set from creation test");
-        given()
-            .pathParam("id", createdBookId == 0 ? 1 : createdBookId) // Use existing ID since creation returns 0
+    public void getBookByIdNotModified() {
+        String etag = given()
+            .pathParam("id", 1)
             .when()
             .get("/api/v1/Books/{id}")
             .then()
             .statusCode(200)
-            .body("id", equalTo(createdBookId == 0 ? 1 : createdBookId));
+            .extract().header("ETag");
+        Assumptions.assumeTrue(etag != null, "Server does not send ETags");
+        Response response = given()
+            .pathParam("id", 1)
+            .header("If-None-Match", etag)
+            .when()
+            .get("/api/v1/Books/{id}")
+            .then()
+            .statusCode(304)
+            .header("ETag", etag)
+            .extract().response();
+        Assertions.assertEquals(0, response.asByteArray().length);
     }
 
     /**
-     * Update the existing book and verify a successful status code.
+     * Through a {@link RevalidationCache}, a repeated GET is revalidated with a 304 and the test still sees
+     * the full 200 body, which did not cross the wire a second time. Uses the shared cache when
+     * {@code HTTP_REVALIDATION_CACHE} installs it for every request, and a private one otherwise.
      */
     @Test
-    @Order(4)
-    public void updateBook() {
-        Assumptions.assumeTrue(createdBookId >= 0, "Book ID not set from creation test");
-        int targetId = createdBookId == 0 ? 1 : createdBookId; // Use existing ID since creation returns 0
-        String updatedBookJson = """
-        {
-            "id": %d,
-            "title": "Updated Test Book",
-            "description": "Updated description",
-            "pageCount": 456,
-            "excerpt": "Updated excerpt",
-            "publishDate": "2021-01-01T00:00:00"
-        }
-        """.formatted(targetId);
-        given()
-            .contentType(ContentType.JSON)
-            .pathParam("id", targetId)
-            .body(updatedBookJson)
+    public void getBookByIdRevalidatedFromCache() {
+        boolean shared = Settings.getBoolean("HTTP_REVALIDATION_CACHE", false);
+        RevalidationCache cache = shared ? revalidationCache() : new RevalidationCache(16);
+        Supplier<RequestSpecification> request = () -> shared ? given() : given().filter(cache);
+        RevalidationCache.Stats before = cache.stats();
+
+        Response first = request.get()
+            .pathParam("id", 1)
             .when()
-            .put("/api/v1/Books/{id}")
+            .get("/api/v1/Books/{id}")
+            .then()
+            .statusCode(200)
+            .extract().response();
+        Assumptions.assumeTrue(first.header("ETag") != null, "Server does not send ETags");
+        byte[] body = first.asByteArray();
+
+        byte[] second = request.get()
+            .pathParam("id", 1)
+            .when()
+            .get("/api/v1/Books/{id}")
             .then()
-            .statusCode(anyOf(is(200), is(204)));
+            .statusCode(200)
+            .contentType(ContentType.JSON)
+            .body("id", equalTo(1))
+            .extract().asByteArray();
+
+        RevalidationCache.Stats after = cache.stats();
+        Assertions.assertArrayEquals(body, second);
+        Assertions.assertTrue(after.notModified() > before.notModified(), after::toString);
+        Assertions.assertTrue(after.bytesSaved() - before.bytesSaved() >= body.length, after::toString);
     }
 
     /**
-     * Delete the book and verify a successful status code.
+     * Ordered create→get→update→delete chain for a single book.
+     * Steps run in order on one thread; the chain as a whole runs concurrently with other tests.
      */
-    @Test
-    @Order(5)
-    public void deleteBook() {
-        Assumptions.assumeTrue(createdBookId >= 0, "Book ID not set from creation test");
-        int targetId = createdBookId == 0 ? 1 : createdBookId; // Use existing ID since creation returns 0
-        given()
-            .pathParam("id", targetId)
-            .when()
-            .delete("/api/v1/Books/{id}")
-            .then()
-            .statusCode(anyOf(is(200), is(204)));
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    @Execution(ExecutionMode.SAME_THREAD)
+    class Lifecycle {
+        private final ScenarioContext scenario = new ScenarioContext();
+
+        /**
+         * Create a new book and capture its ID for subsequent tests.
+         */
+        @Test
+        @Order(1)
+        public void createBook() {
+            Response response = given()
+                .contentType(ContentType.JSON)
+                .body(Payloads.NEW_BOOK)
+                .when()
+                .post("/api/v1/Books")
+                .then()
+                .statusCode(anyOf(is(200), is(201)))
+                .extract().response();
+            scenario.createdId(response.jsonPath().getInt("id"));
+            // FakeRestAPI returns id: 0 for created resources, so we'll use this for our tests
+            Assertions.assertTrue(scenario.hasCreatedId(), "Created book ID should be zero or greater");
+        }
+
+        /**
+         * Retrieve the newly created book by its ID and verify the ID matches.
+         * Repeated as a latency gate: p95 round-trip must stay within budget.
+         */
+        @Order(2)
+        @LatencyBudget(repetitions = 20, percentile = 95, millis = 500)
+        public void getBookById() {
+            Assumptions.assumeTrue(scenario.hasCreatedId(), "Book ID not set from creation test");
+            given()
+                .pathParam("id", scenario.targetId()) // Use existing ID since creation returns 0
+                .when()
+                .get("/api/v1/Books/{id}")
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(scenario.targetId()));
+        }
+
+        /**
+         * Update the existing book and verify a successful status code.
+         */
+        @Test
+        @Order(3)
+        public void updateBook() {
+            Assumptions.assumeTrue(scenario.hasCreatedId(), "Book ID not set from creation test");
+            int targetId = scenario.targetId(); // Use existing ID since creation returns 0
+            given()
+                .contentType(ContentType.JSON)
+                .pathParam("id", targetId)
+                .body(Payloads.updatedBook(targetId))
+                .when()
+                .put("/api/v1/Books/{id}")
+                .then()
+                .statusCode(anyOf(is(200), is(204)));
+        }
+
+        /**
+         * Delete the book and verify a successful status code.
+         */
+        @Test
+        @Order(4)
+        public void deleteBook() {
+            Assumptions.assumeTrue(scenario.hasCreatedId(), "Book ID not set from creation test");
+            int targetId = scenario.targetId(); // Use existing ID since creation returns 0
+            given()
+                .pathParam("id", targetId)
+                .when()
+                .delete("/api/v1/Books/{id}")
+                .then()
+                .statusCode(anyOf(is(200), is(204)));
+        }
     }
 
     /**
@@ -0,0 +1,29 @@
+package com.example.api;
+
+import com.example.api.load.Endpoint;
+import com.example.api.load.LoadProfile;
+import com.example.api.load.LoadScenario;
+
+import java.time.Duration;
+
+/**
+ * The morning ramp: overnight trickle, an hour's climb as readers arrive, then the daytime plateau. Listing
+ * and single-book reads rise together; writes stay a small, steady share.
+ */
+public class BooksMorningRampScenario implements LoadScenario {
+    @Override
+    public LoadProfile profile() {
+        return LoadProfile.builder()
+            .endpoint(Endpoint.GET_BOOK)
+                .hold(50, Duration.ofMinutes(5))
+                .rampTo(1_500, Duration.ofMinutes(60))
+                .hold(Duration.ofMinutes(15))
+            .endpoint(Endpoint.GET_BOOKS)
+                .hold(5, Duration.ofMinutes(5))
+                .rampTo(150, Duration.ofMinutes(60))
+                .hold(Duration.ofMinutes(15))
+            .endpoint(Endpoint.UPDATE_BOOK)
+                .hold(10, Duration.ofMinutes(80))
+            .build();
+    }
+}
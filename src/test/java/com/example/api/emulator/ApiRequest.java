@@ -0,0 +1,36 @@
+package com.example.api.emulator;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A transport-neutral HTTP request.
+ *
+ * @param path    raw (still percent-encoded) path
+ * @param query   raw query string, or null
+ * @param headers request headers keyed by lower-case name
+ */
+record ApiRequest(String method, String path, String query, Map<String, String> headers, byte[] body) {
+    String header(String name) {
+        return headers.get(name);
+    }
+
+    /**
+     * The decoded value of the first query parameter with this name, matched case-insensitively
+     * like ASP.NET model binding, or null.
+     */
+    String parameter(String name) {
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (URLDecoder.decode(key, StandardCharsets.UTF_8).equalsIgnoreCase(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+}
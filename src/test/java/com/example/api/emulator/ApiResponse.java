@@ -0,0 +1,33 @@
+package com.example.api.emulator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A transport-neutral HTTP response. An empty body is sent without a payload.
+ *
+ * @param headers extra response headers besides {@code Content-Type}
+ */
+record ApiResponse(int status, String contentType, byte[] body, Map<String, String> headers) {
+    static final String JSON = "application/json; charset=utf-8; v=1.0";
+    static final String PROBLEM_JSON = "application/problem+json; charset=utf-8";
+    private static final byte[] EMPTY = new byte[0];
+
+    ApiResponse(int status, String contentType, byte[] body) {
+        this(status, contentType, body, Map.of());
+    }
+
+    static ApiResponse json(byte[] body) {
+        return new ApiResponse(200, JSON, body);
+    }
+
+    static ApiResponse empty(int status) {
+        return new ApiResponse(status, null, EMPTY);
+    }
+
+    ApiResponse withHeader(String name, String value) {
+        Map<String, String> copy = new LinkedHashMap<>(headers);
+        copy.put(name, value);
+        return new ApiResponse(status, contentType, body, copy);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.api.emulator;
+
+/**
+ * An author as exchanged over the API.
+ */
+record Author(int id, int idBook, String firstName, String lastName) {
+    Author withId(int newId) {
+        return new Author(newId, idBook, firstName, lastName);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.api.emulator;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Authors stored column by column: the book ID in a primitive array and names as {@link StringArena} references.
+ * <p>
+ * Authors of the same book are threaded into a doubly linked chain through two slot columns, kept in slot
+ * order, with an {@link IntIndex} from book ID to the chain's head. The head's previous link points at the tail,
+ * so appending a new author is O(1) and listing a book's authors is O(k) rather than a scan of the table.
+ */
+final class AuthorTable extends ColumnTable {
+    private static final int END = -1;
+
+    private int[] idBooks;
+    private int[] firstNames;
+    private int[] lastNames;
+    private int[] nextByBook;
+    private int[] prevByBook;
+    private IntIndex bookHeads;
+
+    AuthorTable(int capacity) {
+        super(capacity);
+        idBooks = new int[ids.length];
+        firstNames = new int[ids.length];
+        lastNames = new int[ids.length];
+        nextByBook = new int[ids.length];
+        prevByBook = new int[ids.length];
+        bookHeads = new IntIndex(ids.length / 4);
+    }
+
+    Author get(int id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotOf(id);
+            return slot == IntIndex.MISSING ? null : row(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every author, in slot order.
+     */
+    List<Author> list() {
+        lock.readLock().lock();
+        try {
+            List<Author> authors = new ArrayList<>(size());
+            for (int slot = 0; slot < slots; slot++) {
+                if (ids[slot] != 0) {
+                    authors.add(row(slot));
+                }
+            }
+            return authors;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Authors of one book, in slot order.
+     */
+    List<Author> byBook(int idBook) {
+        lock.readLock().lock();
+        try {
+            List<Author> authors = new ArrayList<>();
+            for (int slot = bookHeads.get(idBook); slot >= 0; slot = nextByBook[slot]) {
+                authors.add(row(slot));
+            }
+            return authors;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Authors of one book as a JSON array, joined from the row cache.
+     */
+    byte[] byBookJson(int idBook) {
+        lock.readLock().lock();
+        try {
+            int[] chain = new int[4];
+            int count = 0;
+            for (int slot = bookHeads.get(idBook); slot >= 0; slot = nextByBook[slot]) {
+                if (count == chain.length) {
+                    chain = Arrays.copyOf(chain, count * 2);
+                }
+                chain[count++] = slot;
+            }
+            return joinJson(chain, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or replace an author. An author without a positive ID is assigned the next free one.
+     */
+    Author put(Author author) {
+        lock.writeLock().lock();
+        try {
+            int slot = author.id() > 0 ? slotOf(author.id()) : IntIndex.MISSING;
+            if (slot == IntIndex.MISSING) {
+                slot = insert(author.id());
+                idBooks[slot] = author.idBook();
+                link(slot);
+            } else {
+                release(slot);
+                touch(slot);
+                if (idBooks[slot] != author.idBook()) {
+                    unlink(slot);
+                    idBooks[slot] = author.idBook();
+                    link(slot);
+                }
+            }
+            firstNames[slot] = strings.intern(author.firstName());
+            lastNames[slot] = strings.intern(author.lastName());
+            int id = ids[slot];
+            compactIfSparse();
+            return id == author.id() ? author : author.withId(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fill the empty table from a fixture's author slots and strings, then chain the authors by book.
+     */
+    void load(CatalogFixture fixture) {
+        lock.writeLock().lock();
+        try {
+            int count = fixture.authorCount();
+            reserve(count);
+            strings = fixture.authorStrings();
+            int[] offsets = fixture.authorStringOffsets();
+            ByteBuffer rows = fixture.authorSlots();
+            for (int slot = 0, at = 0; slot < count; slot++, at += CatalogFixture.AUTHOR_SLOT_BYTES) {
+                ids[slot] = rows.getInt(at + CatalogFixture.AUTHOR_ID);
+                idBooks[slot] = rows.getInt(at + CatalogFixture.AUTHOR_ID_BOOK);
+                firstNames[slot] = string(offsets, rows.getInt(at + CatalogFixture.AUTHOR_FIRST_NAME));
+                lastNames[slot] = string(offsets, rows.getInt(at + CatalogFixture.AUTHOR_LAST_NAME));
+            }
+            loaded(count);
+            compacted();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean delete(int id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(id);
+            if (slot == IntIndex.MISSING) {
+                return false;
+            }
+            unlink(slot);
+            remove(id);
+            compactIfSparse();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Pass up to {@code limit} authors after ID {@code afterId} to {@code action}, see {@link #scan}.
+     */
+    int forEach(int afterId, int limit, Consumer<Author> action) {
+        return scan(afterId, limit, slot -> action.accept(row(slot)));
+    }
+
+    int count() {
+        lock.readLock().lock();
+        try {
+            return size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Thread a row into its book's chain, keeping the chain in slot order.
+     */
+    private void link(int slot) {
+        int idBook = idBooks[slot];
+        int head = bookHeads.get(idBook);
+        if (head == IntIndex.MISSING) {
+            bookHeads.put(idBook, slot);
+            prevByBook[slot] = slot;
+            nextByBook[slot] = END;
+            return;
+        }
+        int tail = prevByBook[head];
+        if (slot > tail) {
+            nextByBook[tail] = slot;
+            prevByBook[slot] = tail;
+            nextByBook[slot] = END;
+            prevByBook[head] = slot;
+            return;
+        }
+        // An existing row moved to this book: insert before the first later slot
+        int next = head;
+        while (next < slot) {
+            next = nextByBook[next];
+        }
+        int prev = prevByBook[next];
+        prevByBook[slot] = prev;
+        nextByBook[slot] = next;
+        prevByBook[next] = slot;
+        if (next == head) {
+            bookHeads.put(idBook, slot);
+        } else {
+            nextByBook[prev] = slot;
+        }
+    }
+
+    private void unlink(int slot) {
+        int idBook = idBooks[slot];
+        int head = bookHeads.get(idBook);
+        int prev = prevByBook[slot];
+        int next = nextByBook[slot];
+        if (slot == head) {
+            if (next == END) {
+                bookHeads.remove(idBook);
+            } else {
+                bookHeads.put(idBook, next);
+                prevByBook[next] = prev;
+            }
+        } else {
+            nextByBook[prev] = next;
+            prevByBook[next == END ? head : next] = prev;
+        }
+    }
+
+    private Author row(int slot) {
+        return new Author(ids[slot], idBooks[slot], strings.get(firstNames[slot]), strings.get(lastNames[slot]));
+    }
+
+    @Override
+    byte[] encode(int slot) {
+        return JsonWriter.author(row(slot));
+    }
+
+    @Override
+    void grow(int capacity) {
+        idBooks = Arrays.copyOf(idBooks, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        nextByBook = Arrays.copyOf(nextByBook, capacity);
+        prevByBook = Arrays.copyOf(prevByBook, capacity);
+    }
+
+    @Override
+    void relocate(int from, int to, StringArena previous) {
+        idBooks[to] = idBooks[from];
+        firstNames[to] = strings.copy(previous, firstNames[from]);
+        lastNames[to] = strings.copy(previous, lastNames[from]);
+    }
+
+    @Override
+    void release(int slot) {
+        strings.release(firstNames[slot]);
+        strings.release(lastNames[slot]);
+        firstNames[slot] = StringArena.NULL;
+        lastNames[slot] = StringArena.NULL;
+    }
+
+    @Override
+    void compacted() {
+        bookHeads = new IntIndex(bookHeads.size());
+        for (int slot = 0; slot < slots; slot++) {
+            link(slot);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.api.emulator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the authors-by-book index in {@link AuthorTable}.
+ */
+public class AuthorTableTest {
+    private static final int BOOKS = 8;
+
+    private static List<Integer> ids(List<Author> authors) {
+        return authors.stream().map(Author::id).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates, moves between books and deletes keep each book's chain complete and in ID order.
+     */
+    @Test
+    public void indexFollowsWrites() {
+        AuthorTable table = new AuthorTable(0);
+        for (int id = 1; id <= 6; id++) {
+            table.put(new Author(id, id % 2, "First " + id, "Last " + id));
+        }
+        Assertions.assertEquals(List.of(2, 4, 6), ids(table.byBook(0)));
+        Assertions.assertEquals(List.of(1, 3, 5), ids(table.byBook(1)));
+
+        table.put(new Author(4, 1, "Moved", "Author"));
+        table.put(new Author(6, 1, "Moved", "Author"));
+        table.put(new Author(2, 0, "Renamed", "Author"));
+        Assertions.assertTrue(table.delete(1));
+
+        Assertions.assertEquals(List.of(2), ids(table.byBook(0)));
+        Assertions.assertEquals(List.of(3, 4, 5, 6), ids(table.byBook(1)));
+        Assertions.assertEquals("Renamed", table.byBook(0).get(0).firstName());
+        Assertions.assertTrue(table.byBook(2).isEmpty());
+    }
+
+    /**
+     * Readers listing authors by book while writers create, move and delete authors only ever see authors of
+     * that book, in ID order. Once writes stop, every book's listing matches a full scan, including after the
+     * compactions the deletes trigger.
+     */
+    @Test
+    public void lookupsStayConsistentUnderConcurrentWrites() throws Exception {
+        AuthorTable table = new AuthorTable(0);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                Random random = new Random(w);
+                writers.add(pool.submit(() -> {
+                    List<Integer> mine = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        int op = random.nextInt(10);
+                        if (op < 4 || mine.isEmpty()) {
+                            mine.add(table.put(new Author(0, random.nextInt(BOOKS), "First", "Last " + i)).id());
+                        } else if (op < 7) {
+                            int id = mine.get(random.nextInt(mine.size()));
+                            table.put(new Author(id, random.nextInt(BOOKS), "Moved", "Last " + i));
+                        } else {
+                            Assertions.assertTrue(table.delete(mine.remove(random.nextInt(mine.size()))));
+                        }
+                    }
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                Random random = new Random(100 + r);
+                readers.add(pool.submit(() -> {
+                    while (writing.get()) {
+                        int idBook = random.nextInt(BOOKS);
+                        int previous = 0;
+                        for (Author author : table.byBook(idBook)) {
+                            Assertions.assertEquals(idBook, author.idBook());
+                            Assertions.assertTrue(author.id() > previous, "chain out of ID order");
+                            previous = author.id();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Author> all = table.list();
+        for (int idBook = 0; idBook < BOOKS; idBook++) {
+            int book = idBook;
+            Assertions.assertEquals(all.stream().filter(a -> a.idBook() == book).collect(Collectors.toList()),
+                table.byBook(idBook));
+        }
+    }
+}
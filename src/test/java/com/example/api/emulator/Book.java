@@ -0,0 +1,12 @@
+package com.example.api.emulator;
+
+/**
+ * A book as exchanged over the API.
+ *
+ * @param publishDate packed date, see {@link IsoDate}
+ */
+record Book(int id, String title, String description, int pageCount, String excerpt, long publishDate) {
+    Book withId(int newId) {
+        return new Book(newId, title, description, pageCount, excerpt, publishDate);
+    }
+}
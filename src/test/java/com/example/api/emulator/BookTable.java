@@ -0,0 +1,172 @@
+package com.example.api.emulator;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Books stored column by column: page counts and packed publish dates (100 ns ticks since 0001-01-01, see
+ * {@link IsoDate}) in primitive arrays, and title, description and excerpt as {@link StringArena} references.
+ */
+final class BookTable extends ColumnTable {
+    private int[] titles;
+    private int[] descriptions;
+    private int[] pageCounts;
+    private int[] excerpts;
+    private long[] publishDates;
+
+    BookTable(int capacity) {
+        super(capacity);
+        titles = new int[ids.length];
+        descriptions = new int[ids.length];
+        pageCounts = new int[ids.length];
+        excerpts = new int[ids.length];
+        publishDates = new long[ids.length];
+    }
+
+    Book get(int id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotOf(id);
+            return slot == IntIndex.MISSING ? null : row(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every book, in slot order.
+     */
+    List<Book> list() {
+        lock.readLock().lock();
+        try {
+            List<Book> books = new ArrayList<>(size());
+            for (int slot = 0; slot < slots; slot++) {
+                if (ids[slot] != 0) {
+                    books.add(row(slot));
+                }
+            }
+            return books;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or replace a book. A book without a positive ID is assigned the next free one.
+     */
+    Book put(Book book) {
+        lock.writeLock().lock();
+        try {
+            int slot = book.id() > 0 ? slotOf(book.id()) : IntIndex.MISSING;
+            if (slot == IntIndex.MISSING) {
+                slot = insert(book.id());
+            } else {
+                release(slot);
+                touch(slot);
+            }
+            titles[slot] = strings.intern(book.title());
+            descriptions[slot] = strings.intern(book.description());
+            pageCounts[slot] = book.pageCount();
+            excerpts[slot] = strings.intern(book.excerpt());
+            publishDates[slot] = book.publishDate();
+            int id = ids[slot];
+            compactIfSparse();
+            return id == book.id() ? book : book.withId(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fill the empty table from a fixture's book slots and strings.
+     */
+    void load(CatalogFixture fixture) {
+        lock.writeLock().lock();
+        try {
+            int count = fixture.bookCount();
+            reserve(count);
+            strings = fixture.bookStrings();
+            int[] offsets = fixture.bookStringOffsets();
+            ByteBuffer rows = fixture.bookSlots();
+            for (int slot = 0, at = 0; slot < count; slot++, at += CatalogFixture.BOOK_SLOT_BYTES) {
+                ids[slot] = rows.getInt(at + CatalogFixture.BOOK_ID);
+                pageCounts[slot] = rows.getInt(at + CatalogFixture.BOOK_PAGE_COUNT);
+                publishDates[slot] = rows.getLong(at + CatalogFixture.BOOK_PUBLISH_DATE);
+                titles[slot] = string(offsets, rows.getInt(at + CatalogFixture.BOOK_TITLE));
+                descriptions[slot] = string(offsets, rows.getInt(at + CatalogFixture.BOOK_DESCRIPTION));
+                excerpts[slot] = string(offsets, rows.getInt(at + CatalogFixture.BOOK_EXCERPT));
+            }
+            loaded(count);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean delete(int id) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = remove(id);
+            compactIfSparse();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Pass up to {@code limit} books after ID {@code afterId} to {@code action}, see {@link #scan}.
+     */
+    int forEach(int afterId, int limit, Consumer<Book> action) {
+        return scan(afterId, limit, slot -> action.accept(row(slot)));
+    }
+
+    int count() {
+        lock.readLock().lock();
+        try {
+            return size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Book row(int slot) {
+        return new Book(ids[slot], strings.get(titles[slot]), strings.get(descriptions[slot]), pageCounts[slot],
+            strings.get(excerpts[slot]), publishDates[slot]);
+    }
+
+    @Override
+    byte[] encode(int slot) {
+        return JsonWriter.book(row(slot));
+    }
+
+    @Override
+    void grow(int capacity) {
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        pageCounts = Arrays.copyOf(pageCounts, capacity);
+        excerpts = Arrays.copyOf(excerpts, capacity);
+        publishDates = Arrays.copyOf(publishDates, capacity);
+    }
+
+    @Override
+    void relocate(int from, int to, StringArena previous) {
+        titles[to] = strings.copy(previous, titles[from]);
+        descriptions[to] = strings.copy(previous, descriptions[from]);
+        pageCounts[to] = pageCounts[from];
+        excerpts[to] = strings.copy(previous, excerpts[from]);
+        publishDates[to] = publishDates[from];
+    }
+
+    @Override
+    void release(int slot) {
+        strings.release(titles[slot]);
+        strings.release(descriptions[slot]);
+        strings.release(excerpts[slot]);
+        titles[slot] = StringArena.NULL;
+        descriptions[slot] = StringArena.NULL;
+        excerpts[slot] = StringArena.NULL;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.api.emulator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Unit tests for the columnar {@link BookTable}.
+ */
+public class BookTableTest {
+    private static Book book(int id, String title) {
+        return new Book(id, title, "Shared description", id, null, IsoDate.fromEpochMillis(id * 1_000L));
+    }
+
+    /**
+     * Books round-trip through the columns, including non-ASCII text and null strings,
+     * and generated IDs continue after the highest stored one.
+     */
+    @Test
+    public void storesAndAssignsIds() {
+        BookTable table = new BookTable(0);
+        table.put(book(7, "Café über 📚"));
+        Book created = table.put(book(0, "Next"));
+
+        Assertions.assertEquals(book(7, "Café über 📚"), table.get(7));
+        Assertions.assertEquals(8, created.id());
+        Assertions.assertEquals(created, table.get(8));
+        Assertions.assertNull(table.get(1));
+    }
+
+    /**
+     * Deleting most rows compacts the table without changing the remaining rows or their order,
+     * and IDs are not reused.
+     */
+    @Test
+    public void compactionKeepsRowsInOrder() {
+        BookTable table = new BookTable(0);
+        for (int id = 1; id <= 10_000; id++) {
+            table.put(book(id, "Book " + id).withId(0));
+        }
+        for (int id = 1; id <= 10_000; id++) {
+            if (id % 10 != 0) {
+                Assertions.assertTrue(table.delete(id));
+            }
+        }
+        Assertions.assertFalse(table.delete(1));
+
+        List<Book> books = table.list();
+        Assertions.assertEquals(1_000, books.size());
+        for (int i = 0; i < books.size(); i++) {
+            Assertions.assertEquals(book((i + 1) * 10, "Book " + (i + 1) * 10), books.get(i));
+        }
+        Assertions.assertEquals(book(5_000, "Book 5000"), table.get(5_000));
+        Assertions.assertEquals(10_001, table.put(book(0, "After")).id());
+    }
+
+    /**
+     * Overwriting rows in place leaves the live values intact across the arena rebuild it eventually triggers.
+     */
+    @Test
+    public void repeatedUpdatesKeepLatestValues() {
+        BookTable table = new BookTable(0);
+        String longTitle = "x".repeat(2_000);
+        for (int round = 0; round < 10_000; round++) {
+            table.put(book(1, longTitle + round));
+        }
+        Assertions.assertEquals(book(1, longTitle + 9_999), table.get(1));
+        Assertions.assertEquals(1, table.count());
+    }
+
+    /**
+     * Paging resumes after the last ID handed out, even when that book has since been deleted.
+     */
+    @Test
+    public void pagesResumeAfterDeletedCursor() {
+        BookTable table = new BookTable(0);
+        for (int id = 1; id <= 20; id++) {
+            table.put(book(id, "Book " + id));
+        }
+        ColumnTable.JsonPage first = table.pageJson(0, 5);
+        Assertions.assertEquals(5, first.lastId());
+        Assertions.assertTrue(first.more());
+        table.delete(5);
+        table.delete(6);
+        Assertions.assertEquals(11, table.pageJson(5, 5).lastId());
+        ColumnTable.JsonPage last = table.pageJson(19, 5);
+        Assertions.assertArrayEquals(JsonWriter.books(List.of(book(20, "Book 20"))), last.body());
+        Assertions.assertFalse(last.more());
+        Assertions.assertArrayEquals("[]".getBytes(), table.pageJson(20, 5).body());
+    }
+
+    /**
+     * Cached JSON is reused until a write to the table, and always matches a fresh serialization.
+     */
+    @Test
+    public void jsonCacheIsInvalidatedByWrites() {
+        BookTable table = new BookTable(0);
+        for (int id = 1; id <= 3; id++) {
+            table.put(book(id, "Book " + id));
+        }
+        byte[] item = table.json(2);
+        byte[] list = table.listJson();
+        Assertions.assertSame(item, table.json(2));
+        Assertions.assertSame(list, table.listJson());
+        Assertions.assertArrayEquals(JsonWriter.books(table.list()), list);
+
+        table.put(book(2, "Renamed"));
+        Assertions.assertArrayEquals(JsonWriter.book(book(2, "Renamed")), table.json(2));
+        Assertions.assertArrayEquals(JsonWriter.books(table.list()), table.listJson());
+        table.delete(3);
+        Assertions.assertNull(table.json(3));
+        Assertions.assertArrayEquals(JsonWriter.books(table.list()), table.listJson());
+
+        table.cacheJson(0);
+        Assertions.assertNotSame(table.json(1), table.json(1));
+    }
+
+    /**
+     * The cache stops taking rows at its byte budget, keeps no collection larger than the budget, and gives back
+     * the bytes of rows that are written.
+     */
+    @Test
+    public void jsonCacheStaysWithinBudget() {
+        BookTable table = new BookTable(0);
+        for (int id = 1; id <= 1_000; id++) {
+            table.put(book(id, "Book " + id));
+        }
+        int rowBytes = table.json(1).length;
+        table.cacheJson(10L * rowBytes);
+        byte[] list = table.listJson();
+        Assertions.assertArrayEquals(JsonWriter.books(table.list()), list);
+        Assertions.assertNotSame(list, table.listJson());
+        Assertions.assertTrue(table.cachedBytes() <= 10L * rowBytes, () -> table.cachedBytes() + " bytes cached");
+        Assertions.assertSame(table.json(1), table.json(1));
+        Assertions.assertNotSame(table.json(1_000), table.json(1_000));
+
+        long cached = table.cachedBytes();
+        table.delete(1);
+        Assertions.assertEquals(cached - rowBytes, table.cachedBytes());
+        table.cacheJson(0);
+        Assertions.assertEquals(0, table.cachedBytes());
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.api.emulator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Supplier;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request handling for the {@code /api/v1/Books} and {@code /api/v1/Authors} endpoints, independent of transport.
+ * <p>
+ * In faithful mode writes behave like the hosted FakeRestAPI: they are validated and echoed back
+ * (a create without an ID answers with id 0) but nothing is stored. In stateful mode creates assign
+ * fresh IDs and updates and deletes change the catalog.
+ * <p>
+ * Collection GETs also accept {@code limit} and {@code cursor} for cursor pagination, which the hosted API
+ * does not have; without them the whole collection is returned as before. GETs carry strong ETags built from
+ * the table's epoch and the record's version or the collection's write count, and honour {@code If-None-Match}
+ * with 304.
+ */
+final class BookstoreApi {
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+    private static final String BOOKS = "books";
+    private static final String AUTHORS = "authors";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final String CURSOR_PREFIX = "after:";
+    private static final Base64.Encoder CURSORS = Base64.getUrlEncoder().withoutPadding();
+
+    private final Catalog catalog;
+    private final boolean stateful;
+
+    BookstoreApi(Catalog catalog, boolean stateful) {
+        this.catalog = catalog;
+        this.stateful = stateful;
+    }
+
+    ApiResponse handle(ApiRequest request) {
+        String[] segments = segments(request.path());
+        if (segments.length < 3 || !segments[0].equalsIgnoreCase("api") || !segments[1].equalsIgnoreCase("v1")) {
+            return ApiResponse.empty(404);
+        }
+        String resource = segments[2].toLowerCase();
+        if (!resource.equals(BOOKS) && !resource.equals(AUTHORS)) {
+            return ApiResponse.empty(404);
+        }
+        try {
+            if (segments.length == 3) {
+                return collection(resource, request);
+            }
+            if (segments.length == 4) {
+                return item(resource, segments[3], request);
+            }
+            if (segments.length == 6 && resource.equals(AUTHORS)
+                && segments[3].equalsIgnoreCase("authors") && segments[4].equalsIgnoreCase("books")) {
+                if (!request.method().equals("GET")) {
+                    return ApiResponse.empty(405);
+                }
+                Integer idBook = parseId(segments[5]);
+                if (idBook == null) {
+                    return invalidId("idBook", segments[5]);
+                }
+                return conditional(request, collectionTag(AUTHORS),
+                    () -> ApiResponse.json(catalog.authorsByBookJson(idBook)));
+            }
+            return ApiResponse.empty(404);
+        } catch (JsonException e) {
+            return validationProblem(e.path(), e.getMessage());
+        }
+    }
+
+    private ApiResponse collection(String resource, ApiRequest request) {
+        switch (request.method()) {
+            case "GET":
+                String limit = request.parameter("limit");
+                String cursor = request.parameter("cursor");
+                String etag = collectionTag(resource);
+                if (limit != null || cursor != null) {
+                    return conditional(request, etag, () -> page(resource, limit, cursor));
+                }
+                return conditional(request, etag, () -> ApiResponse.json(resource.equals(BOOKS)
+                    ? catalog.booksJson()
+                    : catalog.authorsJson()));
+            case "POST":
+                if (request.body().length == 0) {
+                    return validationProblem("", "A non-empty request body is required.");
+                }
+                if (resource.equals(BOOKS)) {
+                    Book book = RecordParser.readBook(request.body());
+                    return ApiResponse.json(JsonWriter.book(stateful && book.id() <= 0 ? catalog.putBook(book) : book));
+                }
+                Author author = RecordParser.readAuthor(request.body());
+                return ApiResponse.json(JsonWriter.author(stateful && author.id() <= 0 ? catalog.putAuthor(author) : author));
+            default:
+                return ApiResponse.empty(405);
+        }
+    }
+
+    /**
+     * One page of a collection. The body is the same array an unpaged GET returns; when more items follow,
+     * {@value #NEXT_CURSOR} carries an opaque cursor to pass back as {@code cursor}.
+     */
+    private ApiResponse page(String resource, String rawLimit, String rawCursor) {
+        int limit = DEFAULT_PAGE_SIZE;
+        if (rawLimit != null) {
+            Integer parsed = parseId(rawLimit);
+            if (parsed == null) {
+                return invalidId("limit", rawLimit);
+            }
+            if (parsed < 1) {
+                return validationProblem("limit", "The field limit must be between 1 and 2147483647.");
+            }
+            limit = parsed;
+        }
+        int afterId = 0;
+        if (rawCursor != null && !rawCursor.isEmpty()) {
+            Integer decoded = decodeCursor(rawCursor);
+            if (decoded == null) {
+                return invalidId("cursor", rawCursor);
+            }
+            afterId = decoded;
+        }
+        ColumnTable.JsonPage page = resource.equals(BOOKS)
+            ? catalog.booksJson(afterId, limit)
+            : catalog.authorsJson(afterId, limit);
+        ApiResponse response = ApiResponse.json(page.body());
+        return page.more() ? response.withHeader(NEXT_CURSOR, encodeCursor(page.lastId())) : response;
+    }
+
+    private static String encodeCursor(int afterId) {
+        return CURSORS.encodeToString((CURSOR_PREFIX + afterId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Integer decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            return decoded.startsWith(CURSOR_PREFIX) ? parseId(decoded.substring(CURSOR_PREFIX.length())) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private ApiResponse item(String resource, String rawId, ApiRequest request) {
+        Integer id = parseId(rawId);
+        if (id == null) {
+            return invalidId("id", rawId);
+        }
+        boolean books = resource.equals(BOOKS);
+        switch (request.method()) {
+            case "GET":
+                long epoch = books ? catalog.booksEpoch() : catalog.authorsEpoch();
+                int version = books ? catalog.bookVersion(id) : catalog.authorVersion(id);
+                if (version == 0) {
+                    return notFound();
+                }
+                return conditional(request, "\"" + Long.toHexString(epoch) + "-" + id + "-" + version + "\"", () -> {
+                    byte[] json = books ? catalog.bookJson(id) : catalog.authorJson(id);
+                    return json == null ? notFound() : ApiResponse.json(json);
+                });
+            case "PUT":
+                if (request.body().length == 0) {
+                    return validationProblem("", "A non-empty request body is required.");
+                }
+                if (books) {
+                    Book book = RecordParser.readBook(request.body());
+                    if (stateful) {
+                        if (catalog.book(id) == null) {
+                            return notFound();
+                        }
+                        catalog.putBook(book.withId(id));
+                    }
+                    return ApiResponse.json(JsonWriter.book(book));
+                }
+                Author updated = RecordParser.readAuthor(request.body());
+                if (stateful) {
+                    if (catalog.author(id) == null) {
+                        return notFound();
+                    }
+                    catalog.putAuthor(updated.withId(id));
+                }
+                return ApiResponse.json(JsonWriter.author(updated));
+            case "DELETE":
+                if (stateful && !(books ? catalog.deleteBook(id) : catalog.deleteAuthor(id))) {
+                    return notFound();
+                }
+                return ApiResponse.empty(200);
+            default:
+                return ApiResponse.empty(405);
+        }
+    }
+
+    private String collectionTag(String resource) {
+        return resource.equals(BOOKS)
+            ? "\"b" + Long.toHexString(catalog.booksEpoch()) + "-" + catalog.booksVersion() + "\""
+            : "\"a" + Long.toHexString(catalog.authorsEpoch()) + "-" + catalog.authorsVersion() + "\"";
+    }
+
+    /**
+     * Answer 304 when {@code If-None-Match} lists the current ETag, otherwise build the response and tag it.
+     * A request whose body would not be 200 is passed through untagged.
+     */
+    private static ApiResponse conditional(ApiRequest request, String etag, Supplier<ApiResponse> response) {
+        String ifNoneMatch = request.header("if-none-match");
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2); // If-None-Match uses the weak comparison
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return ApiResponse.empty(304).withHeader("ETag", etag);
+                }
+            }
+        }
+        ApiResponse built = response.get();
+        return built.status() == 200 ? built.withHeader("ETag", etag) : built;
+    }
+
+    private static Integer parseId(String raw) {
+        try {
+            return Integer.parseInt(raw);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String[] segments(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.endsWith("/") && path.length() > 1 ? path.length() - 1 : path.length();
+        return start >= end ? new String[0] : path.substring(start, end).split("/");
+    }
+
+    private static ApiResponse invalidId(String name, String raw) {
+        return validationProblem(name, "The value '" + raw + "' is not valid.");
+    }
+
+    private static ApiResponse notFound() {
+        String body = "{\"type\":\"https://tools.ietf.org/html/rfc7231#section-6.5.4\",\"title\":\"Not Found\",\"status\":404,"
+            + "\"traceId\":\"" + traceId() + "\"}";
+        return new ApiResponse(404, ApiResponse.PROBLEM_JSON, body.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * An ASP.NET validation problem with a single error, e.g. {@code errors.'$.lastName'[0]}.
+     */
+    private static ApiResponse validationProblem(String key, String message) {
+        StringBuilder out = new StringBuilder(256);
+        out.append("{\"type\":\"https://tools.ietf.org/html/rfc7231#section-6.5.1\",")
+            .append("\"title\":\"One or more validation errors occurred.\",\"status\":400,\"traceId\":\"")
+            .append(traceId()).append("\",\"errors\":{");
+        JsonWriter.string(key, out);
+        out.append(":[");
+        JsonWriter.string(message, out);
+        out.append("]}}");
+        return new ApiResponse(400, ApiResponse.PROBLEM_JSON, JsonWriter.bytes(out));
+    }
+
+    private static String traceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("00-%016x%016x-%016x-00", random.nextLong(), random.nextLong(), random.nextLong());
+    }
+}
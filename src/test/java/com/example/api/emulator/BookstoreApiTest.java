@@ -0,0 +1,63 @@
+package com.example.api.emulator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+/**
+ * ETags of the stateful {@link BookstoreApi}, which must never match content they were not given for.
+ */
+public class BookstoreApiTest {
+    private static ApiResponse send(BookstoreApi api, String method, String path, Map<String, String> headers,
+                                    byte[] body) {
+        return api.handle(new ApiRequest(method, path, null, headers, body));
+    }
+
+    private static ApiResponse get(BookstoreApi api, String path, String etag) {
+        return send(api, "GET", path, etag == null ? Map.of() : Map.of("if-none-match", etag), new byte[0]);
+    }
+
+    private static Catalog seeded() {
+        Catalog catalog = new Catalog();
+        catalog.seed(3, 1);
+        return catalog;
+    }
+
+    /**
+     * A book deleted and stored again under its ID, as a journal replay or fixture may, does not revalidate a
+     * copy cached before, and neither does the collection after writes that restored its content.
+     */
+    @Test
+    public void recreatedBookGetsNewTag() {
+        Catalog catalog = seeded();
+        BookstoreApi api = new BookstoreApi(catalog, true);
+        Book original = catalog.book(1);
+        String book = get(api, "/api/v1/Books/1", null).headers().get("ETag");
+        String books = get(api, "/api/v1/Books", null).headers().get("ETag");
+        Assertions.assertEquals(304, get(api, "/api/v1/Books/1", book).status());
+
+        Assertions.assertEquals(200, send(api, "DELETE", "/api/v1/Books/1", Map.of(), new byte[0]).status());
+        catalog.putBook(original);
+        ApiResponse recreated = get(api, "/api/v1/Books/1", book);
+        Assertions.assertEquals(200, recreated.status());
+        Assertions.assertNotEquals(book, recreated.headers().get("ETag"));
+        Assertions.assertEquals(304, get(api, "/api/v1/Books/1", recreated.headers().get("ETag")).status());
+        Assertions.assertEquals(200, get(api, "/api/v1/Books", books).status());
+    }
+
+    /**
+     * A restarted emulator has the same catalog, counts and versions, but none of the same tags.
+     */
+    @Test
+    public void restartChangesTags() {
+        BookstoreApi before = new BookstoreApi(seeded(), true);
+        BookstoreApi after = new BookstoreApi(seeded(), true);
+        for (String path : new String[] {"/api/v1/Books/1", "/api/v1/Books", "/api/v1/Authors/1", "/api/v1/Authors"}) {
+            String etag = get(before, path, null).headers().get("ETag");
+            Assertions.assertNotNull(etag, path);
+            Assertions.assertEquals(304, get(before, path, etag).status(), path);
+            Assertions.assertEquals(200, get(after, path, etag).status(), path);
+        }
+    }
+}
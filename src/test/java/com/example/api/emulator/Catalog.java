@@ -0,0 +1,240 @@
+package com.example.api.emulator;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory books and authors, listed in ID order. Both are held in columnar tables keyed by a primitive
+ * {@link IntIndex}, so a seed of millions of rows costs tens of bytes per row and no boxed IDs.
+ * <p>
+ * With a {@link Journal} attached, every write is applied and appended to the log in one step, so the log
+ * order is the order writes took effect, and then waits until the log is on disk before returning.
+ */
+final class Catalog {
+    private static final int DATE_CYCLE_DAYS = 100_000;
+
+    private final BookTable books;
+    private final AuthorTable authors;
+    private final Object writes = new Object();
+    private volatile Journal journal;
+
+    Catalog() {
+        this(0, 0);
+    }
+
+    Catalog(int bookCapacity, int authorCapacity) {
+        books = new BookTable(bookCapacity);
+        authors = new AuthorTable(authorCapacity);
+    }
+
+    /**
+     * Keep serialized records and collections between reads until a write invalidates them, up to
+     * {@code maxBytes} per table, or with 0 serialize on every read.
+     */
+    Catalog responseCache(long maxBytes) {
+        books.cacheJson(maxBytes);
+        authors.cacheJson(maxBytes);
+        return this;
+    }
+
+    /**
+     * Seed a catalog shaped like FakeRestAPI's: books 1..bookCount, and authorsPerBook authors for each book,
+     * bypassing any journal. Publish dates count back one day per book from a fixed instant so runs are
+     * reproducible, wrapping every {@value #DATE_CYCLE_DAYS} days so that large seeds stay in range.
+     */
+    void seed(int bookCount, int authorsPerBook) {
+        for (int id = 1; id <= bookCount; id++) {
+            books.put(seedBook(id));
+            for (int n = 0; n < authorsPerBook; n++) {
+                authors.put(seedAuthor((id - 1) * authorsPerBook + n + 1, authorsPerBook));
+            }
+        }
+    }
+
+    /**
+     * Seed the catalog as {@code options} ask: from their fixture if they name one, generating it if missing,
+     * or row by row otherwise. Bypasses any journal.
+     */
+    void seed(EmulatorOptions options) {
+        if (options.fixture() == null) {
+            seed(options.seedBooks(), options.authorsPerBook());
+        } else {
+            load(CatalogFixture.openOrGenerate(options.fixture(), options.seedBooks(), options.authorsPerBook()));
+        }
+    }
+
+    /**
+     * Fill an empty catalog from a fixture.
+     */
+    void load(CatalogFixture fixture) {
+        books.load(fixture);
+        authors.load(fixture);
+    }
+
+    static Book seedBook(int id) {
+        long base = IsoDate.fromEpochMillis(1_754_380_800_000L); // 2025-08-05T08:00:00
+        long dayTicks = 86_400L * 10_000_000L;
+        return new Book(id, "Book " + id,
+            "Lorem lorem lorem. Lorem lorem lorem. Lorem lorem lorem.\n",
+            id * 100,
+            "Lorem lorem lorem. Lorem lorem lorem. Lorem lorem lorem.\n",
+            base - id % DATE_CYCLE_DAYS * dayTicks);
+    }
+
+    static Author seedAuthor(int id, int authorsPerBook) {
+        return new Author(id, (id - 1) / authorsPerBook + 1, "First Name " + id, "Last Name " + id);
+    }
+
+    /**
+     * Log every later write to {@code journal}.
+     */
+    void journal(Journal journal) {
+        this.journal = journal;
+    }
+
+    Book book(int id) {
+        return books.get(id);
+    }
+
+    /**
+     * One book as JSON, or null if there is none.
+     */
+    byte[] bookJson(int id) {
+        return books.json(id);
+    }
+
+    byte[] booksJson() {
+        return books.listJson();
+    }
+
+    ColumnTable.JsonPage booksJson(int afterId, int limit) {
+        return books.pageJson(afterId, limit);
+    }
+
+    /**
+     * Version of one book, or 0 if there is none. Read it before the book itself: if a write lands in between,
+     * the version then understates the content and a later revalidation just misses.
+     */
+    int bookVersion(int id) {
+        return books.version(id);
+    }
+
+    /**
+     * Changes whenever the books table starts over, so that with it versions and write counts never repeat.
+     */
+    long booksEpoch() {
+        return books.epoch();
+    }
+
+    /**
+     * Version of the books collection, read before listing for the same reason as {@link #bookVersion}.
+     */
+    long booksVersion() {
+        return books.changes();
+    }
+
+    /**
+     * Insert or replace a book. A book without a positive ID is assigned the next free one.
+     */
+    Book putBook(Book book) {
+        return logged(() -> books.put(book), Journal::putBook);
+    }
+
+    boolean deleteBook(int id) {
+        return logged(() -> books.delete(id), deleted -> deleted ? Journal.deleteBook(id) : null);
+    }
+
+    /**
+     * Books after ID {@code afterId}, up to {@code limit} of them, see {@link ColumnTable#scan}.
+     */
+    int scanBooks(int afterId, int limit, Consumer<Book> action) {
+        return books.forEach(afterId, limit, action);
+    }
+
+    Author author(int id) {
+        return authors.get(id);
+    }
+
+    byte[] authorJson(int id) {
+        return authors.json(id);
+    }
+
+    byte[] authorsJson() {
+        return authors.listJson();
+    }
+
+    ColumnTable.JsonPage authorsJson(int afterId, int limit) {
+        return authors.pageJson(afterId, limit);
+    }
+
+    byte[] authorsByBookJson(int idBook) {
+        return authors.byBookJson(idBook);
+    }
+
+    int authorVersion(int id) {
+        return authors.version(id);
+    }
+
+    long authorsEpoch() {
+        return authors.epoch();
+    }
+
+    long authorsVersion() {
+        return authors.changes();
+    }
+
+    /**
+     * Insert or replace an author. An author without a positive ID is assigned the next free one.
+     */
+    Author putAuthor(Author author) {
+        return logged(() -> authors.put(author), Journal::putAuthor);
+    }
+
+    boolean deleteAuthor(int id) {
+        return logged(() -> authors.delete(id), deleted -> deleted ? Journal.deleteAuthor(id) : null);
+    }
+
+    int scanAuthors(int afterId, int limit, Consumer<Author> action) {
+        return authors.forEach(afterId, limit, action);
+    }
+
+    int nextBookId() {
+        return books.nextId();
+    }
+
+    int nextAuthorId() {
+        return authors.nextId();
+    }
+
+    /**
+     * Restore the ID counters saved with a snapshot, so IDs of deleted rows are not handed out again.
+     */
+    void reserveIdsBelow(int bookId, int authorId) {
+        books.reserveIdsBelow(bookId);
+        authors.reserveIdsBelow(authorId);
+    }
+
+    /**
+     * Apply a write, log the record describing its outcome (none if null), and wait for the log to be durable.
+     */
+    private <T> T logged(Supplier<T> write, Function<T, byte[]> record) {
+        Journal log = journal;
+        if (log == null) {
+            return write.get();
+        }
+        T result;
+        long sequence = 0;
+        synchronized (writes) {
+            // Once the log has failed, a write applied here could never be made durable
+            log.checkUsable();
+            result = write.get();
+            byte[] entry = record.apply(result);
+            if (entry != null) {
+                sequence = log.append(entry);
+            }
+        }
+        log.awaitDurable(sequence);
+        return result;
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.api.emulator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A seeded catalog written to disk once, so that large seeds are mapped at startup instead of generated.
+ * <p>
+ * The file is little-endian: a header, then one fixed-width slot per book and per author in ID order, then for
+ * each of the two tables an offset table and a string heap. A slot refers to a string by its ordinal in the
+ * offset table (-1 for null), and the offset table gives where the string starts in the heap. Each heap is laid
+ * out in {@link StringArena} pages, so a table adopts it with one copy per page and keeps the offsets as its
+ * string references; the slots are copied column by column.
+ *
+ * <pre>
+ * header (64 bytes)  magic, version, book and author counts, string counts, heap lengths
+ * book slots         id, pageCount, publishDate, title, description, excerpt, padding (32 bytes each)
+ * author slots       id, idBook, firstName, lastName (16 bytes each)
+ * book strings       offset table (4 bytes per string), then the heap
+ * author strings     offset table (4 bytes per string), then the heap
+ * </pre>
+ */
+public final class CatalogFixture {
+    static final int BOOK_SLOT_BYTES = 32;
+    static final int BOOK_ID = 0;
+    static final int BOOK_PAGE_COUNT = 4;
+    static final int BOOK_PUBLISH_DATE = 8;
+    static final int BOOK_TITLE = 16;
+    static final int BOOK_DESCRIPTION = 20;
+    static final int BOOK_EXCERPT = 24;
+
+    static final int AUTHOR_SLOT_BYTES = 16;
+    static final int AUTHOR_ID = 0;
+    static final int AUTHOR_ID_BOOK = 4;
+    static final int AUTHOR_FIRST_NAME = 8;
+    static final int AUTHOR_LAST_NAME = 12;
+
+    private static final long MAGIC = 0x315849464B4F4F42L; // "BOOKFIX1" read little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+
+    private final int bookCount;
+    private final int authorCount;
+    private final ByteBuffer bookSlots;
+    private final ByteBuffer authorSlots;
+    private final ByteBuffer bookOffsets;
+    private final ByteBuffer authorOffsets;
+    private final ByteBuffer bookHeap;
+    private final ByteBuffer authorHeap;
+
+    private CatalogFixture(FileChannel channel) throws IOException {
+        ByteBuffer header = map(channel, 0, HEADER_BYTES);
+        if (channel.size() < HEADER_BYTES || header.getLong(0) != MAGIC || header.getInt(8) != VERSION) {
+            throw new IllegalStateException("Not a catalog fixture, or one from another version");
+        }
+        bookCount = header.getInt(12);
+        authorCount = header.getInt(16);
+        int bookStrings = header.getInt(20);
+        int authorStrings = header.getInt(24);
+        long bookHeapBytes = header.getLong(32);
+        long authorHeapBytes = header.getLong(40);
+
+        long at = HEADER_BYTES;
+        bookSlots = map(channel, at, (long) bookCount * BOOK_SLOT_BYTES);
+        at += (long) bookCount * BOOK_SLOT_BYTES;
+        authorSlots = map(channel, at, (long) authorCount * AUTHOR_SLOT_BYTES);
+        at += (long) authorCount * AUTHOR_SLOT_BYTES;
+        bookOffsets = map(channel, at, 4L * bookStrings);
+        at += 4L * bookStrings;
+        bookHeap = map(channel, at, bookHeapBytes);
+        at += bookHeapBytes;
+        authorOffsets = map(channel, at, 4L * authorStrings);
+        at += 4L * authorStrings;
+        authorHeap = map(channel, at, authorHeapBytes);
+        if (at + authorHeapBytes != channel.size()) {
+            throw new IllegalStateException("Catalog fixture is truncated or has trailing bytes");
+        }
+    }
+
+    /**
+     * Generate a fixture: {@code CatalogFixture <file> <books> <authorsPerBook>}.
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Usage: CatalogFixture <file> <books> <authorsPerBook>");
+            System.exit(2);
+        }
+        long started = System.nanoTime();
+        generate(Path.of(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        System.out.printf("Wrote %s in %d ms%n", args[0], (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Map a fixture written by {@link #generate}.
+     */
+    static CatalogFixture open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CatalogFixture(channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map catalog fixture " + file, e);
+        }
+    }
+
+    /**
+     * Map the fixture at {@code file}, generating it with the given seed first if it does not exist yet.
+     */
+    static CatalogFixture openOrGenerate(Path file, int books, int authorsPerBook) {
+        if (!Files.exists(file)) {
+            generate(file, books, authorsPerBook);
+        }
+        return open(file);
+    }
+
+    /**
+     * Write the rows of {@link Catalog#seed(int, int)} as a fixture. Slots stream straight to the file, so only the
+     * strings are held in memory.
+     */
+    static void generate(Path file, int books, int authorsPerBook) {
+        long authors = (long) books * authorsPerBook;
+        if (books < 0 || authorsPerBook < 0 || authors > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot seed " + books + " books with " + authorsPerBook + " authors each");
+        }
+        Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                StringTable bookStrings = new StringTable();
+                StringTable authorStrings = new StringTable();
+                ByteBuffer out = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+                channel.position(HEADER_BYTES);
+                for (int id = 1; id <= books; id++) {
+                    Book book = Catalog.seedBook(id);
+                    out.putInt(book.id())
+                        .putInt(book.pageCount())
+                        .putLong(book.publishDate())
+                        .putInt(bookStrings.ordinal(book.title()))
+                        .putInt(bookStrings.ordinal(book.description()))
+                        .putInt(bookStrings.ordinal(book.excerpt()))
+                        .putInt(0);
+                    drainIfFull(out, channel, BOOK_SLOT_BYTES);
+                }
+                for (int id = 1; id <= authors; id++) {
+                    Author author = Catalog.seedAuthor(id, authorsPerBook);
+                    out.putInt(author.id())
+                        .putInt(author.idBook())
+                        .putInt(authorStrings.ordinal(author.firstName()))
+                        .putInt(authorStrings.ordinal(author.lastName()));
+                    drainIfFull(out, channel, AUTHOR_SLOT_BYTES);
+                }
+                drain(out, channel);
+                long bookHeapBytes = bookStrings.writeTo(channel, out);
+                long authorHeapBytes = authorStrings.writeTo(channel, out);
+
+                out.clear();
+                out.putLong(MAGIC).putInt(VERSION).putInt(books).putInt((int) authors)
+                    .putInt(bookStrings.count).putInt(authorStrings.count).putInt(0)
+                    .putLong(bookHeapBytes).putLong(authorHeapBytes);
+                out.position(HEADER_BYTES).flip();
+                channel.write(out, 0);
+                channel.force(true);
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write catalog fixture " + file, e);
+        }
+    }
+
+    int bookCount() {
+        return bookCount;
+    }
+
+    int authorCount() {
+        return authorCount;
+    }
+
+    /**
+     * Book slots, {@value #BOOK_SLOT_BYTES} bytes each, in ID order.
+     */
+    ByteBuffer bookSlots() {
+        return bookSlots;
+    }
+
+    ByteBuffer authorSlots() {
+        return authorSlots;
+    }
+
+    /**
+     * Heap offsets of the book strings by ordinal; each is also the string's reference in {@link #bookStrings()}.
+     */
+    int[] bookStringOffsets() {
+        return offsets(bookOffsets);
+    }
+
+    int[] authorStringOffsets() {
+        return offsets(authorOffsets);
+    }
+
+    /**
+     * A fresh arena holding the book strings.
+     */
+    StringArena bookStrings() {
+        return StringArena.adopt(bookHeap.duplicate());
+    }
+
+    StringArena authorStrings() {
+        return StringArena.adopt(authorHeap.duplicate());
+    }
+
+    private static int[] offsets(ByteBuffer table) {
+        int[] offsets = new int[table.capacity() / 4];
+        table.asIntBuffer().get(0, offsets);
+        return offsets;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Catalog fixture section of " + size + " bytes is too large to map");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void drainIfFull(ByteBuffer out, FileChannel channel, int next) throws IOException {
+        if (out.remaining() < next) {
+            drain(out, channel);
+        }
+    }
+
+    private static void drain(ByteBuffer out, FileChannel channel) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Strings of one table on their way into a fixture: interned into an arena, and numbered in the order
+     * they were first stored.
+     */
+    private static final class StringTable {
+        final StringArena arena = new StringArena();
+        final IntIndex ordinals = new IntIndex(1024);
+        int[] offsets = new int[1024];
+        int count;
+
+        int ordinal(String value) {
+            int ref = arena.intern(value);
+            if (ref == StringArena.NULL) {
+                return -1;
+            }
+            int ordinal = ordinals.get(ref);
+            if (ordinal == IntIndex.MISSING) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                ordinal = count++;
+                offsets[ordinal] = ref;
+                ordinals.put(ref, ordinal);
+            }
+            return ordinal;
+        }
+
+        /**
+         * Write the offset table and then the heap, returning the heap's length.
+         */
+        long writeTo(FileChannel channel, ByteBuffer out) throws IOException {
+            for (int i = 0; i < count; i++) {
+                drainIfFull(out, channel, 4);
+                out.putInt(offsets[i]);
+            }
+            drain(out, channel);
+            return arena.writeTo(channel);
+        }
+    }
+}
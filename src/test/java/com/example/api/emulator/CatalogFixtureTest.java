@@ -0,0 +1,51 @@
+package com.example.api.emulator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+/**
+ * A {@link CatalogFixture} loads into the same catalog that seeding row by row builds.
+ */
+public class CatalogFixtureTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Every row, the per-book author chains and the ID counters match a seeded catalog, and the loaded
+     * catalog takes writes like any other.
+     */
+    @Test
+    public void loadsLikeSeededCatalog() {
+        Catalog seeded = new Catalog();
+        seeded.seed(500, 3);
+        Catalog loaded = new Catalog();
+        loaded.seed(new EmulatorOptions().seed(500, 3).fixture(directory.resolve("catalog.bin")));
+
+        Assertions.assertEquals(CatalogRows.of(seeded), CatalogRows.of(loaded));
+        Assertions.assertArrayEquals(seeded.authorsByBookJson(250), loaded.authorsByBookJson(250));
+        Assertions.assertArrayEquals(seeded.booksJson(), loaded.booksJson());
+        Assertions.assertEquals(seeded.nextBookId(), loaded.nextBookId());
+
+        Assertions.assertEquals(501, loaded.putBook(new Book(0, "Book 1", "New", 1, null, 0)).id());
+        loaded.putAuthor(new Author(2, 400, "Moved", "Author"));
+        Assertions.assertEquals("Moved", loaded.author(2).firstName());
+        Assertions.assertTrue(new String(loaded.authorsByBookJson(400)).contains("\"id\":2,"));
+        Assertions.assertTrue(loaded.deleteBook(1));
+        Assertions.assertNull(loaded.book(1));
+    }
+
+    /**
+     * An existing fixture is reused as is, whatever seed is asked for.
+     */
+    @Test
+    public void reusesExistingFixture() {
+        Path file = directory.resolve("catalog.bin");
+        CatalogFixture.generate(file, 20, 0);
+        CatalogFixture fixture = CatalogFixture.openOrGenerate(file, 1_000, 2);
+        Assertions.assertEquals(20, fixture.bookCount());
+        Assertions.assertEquals(0, fixture.authorCount());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.api.emulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test support: every row of a catalog, books then authors in ID order, for comparing two catalogs.
+ */
+final class CatalogRows {
+    private CatalogRows() {
+    }
+
+    static List<Object> of(Catalog catalog) {
+        List<Object> rows = new ArrayList<>();
+        for (int after = 0, last = -1; after != last; ) {
+            last = after;
+            after = catalog.scanBooks(after, 100, rows::add);
+        }
+        for (int after = 0, last = -1; after != last; ) {
+            last = after;
+            after = catalog.scanAuthors(after, 100, rows::add);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,488 @@
+package com.example.api.emulator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Row storage shared by {@link BookTable} and {@link AuthorTable}. Every field lives in its own array indexed by
+ * slot, strings live in a {@link StringArena}, and an {@link IntIndex} maps IDs to slots, so a row costs a few
+ * dozen bytes and nothing per row is boxed.
+ * <p>
+ * Rows are appended, so for generated IDs slot order is ID order, which is the order collections are listed in.
+ * Deleted slots stay empty until they outnumber live rows, or until replaced strings outweigh live ones; then
+ * the table compacts in place. Subclasses own the field columns and hold {@link #lock} around every access.
+ * <p>
+ * Each row carries a version that is new whenever it is written, and the table counts every write, so responses
+ * can be given strong ETags without hashing their bodies. Versions come from one counter per table, so a row
+ * recreated under a deleted row's ID never gets that row's version back. Tags must also differ across restarts,
+ * when versions and counts start over, so they include the table's {@link #epoch()}.
+ * <p>
+ * Serialized JSON is cached too: each row's bytes are encoded on first read and dropped when the row is written,
+ * and the whole collection is kept as one buffer tagged with the write count it was built at. Both are bounded by
+ * a byte budget, so a large table does not end up holding a second, JSON-sized copy of itself: rows read once the
+ * cached ones add up to the budget are encoded on every read, and a collection larger than the budget is not
+ * kept. Readers fill the row cache under the read lock, so its slots are published with release/acquire
+ * semantics.
+ */
+abstract class ColumnTable {
+    private static final int MIN_CAPACITY = 16;
+    private static final int COMPACT_MIN_SLOTS = 1024;
+    private static final long COMPACT_MIN_BYTES = 8L << 20;
+    private static final VarHandle ENCODED = MethodHandles.arrayElementVarHandle(byte[][].class);
+    static final long DEFAULT_CACHE_BYTES = 64L << 20;
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    StringArena strings = new StringArena();
+    int[] ids;
+    int[] versions;
+    /** Slots handed out so far, live or deleted. */
+    int slots;
+
+    private final IntIndex index;
+    private int live;
+    private int nextId = 1;
+    private long changes;
+    private long epoch = newEpoch();
+    private int lastVersion;
+    private byte[][] encoded;
+    private long cacheBytes = DEFAULT_CACHE_BYTES;
+    /** Bytes of row JSON in {@link #encoded}; readers add to it concurrently. */
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private volatile Snapshot collection;
+
+    ColumnTable(int capacity) {
+        ids = new int[Math.max(MIN_CAPACITY, capacity)];
+        versions = new int[ids.length];
+        encoded = new byte[ids.length][];
+        index = new IntIndex(ids.length);
+    }
+
+    /**
+     * Grow every field column to at least the given capacity.
+     */
+    abstract void grow(int capacity);
+
+    /**
+     * Move a row's fields to a slot at or below its current one, copying its strings from the previous arena
+     * into {@link #strings}.
+     */
+    abstract void relocate(int from, int to, StringArena previous);
+
+    /**
+     * Release the strings of a row that is being deleted or overwritten.
+     */
+    abstract void release(int slot);
+
+    /**
+     * Serialize the row in a slot as JSON.
+     */
+    abstract byte[] encode(int slot);
+
+    /**
+     * Called after compaction has moved rows to new slots, to rebuild anything that refers to slots.
+     */
+    void compacted() {
+    }
+
+    /**
+     * The string reference for a fixture ordinal, where -1 stands for null.
+     */
+    static int string(int[] offsets, int ordinal) {
+        return ordinal < 0 ? StringArena.NULL : offsets[ordinal];
+    }
+
+    final int slotOf(int id) {
+        return index.get(id);
+    }
+
+    /**
+     * The first slot past the row with the given ID, for resuming a listing. If that row has been deleted since,
+     * binary search over the ID-ordered slots, stepping over empty ones, finds where it would have been.
+     */
+    final int seek(int afterId) {
+        int slot = index.get(afterId);
+        if (slot != IntIndex.MISSING) {
+            return slot + 1;
+        }
+        int lo = 0;
+        int hi = slots;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int probe = mid;
+            while (probe < hi && ids[probe] == 0) {
+                probe++;
+            }
+            if (probe == hi || ids[probe] > afterId) {
+                hi = mid;
+            } else {
+                lo = probe + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Append a row for an ID, or for the next free one when the ID is not positive, and return its slot.
+     */
+    final int insert(int id) {
+        if (id <= 0) {
+            id = nextId;
+        }
+        if (slots == ids.length) {
+            reserve(ids.length + (ids.length >> 1));
+        }
+        int slot = slots++;
+        ids[slot] = id;
+        versions[slot] = nextVersion();
+        uncache(slot);
+        index.put(id, slot);
+        live++;
+        changes++;
+        nextId = Math.max(nextId, id + 1);
+        return slot;
+    }
+
+    /**
+     * Grow every column to hold at least {@code capacity} rows.
+     */
+    final void reserve(int capacity) {
+        if (ids.length < capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            encoded = Arrays.copyOf(encoded, capacity);
+            grow(capacity);
+        }
+    }
+
+    /**
+     * Take on the first {@code count} slots, whose IDs and fields a subclass has filled in directly, as if each
+     * had been inserted. The table must have been empty, and the IDs must be positive and ascending.
+     */
+    final void loaded(int count) {
+        if (slots != 0) {
+            throw new IllegalStateException("Only an empty table can be loaded");
+        }
+        index.reserve(count);
+        int previous = 0;
+        for (int slot = 0; slot < count; slot++) {
+            int id = ids[slot];
+            if (id <= previous) {
+                throw new IllegalStateException("IDs must be positive and ascending, found " + id + " after " + previous);
+            }
+            index.put(id, slot);
+            versions[slot] = 1;
+            previous = id;
+        }
+        epoch = newEpoch();
+        lastVersion = 1;
+        slots = count;
+        live = count;
+        nextId = Math.max(nextId, previous + 1);
+        changes++;
+    }
+
+    final boolean remove(int id) {
+        int slot = index.remove(id);
+        if (slot == IntIndex.MISSING) {
+            return false;
+        }
+        release(slot);
+        ids[slot] = 0;
+        uncache(slot);
+        live--;
+        changes++;
+        return true;
+    }
+
+    /**
+     * Record that a row was overwritten in place.
+     */
+    final void touch(int slot) {
+        versions[slot] = nextVersion();
+        uncache(slot);
+        changes++;
+    }
+
+    /**
+     * The version of the row with this ID, or 0 if there is none.
+     */
+    final int version(int id) {
+        lock.readLock().lock();
+        try {
+            int slot = index.get(id);
+            return slot == IntIndex.MISSING ? 0 : versions[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes applied to the table so far, which versions any listing of it.
+     */
+    final long changes() {
+        lock.readLock().lock();
+        try {
+            return changes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A random number chosen when the table is created or loaded, and again if row versions run out, under
+     * which no row version or write count is ever reused.
+     */
+    final long epoch() {
+        lock.readLock().lock();
+        try {
+            return epoch;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int nextVersion() {
+        if (lastVersion == Integer.MAX_VALUE) {
+            epoch = newEpoch();
+            lastVersion = 0;
+        }
+        return ++lastVersion;
+    }
+
+    private static long newEpoch() {
+        return ThreadLocalRandom.current().nextLong() >>> 1;
+    }
+
+    final int size() {
+        return live;
+    }
+
+    /**
+     * The ID the next row inserted without one will get.
+     */
+    final int nextId() {
+        lock.readLock().lock();
+        try {
+            return nextId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Never assign IDs below {@code id}, e.g. to keep IDs of deleted rows retired after a restore.
+     */
+    final void reserveIdsBelow(int id) {
+        lock.writeLock().lock();
+        try {
+            nextId = Math.max(nextId, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hand the slots of up to {@code limit} rows after the one with ID {@code afterId} to {@code row} under the
+     * read lock, and return the ID of the last one, or {@code afterId} when no rows are left. A long scan can
+     * resume from the returned ID, releasing the lock in between, and still sees every row that outlives it.
+     */
+    final int scan(int afterId, int limit, IntConsumer row) {
+        lock.readLock().lock();
+        try {
+            int lastId = afterId;
+            for (int slot = afterId == 0 ? 0 : seek(afterId); slot < slots && limit > 0; slot++) {
+                if (ids[slot] != 0) {
+                    row.accept(slot);
+                    lastId = ids[slot];
+                    limit--;
+                }
+            }
+            return lastId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compact once deleted slots or replaced strings dominate. Slots change, so call this last in a write.
+     */
+    final void compactIfSparse() {
+        boolean sparseRows = slots - live > Math.max(COMPACT_MIN_SLOTS, live);
+        boolean sparseStrings = strings.garbageBytes() > Math.max(COMPACT_MIN_BYTES, strings.usedBytes() / 2);
+        if (sparseRows || sparseStrings) {
+            compact();
+        }
+    }
+
+    /**
+     * Keep serialized rows and collections between requests up to {@code maxBytes} of each, or with 0 encode
+     * them on every read.
+     */
+    final void cacheJson(long maxBytes) {
+        lock.writeLock().lock();
+        try {
+            cacheBytes = maxBytes;
+            Arrays.fill(encoded, null);
+            cachedBytes.set(0);
+            collection = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The JSON of the row with this ID, or null if there is none.
+     */
+    final byte[] json(int id) {
+        lock.readLock().lock();
+        try {
+            int slot = index.get(id);
+            return slot == IntIndex.MISSING ? null : encoded(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The whole collection as a JSON array, rebuilt from the row cache only after a write.
+     */
+    final byte[] listJson() {
+        lock.readLock().lock();
+        try {
+            Snapshot cached = collection;
+            if (cached != null && cached.changes() == changes) {
+                return cached.body();
+            }
+            byte[] body = pageJson(0, 0, Integer.MAX_VALUE).body();
+            if (body.length <= cacheBytes) {
+                collection = new Snapshot(changes, body);
+            }
+            return body;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} rows after the one with ID {@code afterId} (0 for the start) as a JSON array.
+     */
+    final JsonPage pageJson(int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return pageJson(afterId == 0 ? 0 : seek(afterId), afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Join the bytes of the given live slots into one JSON array, sized exactly up front. Each row is encoded
+     * once, whether or not the cache keeps it.
+     */
+    final byte[] joinJson(int[] rowSlots, int count) {
+        byte[][] rows = new byte[count][];
+        int length = 2 + Math.max(0, count - 1);
+        for (int i = 0; i < count; i++) {
+            rows[i] = encoded(rowSlots[i]);
+            length += rows[i].length;
+        }
+        byte[] body = new byte[length];
+        body[0] = '[';
+        int at = 1;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                body[at++] = ',';
+            }
+            byte[] row = rows[i];
+            System.arraycopy(row, 0, body, at, row.length);
+            at += row.length;
+        }
+        body[at] = ']';
+        return body;
+    }
+
+    private JsonPage pageJson(int from, int afterId, int limit) {
+        int[] rowSlots = new int[Math.min(limit, live)];
+        int count = 0;
+        int slot = from;
+        for (; slot < slots && count < limit; slot++) {
+            if (ids[slot] != 0) {
+                rowSlots[count++] = slot;
+            }
+        }
+        while (slot < slots && ids[slot] == 0) {
+            slot++;
+        }
+        int lastId = count == 0 ? afterId : ids[rowSlots[count - 1]];
+        return new JsonPage(joinJson(rowSlots, count), lastId, slot < slots);
+    }
+
+    private byte[] encoded(int slot) {
+        byte[] json = (byte[]) ENCODED.getAcquire(encoded, slot);
+        if (json == null) {
+            json = encode(slot);
+            // Concurrent readers may overshoot the budget by a row each, which is as close as it needs to be
+            if (cachedBytes.get() + json.length <= cacheBytes
+                && ENCODED.compareAndExchangeRelease(encoded, slot, null, json) == null) {
+                cachedBytes.addAndGet(json.length);
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Drop a row's cached JSON; called with the write lock held.
+     */
+    private void uncache(int slot) {
+        byte[] json = encoded[slot];
+        if (json != null) {
+            cachedBytes.addAndGet(-json.length);
+            encoded[slot] = null;
+        }
+    }
+
+    /**
+     * Bytes of row JSON currently cached.
+     */
+    final long cachedBytes() {
+        return cachedBytes.get();
+    }
+
+    private void compact() {
+        StringArena previous = strings;
+        strings = new StringArena();
+        int to = 0;
+        for (int from = 0; from < slots; from++) {
+            int id = ids[from];
+            if (id != 0) {
+                relocate(from, to, previous);
+                ids[to] = id;
+                versions[to] = versions[from];
+                encoded[to] = encoded[from];
+                index.put(id, to);
+                to++;
+            }
+        }
+        Arrays.fill(ids, to, slots, 0);
+        Arrays.fill(encoded, to, slots, null);
+        slots = to;
+        compacted();
+    }
+
+    /**
+     * A serialized page of rows.
+     *
+     * @param lastId ID of the last row on the page, to resume after
+     * @param more   whether rows follow
+     */
+    record JsonPage(byte[] body, int lastId, boolean more) {
+    }
+
+    private record Snapshot(long changes, byte[] body) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.api.emulator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+
+/**
+ * In-process stand-in for the Online-Bookstore API, built only on the JDK.
+ * Serves {@code /api/v1/Books} and {@code /api/v1/Authors} on the loopback interface with the
+ * same status codes and error bodies as FakeRestAPI, so the suite can run hermetically.
+ * <p>
+ * Connections are served by the JDK's {@code HttpServer} by default, or by {@link NioTransport} when the
+ * options ask for it, which keeps many more keep-alive connections open and answers pipelined requests.
+ * The catalog is seeded row by row or loaded from a {@link CatalogFixture}; given a data directory, it is
+ * journaled there and restored on the next start. Responses can be delayed or broken on purpose by the
+ * rules of a {@link FaultInjector}.
+ */
+public final class EmbeddedBookstoreServer implements AutoCloseable {
+    private static EmbeddedBookstoreServer shared;
+
+    private final Journal journal;
+    private final FaultInjector faults = new FaultInjector();
+    private final Transport transport;
+
+    private EmbeddedBookstoreServer(EmulatorOptions options) throws IOException {
+        Catalog catalog = new Catalog(options.seedBooks(), options.seedBooks() * options.authorsPerBook());
+        if (options.dataDirectory() == null) {
+            catalog.seed(options);
+            journal = null;
+        } else {
+            journal = Journal.open(options, catalog);
+        }
+        catalog.responseCache(options.responseCache() ? options.responseCacheBytes() : 0);
+        BookstoreApi api = new BookstoreApi(catalog, options.stateful());
+        try {
+            faults.configure(options.faults(), options.faultSeed());
+            this.transport = options.nio() ? new NioTransport(api, faults, options) : new JdkTransport(api, faults, options);
+        } catch (IOException | RuntimeException e) {
+            if (journal != null) {
+                journal.close();
+            }
+            throw e;
+        }
+    }
+
+    public static EmbeddedBookstoreServer start(EmulatorOptions options) {
+        try {
+            return new EmbeddedBookstoreServer(options);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the embedded bookstore server", e);
+        }
+    }
+
+    /**
+     * The server used when {@code BASE_URL=embedded}, started on first use with {@link EmulatorOptions#fromSettings()}.
+     */
+    public static synchronized EmbeddedBookstoreServer shared() {
+        if (shared == null) {
+            shared = start(EmulatorOptions.fromSettings());
+        }
+        return shared;
+    }
+
+    /**
+     * Stop the shared server if one was started.
+     */
+    public static synchronized void closeShared() {
+        if (shared != null) {
+            shared.close();
+        }
+    }
+
+    /**
+     * Base URI to point RestAssured at, e.g. {@code http://127.0.0.1:54321}.
+     */
+    public String baseUri() {
+        InetSocketAddress address = transport.address();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    public int port() {
+        return transport.address().getPort();
+    }
+
+    /**
+     * Replace the fault rules of a running server, e.g. for one test; an empty string removes them. Rule
+     * counters start over, so the same rules and seed produce the same faults again.
+     */
+    public void faults(String rules, long seed) {
+        faults.configure(rules, seed);
+    }
+
+    @Override
+    public void close() {
+        transport.close();
+        if (journal != null) {
+            journal.close();
+        }
+        synchronized (EmbeddedBookstoreServer.class) {
+            if (shared == this) {
+                shared = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.api.emulator;
+
+import com.example.api.support.Settings;
+
+import java.nio.file.Path;
+
+/**
+ * Startup options for {@link EmbeddedBookstoreServer}.
+ */
+public final class EmulatorOptions {
+    private int port;
+    private boolean stateful;
+    private boolean nio;
+    private int threads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+    private int seedBooks = 200;
+    private int authorsPerBook = 3;
+    private boolean responseCache = true;
+    private long responseCacheBytes = ColumnTable.DEFAULT_CACHE_BYTES;
+    private Path fixture;
+    private Path dataDirectory;
+    private boolean fsync = true;
+    private long snapshotBytes = 64L << 20;
+    private String faults = "";
+    private long faultSeed;
+
+    /**
+     * Options read from {@code EMULATOR_PORT} (0 picks an ephemeral port), {@code EMULATOR_MODE}
+     * ({@code faithful} or {@code stateful}), {@code EMULATOR_TRANSPORT} ({@code jdk} or {@code nio}),
+     * {@code EMULATOR_THREADS}, {@code EMULATOR_SEED_BOOKS},
+     * {@code EMULATOR_AUTHORS_PER_BOOK}, {@code EMULATOR_FIXTURE}, {@code EMULATOR_RESPONSE_CACHE},
+     * {@code EMULATOR_RESPONSE_CACHE_BYTES}, {@code EMULATOR_DATA_DIR},
+     * {@code EMULATOR_WAL_FSYNC}, {@code EMULATOR_SNAPSHOT_BYTES}, {@code EMULATOR_FAULTS} and
+     * {@code EMULATOR_FAULT_SEED}.
+     */
+    public static EmulatorOptions fromSettings() {
+        EmulatorOptions options = new EmulatorOptions();
+        options.port = Settings.getInt("EMULATOR_PORT", options.port);
+        options.stateful = Settings.get("EMULATOR_MODE", "faithful").equalsIgnoreCase("stateful");
+        options.nio = Settings.get("EMULATOR_TRANSPORT", "jdk").equalsIgnoreCase("nio");
+        options.threads = Settings.getInt("EMULATOR_THREADS", options.threads);
+        options.seedBooks = Settings.getInt("EMULATOR_SEED_BOOKS", options.seedBooks);
+        options.authorsPerBook = Settings.getInt("EMULATOR_AUTHORS_PER_BOOK", options.authorsPerBook);
+        options.responseCache = Settings.getBoolean("EMULATOR_RESPONSE_CACHE", options.responseCache);
+        options.responseCacheBytes = Settings.getLong("EMULATOR_RESPONSE_CACHE_BYTES", options.responseCacheBytes);
+        String fixture = Settings.get("EMULATOR_FIXTURE", "");
+        options.fixture = fixture.isEmpty() ? null : Path.of(fixture);
+        String dataDirectory = Settings.get("EMULATOR_DATA_DIR", "");
+        options.dataDirectory = dataDirectory.isEmpty() ? null : Path.of(dataDirectory);
+        options.fsync = Settings.getBoolean("EMULATOR_WAL_FSYNC", options.fsync);
+        options.snapshotBytes = Settings.getLong("EMULATOR_SNAPSHOT_BYTES", options.snapshotBytes);
+        options.faults = Settings.get("EMULATOR_FAULTS", options.faults);
+        options.faultSeed = Settings.getLong("EMULATOR_FAULT_SEED", options.faultSeed);
+        return options;
+    }
+
+    public EmulatorOptions port(int port) {
+        this.port = port;
+        return this;
+    }
+
+    /**
+     * Apply writes to the catalog instead of only echoing them like the hosted API does.
+     */
+    public EmulatorOptions stateful(boolean stateful) {
+        this.stateful = stateful;
+        return this;
+    }
+
+    /**
+     * Serve connections from selector threads instead of the JDK's thread-per-exchange {@code HttpServer}.
+     */
+    public EmulatorOptions nio(boolean nio) {
+        this.nio = nio;
+        return this;
+    }
+
+    /**
+     * Handler threads for the JDK transport; the NIO transport runs one selector per thread, up to one per core.
+     */
+    public EmulatorOptions threads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public EmulatorOptions seed(int books, int authorsPerBook) {
+        this.seedBooks = books;
+        this.authorsPerBook = authorsPerBook;
+        return this;
+    }
+
+    /**
+     * Serve GETs from pre-serialized JSON kept until a write invalidates it, instead of serializing per request.
+     */
+    public EmulatorOptions responseCache(boolean responseCache) {
+        this.responseCache = responseCache;
+        return this;
+    }
+
+    /**
+     * Most bytes of pre-serialized JSON kept per table for records, and again for a whole collection.
+     */
+    public EmulatorOptions responseCacheBytes(long responseCacheBytes) {
+        this.responseCacheBytes = responseCacheBytes;
+        return this;
+    }
+
+    /**
+     * Load the seed from this {@link CatalogFixture}, which is generated from the seed counts on first use.
+     */
+    public EmulatorOptions fixture(Path fixture) {
+        this.fixture = fixture;
+        return this;
+    }
+
+    /**
+     * Keep the catalog in this directory through a {@link Journal}, so that a stateful emulator picks up where
+     * it left off after a restart. The seed only applies when the directory holds no state yet.
+     */
+    public EmulatorOptions dataDirectory(Path dataDirectory) {
+        this.dataDirectory = dataDirectory;
+        return this;
+    }
+
+    /**
+     * Force each batch of journal records to disk before acknowledging its writes (the default). Without it
+     * writes survive a crash of the JVM but not of the machine.
+     */
+    public EmulatorOptions fsync(boolean fsync) {
+        this.fsync = fsync;
+        return this;
+    }
+
+    /**
+     * Journal size after which the catalog is snapshotted and the older log deleted.
+     */
+    public EmulatorOptions snapshotBytes(long snapshotBytes) {
+        this.snapshotBytes = snapshotBytes;
+        return this;
+    }
+
+    /**
+     * Delay or break responses by the rules described in {@link FaultInjector}, drawing from a generator
+     * seeded with {@code seed} so that a run can be repeated exactly.
+     */
+    public EmulatorOptions faults(String rules, long seed) {
+        this.faults = rules;
+        this.faultSeed = seed;
+        return this;
+    }
+
+    int port() {
+        return port;
+    }
+
+    boolean stateful() {
+        return stateful;
+    }
+
+    boolean nio() {
+        return nio;
+    }
+
+    int threads() {
+        return threads;
+    }
+
+    int seedBooks() {
+        return seedBooks;
+    }
+
+    int authorsPerBook() {
+        return authorsPerBook;
+    }
+
+    boolean responseCache() {
+        return responseCache;
+    }
+
+    long responseCacheBytes() {
+        return responseCacheBytes;
+    }
+
+    Path fixture() {
+        return fixture;
+    }
+
+    Path dataDirectory() {
+        return dataDirectory;
+    }
+
+    boolean fsync() {
+        return fsync;
+    }
+
+    long snapshotBytes() {
+        return snapshotBytes;
+    }
+
+    String faults() {
+        return faults;
+    }
+
+    long faultSeed() {
+        return faultSeed;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.api.emulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency and failures the emulator adds to its responses, chosen per request by rules such as
+ * <pre>
+ * GET /api/v1/Books/{id} delay=lognormal:20ms:0.8 error=500:2% error=503:1% reset=0.5% drip=1%:64:10ms; * delay=fixed:2ms
+ * </pre>
+ * Rules are separated by {@code ;}. Each starts with what it matches: {@code *}, a path, or a method and a
+ * path, where a <code>{name}</code> or {@code *} segment matches any one segment and paths compare ignoring
+ * case. The first matching rule applies. Its faults are:
+ * <ul>
+ *     <li>{@code delay=fixed:<duration>} or {@code delay=lognormal:<median>:<sigma>}, before the response</li>
+ *     <li>{@code error=<status>:<percent>%}, answering with that status instead, repeatable</li>
+ *     <li>{@code reset=<percent>%}, aborting the connection halfway through the body of a GET or HEAD, and before
+ *     any response to other methods</li>
+ *     <li>{@code drip=<percent>%:<bytes>:<interval>}, sending the response that many bytes at a time, from 1 to
+ *     {@value #MAX_DRIP_BYTES}</li>
+ * </ul>
+ * Durations take {@code us}, {@code ms} or {@code s}. A request that an error or reset fails never reaches the
+ * catalog, so a client that sees a write fail can retry it as if the first attempt had not happened.
+ * <p>
+ * Every draw comes from a generator seeded by the configured seed, the rule and how many requests the rule has
+ * matched before, so the n-th request to an endpoint meets the same fate in every run, however requests
+ * interleave.
+ */
+final class FaultInjector {
+    /** Largest drip slice, the size of the NIO transport's write buffer. */
+    static final int MAX_DRIP_BYTES = 64 << 10;
+
+    private volatile Config config = new Config(List.of(), 0);
+
+    /**
+     * Replace the rules, e.g. between tests; an empty spec removes them all.
+     */
+    void configure(String spec, long seed) {
+        List<Rule> rules = new ArrayList<>();
+        for (String rule : spec.split(";")) {
+            if (!rule.isBlank()) {
+                rules.add(Rule.parse(rule.trim()));
+            }
+        }
+        config = new Config(List.copyOf(rules), seed);
+    }
+
+    /**
+     * The fault for this request, or {@link Fault#NONE}.
+     */
+    Fault decide(ApiRequest request) {
+        Config current = config;
+        for (int i = 0; i < current.rules().size(); i++) {
+            Rule rule = current.rules().get(i);
+            if (rule.matches(request)) {
+                long n = rule.matched.getAndIncrement();
+                return rule.draw(new SplittableRandom(current.seed() * 0x9E3779B97F4A7C15L + i * 0xBF58476D1CE4E5B9L + n));
+            }
+        }
+        return Fault.NONE;
+    }
+
+    private record Config(List<Rule> rules, long seed) {
+    }
+
+    /**
+     * What to do to one response.
+     *
+     * @param delayNanos     wait before responding
+     * @param status         answer with this status and no body instead, or 0
+     * @param reset          abort the connection after half the body
+     * @param dripBytes      bytes per write when dripping, or 0
+     * @param dripIntervalNanos pause between dripped writes
+     */
+    record Fault(long delayNanos, int status, boolean reset, int dripBytes, long dripIntervalNanos) {
+        static final Fault NONE = new Fault(0, 0, false, 0, 0);
+
+        /**
+         * The response to {@code request}, or null to drop the connection without one. The fault is applied
+         * before {@code handler} is called, which it is only for requests that the fault lets through or whose
+         * handling changes nothing.
+         */
+        ApiResponse respond(ApiRequest request, Function<ApiRequest, ApiResponse> handler) {
+            if (status != 0) {
+                return ApiResponse.empty(status);
+            }
+            if (reset && !request.method().equals("GET") && !request.method().equals("HEAD")) {
+                return null;
+            }
+            return handler.apply(request);
+        }
+    }
+
+    private static final class Rule {
+        final String method;
+        final String[] segments;
+        final AtomicLong matched = new AtomicLong();
+        long fixedDelayNanos;
+        long medianDelayNanos;
+        double sigma;
+        final List<int[]> errors = new ArrayList<>(); // status, then percent in thousandths
+        double resetPercent;
+        double dripPercent;
+        int dripBytes;
+        long dripIntervalNanos;
+
+        private Rule(String method, String path) {
+            this.method = method;
+            this.segments = path == null ? null : path.toLowerCase(Locale.ROOT).split("/");
+        }
+
+        static Rule parse(String text) {
+            String[] tokens = text.split("\\s+");
+            int at = 0;
+            String method = null;
+            String path = null;
+            if (tokens[at].equals("*")) {
+                at++;
+            } else {
+                if (!tokens[at].startsWith("/")) {
+                    method = tokens[at++].toUpperCase(Locale.ROOT);
+                }
+                if (at == tokens.length || !tokens[at].startsWith("/")) {
+                    throw new IllegalArgumentException("Fault rule must start with *, a path, or a method and a path: " + text);
+                }
+                path = tokens[at++];
+            }
+            Rule rule = new Rule(method, path);
+            for (; at < tokens.length; at++) {
+                int eq = tokens[at].indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("Expected fault=value in rule: " + text);
+                }
+                String[] args = tokens[at].substring(eq + 1).split(":");
+                switch (tokens[at].substring(0, eq).toLowerCase(Locale.ROOT)) {
+                    case "delay" -> {
+                        if (args[0].equalsIgnoreCase("fixed") && args.length == 2) {
+                            rule.fixedDelayNanos = duration(args[1]);
+                        } else if (args[0].equalsIgnoreCase("lognormal") && args.length == 3) {
+                            rule.medianDelayNanos = duration(args[1]);
+                            rule.sigma = Double.parseDouble(args[2]);
+                        } else {
+                            throw new IllegalArgumentException("Expected delay=fixed:<d> or delay=lognormal:<median>:<sigma>: " + text);
+                        }
+                    }
+                    case "error" -> rule.errors.add(new int[] {Integer.parseInt(args[0]), (int) Math.round(percent(args[1]) * 1000)});
+                    case "reset" -> rule.resetPercent = percent(args[0]);
+                    case "drip" -> {
+                        if (args.length != 3) {
+                            throw new IllegalArgumentException("Expected drip=<percent>%:<bytes>:<interval>: " + text);
+                        }
+                        rule.dripPercent = percent(args[0]);
+                        rule.dripBytes = Integer.parseInt(args[1]);
+                        if (rule.dripBytes < 1 || rule.dripBytes > MAX_DRIP_BYTES) {
+                            throw new IllegalArgumentException("Drip size must be 1 to " + MAX_DRIP_BYTES + " bytes: " + text);
+                        }
+                        rule.dripIntervalNanos = duration(args[2]);
+                    }
+                    default -> throw new IllegalArgumentException("Unknown fault '" + tokens[at] + "' in rule: " + text);
+                }
+            }
+            return rule;
+        }
+
+        boolean matches(ApiRequest request) {
+            if (method != null && !method.equals(request.method())) {
+                return false;
+            }
+            if (segments == null) {
+                return true;
+            }
+            String[] actual = request.path().toLowerCase(Locale.ROOT).split("/");
+            if (actual.length != segments.length) {
+                return false;
+            }
+            for (int i = 0; i < segments.length; i++) {
+                String expected = segments[i];
+                boolean wildcard = expected.equals("*") || expected.startsWith("{") && expected.endsWith("}");
+                if (!wildcard && !expected.equals(actual[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        Fault draw(SplittableRandom random) {
+            long delay = fixedDelayNanos;
+            if (medianDelayNanos > 0) {
+                delay += (long) (medianDelayNanos * Math.exp(sigma * random.nextGaussian()));
+            }
+            int status = 0;
+            int roll = random.nextInt(100_000);
+            for (int[] error : errors) {
+                roll -= error[1];
+                if (roll < 0) {
+                    status = error[0];
+                    break;
+                }
+            }
+            boolean reset = status == 0 && random.nextDouble() * 100 < resetPercent;
+            boolean drip = status == 0 && !reset && random.nextDouble() * 100 < dripPercent;
+            return delay == 0 && status == 0 && !reset && !drip ? Fault.NONE
+                : new Fault(delay, status, reset, drip ? dripBytes : 0, drip ? dripIntervalNanos : 0);
+        }
+
+        private static double percent(String text) {
+            double percent = Double.parseDouble(text.endsWith("%") ? text.substring(0, text.length() - 1) : text);
+            if (percent < 0 || percent > 100) {
+                throw new IllegalArgumentException("Percentage out of range: " + text);
+            }
+            return percent;
+        }
+
+        private static long duration(String text) {
+            String lower = text.toLowerCase(Locale.ROOT);
+            if (lower.endsWith("us")) {
+                return Math.round(Double.parseDouble(lower.substring(0, lower.length() - 2)) * 1_000);
+            }
+            if (lower.endsWith("ms")) {
+                return Math.round(Double.parseDouble(lower.substring(0, lower.length() - 2)) * 1_000_000);
+            }
+            if (lower.endsWith("s")) {
+                return TimeUnit.MILLISECONDS.toNanos(Math.round(Double.parseDouble(lower.substring(0, lower.length() - 1)) * 1_000));
+            }
+            throw new IllegalArgumentException("Duration needs a unit (us, ms or s): " + text);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.api.emulator;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Fault rules: repeatable draws, and each kind of fault as a client sees it through both transports.
+ */
+public class FaultInjectorTest {
+    private static final HttpClient CLIENT = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private static List<EmbeddedBookstoreServer> servers;
+
+    @BeforeAll
+    public static void start() {
+        servers = List.of(EmbeddedBookstoreServer.start(new EmulatorOptions().stateful(true).seed(10, 1)),
+            EmbeddedBookstoreServer.start(new EmulatorOptions().stateful(true).nio(true).threads(1).seed(10, 1)));
+    }
+
+    @AfterAll
+    public static void stop() {
+        servers.forEach(EmbeddedBookstoreServer::close);
+    }
+
+    private static ApiRequest get(String path) {
+        return new ApiRequest("GET", path, null, Map.of(), new byte[0]);
+    }
+
+    private static HttpResponse<String> send(EmbeddedBookstoreServer server, String path) throws IOException, InterruptedException {
+        return CLIENT.send(HttpRequest.newBuilder(URI.create(server.baseUri() + path)).build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> delete(EmbeddedBookstoreServer server, String path)
+        throws IOException, InterruptedException {
+        return CLIENT.send(HttpRequest.newBuilder(URI.create(server.baseUri() + path)).DELETE().build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Send one raw request, which the server is expected to answer and then close the connection after, and
+     * return everything it sent.
+     */
+    private static String exchangeOnce(EmbeddedBookstoreServer server, String request) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port())) {
+            socket.setSoTimeout(5_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(request.getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            return new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    /**
+     * The same rules and seed give the same faults in the same order, at the configured rates, and only to
+     * the requests the rule matches.
+     */
+    @Test
+    public void drawsAreRepeatable() {
+        String rules = "GET /api/v1/books/{id} error=500:10% error=503:5% reset=10% delay=lognormal:10ms:0.5";
+        List<FaultInjector.Fault> first = new ArrayList<>();
+        List<FaultInjector.Fault> second = new ArrayList<>();
+        FaultInjector faults = new FaultInjector();
+        for (List<FaultInjector.Fault> run : List.of(first, second)) {
+            faults.configure(rules, 42);
+            for (int i = 0; i < 10_000; i++) {
+                run.add(faults.decide(get("/api/v1/Books/" + i)));
+            }
+        }
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(1_000, first.stream().filter(fault -> fault.status() == 500).count(), 150);
+        Assertions.assertEquals(500, first.stream().filter(fault -> fault.status() == 503).count(), 100);
+        Assertions.assertEquals(850, first.stream().filter(FaultInjector.Fault::reset).count(), 150);
+        long[] delays = first.stream().mapToLong(FaultInjector.Fault::delayNanos).sorted().toArray();
+        Assertions.assertEquals(10_000_000, delays[delays.length / 2], 1_000_000);
+
+        faults.configure(rules, 43);
+        Assertions.assertNotEquals(first.subList(0, 20), IntStream.range(0, 20)
+            .mapToObj(i -> faults.decide(get("/api/v1/Books/" + i))).toList());
+        Assertions.assertSame(FaultInjector.Fault.NONE, faults.decide(get("/api/v1/Books")));
+        Assertions.assertSame(FaultInjector.Fault.NONE,
+            faults.decide(new ApiRequest("PUT", "/api/v1/Books/1", null, Map.of(), new byte[0])));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> faults.configure("GET delay=5ms", 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> faults.configure("* drip=1%:100000:10ms", 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> faults.configure("* drip=1%:0:10ms", 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> faults.configure("* drip=1%:64", 1));
+        faults.configure("* drip=1%:65536:10ms", 1);
+    }
+
+    /**
+     * Error statuses replace the response and delays hold it back, on the endpoints named and no others, also
+     * when the connection closes after the delayed response.
+     */
+    @Test
+    public void injectsErrorsAndDelays() throws Exception {
+        for (EmbeddedBookstoreServer server : servers) {
+            server.faults("GET /api/v1/Books/{id} error=503:100%; /api/v1/Authors delay=fixed:200ms", 7);
+            Assertions.assertEquals(503, send(server, "/api/v1/Books/1").statusCode());
+            Assertions.assertEquals(200, send(server, "/api/v1/Books").statusCode());
+            long started = System.nanoTime();
+            Assertions.assertEquals(200, send(server, "/api/v1/Authors").statusCode());
+            Assertions.assertTrue(System.nanoTime() - started >= 200_000_000L, server.baseUri());
+            Assertions.assertTrue(exchangeOnce(server, "GET /api/v1/Authors HTTP/1.1\r\nHost: localhost\r\n"
+                + "Connection: close\r\n\r\n").matches("(?s)HTTP/1\\.1 200 .*\\[.*\\]"), server.baseUri());
+            Assertions.assertTrue(exchangeOnce(server, "GET /api/v1/Authors HTTP/1.0\r\nHost: localhost\r\n\r\n")
+                .matches("(?s)HTTP/1\\.[01] 200 .*\\[.*\\]"), server.baseUri());
+            server.faults("", 0);
+            Assertions.assertEquals(200, send(server, "/api/v1/Books/1").statusCode());
+        }
+    }
+
+    /**
+     * A reset cuts the body short and fails the exchange; a drip delivers the whole body, slowly.
+     */
+    @Test
+    public void resetsAndDripsBody() throws Exception {
+        for (EmbeddedBookstoreServer server : servers) {
+            String expected = send(server, "/api/v1/Books/1").body();
+            server.faults("/api/v1/Books reset=100%; /api/v1/Books/{id} drip=100%:32:10ms", 7);
+            Assertions.assertThrows(IOException.class, () -> send(server, "/api/v1/Books"), server.baseUri());
+            long started = System.nanoTime();
+            Assertions.assertEquals(expected, send(server, "/api/v1/Books/1").body());
+            long slices = (expected.length() + 31) / 32;
+            Assertions.assertTrue(System.nanoTime() - started >= (slices - 1) * 10_000_000L, server.baseUri());
+            server.faults("", 0);
+        }
+    }
+
+    /**
+     * A write failed by an error or a reset leaves the catalog as it was, so it can be retried.
+     */
+    @Test
+    public void failedWritesChangeNothing() throws Exception {
+        for (EmbeddedBookstoreServer server : servers) {
+            server.faults("DELETE /api/v1/Books/{id} error=503:100%", 7);
+            Assertions.assertEquals(503, delete(server, "/api/v1/Books/2").statusCode());
+            server.faults("DELETE /api/v1/Books/{id} reset=100%", 7);
+            Assertions.assertThrows(IOException.class, () -> delete(server, "/api/v1/Books/2"), server.baseUri());
+            server.faults("", 0);
+            Assertions.assertEquals(200, send(server, "/api/v1/Books/2").statusCode(), server.baseUri());
+            Assertions.assertEquals(200, delete(server, "/api/v1/Books/2").statusCode());
+            Assertions.assertEquals(404, send(server, "/api/v1/Books/2").statusCode(), server.baseUri());
+        }
+    }
+}
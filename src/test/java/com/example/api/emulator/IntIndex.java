@@ -0,0 +1,140 @@
+package com.example.api.emulator;
+
+/**
+ * Open-addressing hash map from int keys to int values. Linear probing keeps a lookup within one or two
+ * adjacent array slots and nothing is boxed. Key 0 marks a free slot, so its entry is held outside the table.
+ * Removal shifts the rest of the probe run back instead of leaving tombstones. Not thread-safe.
+ */
+final class IntIndex {
+    static final int MISSING = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    IntIndex(int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    /**
+     * Make room for {@code expected} entries at once, instead of doubling repeatedly on the way there.
+     */
+    void reserve(int expected) {
+        int capacity = capacityFor(expected);
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    /**
+     * The value stored for a key, or {@link #MISSING}.
+     */
+    int get(int key) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : MISSING;
+        }
+        for (int i = home(key); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == 0) {
+                return MISSING;
+            }
+        }
+    }
+
+    void put(int key, int value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int i = home(key);
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == 0) {
+            keys[i] = key;
+            if (++size > resizeAt) {
+                values[i] = value;
+                rehash(keys.length << 1);
+                return;
+            }
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Remove a key, returning its value or {@link #MISSING}.
+     */
+    int remove(int key) {
+        if (key == 0) {
+            boolean had = hasZeroKey;
+            hasZeroKey = false;
+            return had ? zeroValue : MISSING;
+        }
+        int i = home(key);
+        while (keys[i] != key) {
+            if (keys[i] == 0) {
+                return MISSING;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        // Pull back any later entry of the run that could not have been placed past the gap
+        for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int h = home(keys[j]);
+            boolean movable = i <= j ? (h <= i || h > j) : (h <= i && h > j);
+            if (movable) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = 0;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    private static int capacityFor(int expected) {
+        return Integer.highestOneBit(Math.max(8, expected * 3 / 2 + 1) - 1) << 1;
+    }
+
+    private int home(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity / 3 * 2;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int j = home(key);
+                while (keys[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = key;
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.api.emulator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Unit tests for {@link IntIndex} probing, growth and removal.
+ */
+public class IntIndexTest {
+    /**
+     * Random puts and removes over a small key range, which forces long probe runs and wrap-around,
+     * agree with a {@link HashMap} at every step.
+     */
+    @Test
+    public void matchesHashMapUnderChurn() {
+        IntIndex index = new IntIndex(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                Assertions.assertEquals(removed == null ? IntIndex.MISSING : removed, index.remove(key));
+            } else {
+                expected.put(key, i);
+                index.put(key, i);
+            }
+            int probe = random.nextInt(2_000) - 1_000;
+            Assertions.assertEquals(expected.getOrDefault(probe, IntIndex.MISSING), index.get(probe));
+        }
+        Assertions.assertEquals(expected.size(), index.size());
+        expected.forEach((key, value) -> Assertions.assertEquals(value, index.get(key)));
+    }
+
+    /**
+     * Zero is a valid key even though it marks free slots internally.
+     */
+    @Test
+    public void storesZeroKey() {
+        IntIndex index = new IntIndex(8);
+        Assertions.assertEquals(IntIndex.MISSING, index.get(0));
+        index.put(0, 5);
+        index.put(8, 6);
+        Assertions.assertEquals(5, index.get(0));
+        Assertions.assertEquals(2, index.size());
+        Assertions.assertEquals(5, index.remove(0));
+        Assertions.assertEquals(IntIndex.MISSING, index.get(0));
+        Assertions.assertEquals(6, index.get(8));
+    }
+}
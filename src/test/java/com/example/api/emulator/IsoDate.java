@@ -0,0 +1,231 @@
+package com.example.api.emulator;
+
+/**
+ * ISO-8601 date handling with the same rules and output as .NET's {@code System.DateTime} JSON converter.
+ * A date is packed into a single long the way .NET packs {@code DateTime}: 100 ns ticks since
+ * 0001-01-01 in the low 62 bits and the kind (unspecified, UTC, local) in the top two bits.
+ * The emulator's local time zone is UTC, so values with an explicit offset are converted to UTC
+ * and rendered with a {@code +00:00} suffix.
+ */
+final class IsoDate {
+    static final long INVALID = -1L;
+    static final int KIND_UNSPECIFIED = 0;
+    static final int KIND_UTC = 1;
+    static final int KIND_LOCAL = 2;
+
+    private static final long TICKS_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+    private static final long TICKS_PER_SECOND = 10_000_000L;
+    private static final long TICKS_PER_MINUTE = 60 * TICKS_PER_SECOND;
+    private static final long TICKS_PER_DAY = 86_400 * TICKS_PER_SECOND;
+    private static final long MAX_TICKS = (daysFromCivil(10000, 1, 1) - daysFromCivil(1, 1, 1)) * TICKS_PER_DAY - 1;
+    /** Ticks of 1970-01-01, for converting to and from epoch-based clocks. */
+    static final long UNIX_EPOCH_TICKS = -daysFromCivil(1, 1, 1) * TICKS_PER_DAY;
+
+    private IsoDate() {
+    }
+
+    static long pack(long ticks, int kind) {
+        return ticks | ((long) kind << 62);
+    }
+
+    static long ticks(long packed) {
+        return packed & TICKS_MASK;
+    }
+
+    static int kind(long packed) {
+        return (int) (packed >>> 62);
+    }
+
+    /**
+     * Date for an epoch-based instant, tagged as local time (rendered with {@code +00:00}).
+     */
+    static long fromEpochMillis(long epochMillis) {
+        return pack(UNIX_EPOCH_TICKS + epochMillis * 10_000L, KIND_LOCAL);
+    }
+
+    static long parse(CharSequence text) {
+        byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            char c = text.charAt(i);
+            bytes[i] = c < 0x80 ? (byte) c : (byte) '?';
+        }
+        return parse(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Parse {@code yyyy-MM-dd[THH:mm[:ss[.fffffff]]][Z|±hh:mm]} from ASCII bytes.
+     *
+     * @return the packed date, or {@link #INVALID} when the text is not a date .NET would accept
+     */
+    static long parse(byte[] b, int off, int len) {
+        int end = off + len;
+        int p = off;
+        if (len < 10 || b[p + 4] != '-' || b[p + 7] != '-') {
+            return INVALID;
+        }
+        int year = digits(b, p, 4);
+        int month = digits(b, p + 5, 2);
+        int day = digits(b, p + 8, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return INVALID;
+        }
+        p += 10;
+        long timeTicks = 0;
+        int kind = KIND_UNSPECIFIED;
+        long offsetTicks = 0;
+        if (p < end) {
+            if (b[p] != 'T' && b[p] != 't' || end - p < 6 || b[p + 3] != ':') {
+                return INVALID;
+            }
+            int hour = digits(b, p + 1, 2);
+            int minute = digits(b, p + 4, 2);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+                return INVALID;
+            }
+            timeTicks = hour * 60L * TICKS_PER_MINUTE + minute * TICKS_PER_MINUTE;
+            p += 6;
+            if (p < end && b[p] == ':') {
+                int second = end - p >= 3 ? digits(b, p + 1, 2) : -1;
+                if (second < 0 || second > 59) {
+                    return INVALID;
+                }
+                timeTicks += second * TICKS_PER_SECOND;
+                p += 3;
+                if (p < end && b[p] == '.') {
+                    p++;
+                    int start = p;
+                    long fraction = 0;
+                    while (p < end && b[p] >= '0' && b[p] <= '9') {
+                        if (p - start < 7) {
+                            fraction = fraction * 10 + (b[p] - '0');
+                        }
+                        p++;
+                    }
+                    if (p == start) {
+                        return INVALID;
+                    }
+                    for (int n = p - start; n < 7; n++) {
+                        fraction *= 10;
+                    }
+                    timeTicks += fraction;
+                }
+            }
+            if (p < end) {
+                if (b[p] == 'Z' || b[p] == 'z') {
+                    kind = KIND_UTC;
+                    p++;
+                } else if (b[p] == '+' || b[p] == '-') {
+                    if (end - p < 6 || b[p + 3] != ':') {
+                        return INVALID;
+                    }
+                    int offsetHours = digits(b, p + 1, 2);
+                    int offsetMinutes = digits(b, p + 4, 2);
+                    if (offsetHours < 0 || offsetHours > 14 || offsetMinutes < 0 || offsetMinutes > 59) {
+                        return INVALID;
+                    }
+                    offsetTicks = (offsetHours * 60L + offsetMinutes) * TICKS_PER_MINUTE;
+                    if (b[p] == '-') {
+                        offsetTicks = -offsetTicks;
+                    }
+                    kind = KIND_LOCAL;
+                    p += 6;
+                }
+            }
+            if (p != end) {
+                return INVALID;
+            }
+        }
+        long ticks = (daysFromCivil(year, month, day) - daysFromCivil(1, 1, 1)) * TICKS_PER_DAY + timeTicks - offsetTicks;
+        if (ticks < 0 || ticks > MAX_TICKS) {
+            return INVALID;
+        }
+        return pack(ticks, kind);
+    }
+
+    static String format(long packed) {
+        StringBuilder out = new StringBuilder(33);
+        format(packed, out);
+        return out.toString();
+    }
+
+    /**
+     * Append the round-trip form .NET writes: seconds always present, fraction trimmed of trailing zeros.
+     */
+    static void format(long packed, StringBuilder out) {
+        long ticks = ticks(packed);
+        long days = ticks / TICKS_PER_DAY + daysFromCivil(1, 1, 1);
+        long timeTicks = ticks % TICKS_PER_DAY;
+        // civil-from-days (Howard Hinnant)
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+        pad(out, year, 4).append('-');
+        pad(out, month, 2).append('-');
+        pad(out, day, 2).append('T');
+        pad(out, (int) (timeTicks / (60 * TICKS_PER_MINUTE)), 2).append(':');
+        pad(out, (int) (timeTicks / TICKS_PER_MINUTE % 60), 2).append(':');
+        pad(out, (int) (timeTicks / TICKS_PER_SECOND % 60), 2);
+        int fraction = (int) (timeTicks % TICKS_PER_SECOND);
+        if (fraction != 0) {
+            int digits = 7;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                digits--;
+            }
+            out.append('.');
+            pad(out, fraction, digits);
+        }
+        switch (kind(packed)) {
+            case KIND_UTC -> out.append('Z');
+            case KIND_LOCAL -> out.append("+00:00");
+            default -> {
+            }
+        }
+    }
+
+    private static StringBuilder pad(StringBuilder out, int value, int width) {
+        for (int limit = 10, n = 1; n < width; n++, limit *= 10) {
+            if (value < limit) {
+                out.append('0');
+            }
+        }
+        return out.append(value);
+    }
+
+    private static int digits(byte[] b, int off, int count) {
+        int value = 0;
+        for (int i = off; i < off + count; i++) {
+            if (i >= b.length || b[i] < '0' || b[i] > '9') {
+                return -1;
+            }
+            value = value * 10 + (b[i] - '0');
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date (Howard Hinnant's days-from-civil).
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.api.emulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The JDK's {@link HttpServer} with a fixed pool of handler threads. Each connection is read and written by
+ * blocking streams, and the server does not process pipelined requests concurrently.
+ * <p>
+ * Injected delays and drips sleep on the handler thread. {@code HttpServer} does not expose its sockets, so a
+ * reset fault closes the connection after half the body, or before the response for a write, rather than sending
+ * a TCP reset; clients see the same truncated exchange either way.
+ */
+final class JdkTransport implements Transport {
+    static {
+        // Headers and body go out as separate writes; without TCP_NODELAY each response waits on the client's delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final BookstoreApi api;
+    private final FaultInjector faults;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    JdkTransport(BookstoreApi api, FaultInjector faults, EmulatorOptions options) throws IOException {
+        this.api = api;
+        this.faults = faults;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(options.threads(), runnable -> {
+            Thread thread = new Thread(runnable, "emulator-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), options.port()), 1024);
+        this.server.createContext("/", this::exchange);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    @Override
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    private void exchange(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            Map<String, String> headers = new HashMap<>();
+            for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+                headers.put(header.getKey().toLowerCase(), header.getValue().get(0));
+            }
+            ApiRequest request = new ApiRequest(exchange.getRequestMethod(), exchange.getRequestURI().getRawPath(),
+                exchange.getRequestURI().getRawQuery(), headers, body);
+            FaultInjector.Fault fault = faults.decide(request);
+            ApiResponse response = fault.respond(request, api::handle);
+            if (fault.delayNanos() > 0) {
+                sleep(fault.delayNanos());
+            }
+            if (response == null) {
+                // Closing the exchange before sending headers makes HttpServer drop the connection
+                return;
+            }
+            if (response.contentType() != null) {
+                exchange.getResponseHeaders().set("Content-Type", response.contentType());
+            }
+            response.headers().forEach(exchange.getResponseHeaders()::set);
+            byte[] payload = response.body();
+            exchange.sendResponseHeaders(response.status(), payload.length == 0 ? -1 : payload.length);
+            if (payload.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    if (fault.reset()) {
+                        // Closing short of the announced length makes HttpServer drop the connection
+                        out.write(payload, 0, payload.length / 2);
+                    } else if (fault.dripBytes() > 0) {
+                        for (int at = 0; at < payload.length; at += fault.dripBytes()) {
+                            out.write(payload, at, Math.min(fault.dripBytes(), payload.length - at));
+                            out.flush();
+                            sleep(fault.dripIntervalNanos());
+                        }
+                    } else {
+                        out.write(payload);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void sleep(long nanos) throws IOException {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while injecting a fault", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
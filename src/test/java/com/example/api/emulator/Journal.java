@@ -0,0 +1,559 @@
+package com.example.api.emulator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log that makes a stateful {@link Catalog} survive restarts.
+ * <p>
+ * Every write becomes one record in {@code wal-<generation>.log}, framed by its length and a CRC32C. Writers
+ * only copy their record into a pending batch; a single flusher thread writes whatever has piled up since its
+ * last pass and forces it to disk once, so concurrent writers share an fsync (group commit) and each returns as
+ * soon as the batch holding its record is durable.
+ * <p>
+ * When a generation grows past the snapshot threshold the log moves on to the next one, and a background
+ * thread writes every live row to {@code snapshot-<generation>.bin}. The scan runs alongside writes and may see
+ * some of the new generation's effects, which is harmless: records are whole-row puts and deletes by ID, so
+ * replaying the new generation over the snapshot converges on the same state. Once the snapshot is safely
+ * renamed into place, older generations are deleted.
+ * <p>
+ * Recovery loads the newest snapshot and replays the generations from its own onwards. A record cut short by a
+ * crash can only be at the end of the newest log, which is truncated there; damage anywhere else fails the
+ * start. A fresh directory logs the seed parameters, or the fixture it was loaded from, instead of the rows.
+ * <p>
+ * Once the log cannot be written, the journal is unusable: the writers whose batch failed get the error, and
+ * {@link Catalog} checks {@link #checkUsable()} before applying any later write, so that nothing more reaches
+ * memory without reaching the log. A failed snapshot leaves the previous snapshot and logs in place; it is
+ * reported when the journal is closed.
+ */
+final class Journal implements AutoCloseable {
+    private static final byte SEED = 1;
+    private static final byte PUT_BOOK = 2;
+    private static final byte DELETE_BOOK = 3;
+    private static final byte PUT_AUTHOR = 4;
+    private static final byte DELETE_AUTHOR = 5;
+    private static final byte NEXT_IDS = 6;
+    private static final byte END = 7;
+
+    private static final Pattern FILE_NAME = Pattern.compile("(wal|snapshot)-(\\d+)\\.(log|bin)");
+    private static final int FRAME_BYTES = 8;
+    private static final int SCAN_BATCH = 4096;
+    /** Marks where the log moves to the next generation, among the framed records of a batch. */
+    private static final byte[] ROTATE = new byte[0];
+
+    private final Path directory;
+    private final Catalog catalog;
+    private final boolean fsync;
+    private final long snapshotBytes;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+    private final Thread flusher;
+    private final ExecutorService snapshots;
+
+    /** Guards the fields below, and is waited on for new records and for durability. */
+    private final Object lock = new Object();
+    private List<byte[]> pending = new ArrayList<>();
+    private long appended;
+    private long durable;
+    private long generationBytes;
+    private IOException failure;
+    private IOException snapshotFailure;
+    private boolean closed;
+
+    /** Owned by the flusher thread once it runs. */
+    private FileChannel log;
+    private long generation;
+
+    private Journal(Path directory, Catalog catalog, boolean fsync, long snapshotBytes) {
+        this.directory = directory;
+        this.catalog = catalog;
+        this.fsync = fsync;
+        this.snapshotBytes = snapshotBytes;
+        this.flusher = new Thread(this::flushLoop, "emulator-wal");
+        this.flusher.setDaemon(true);
+        this.snapshots = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "emulator-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Restore {@code catalog} from the log in the options' data directory, or seed it and start a new log if
+     * there is none, and journal its writes from now on.
+     */
+    static Journal open(EmulatorOptions options, Catalog catalog) {
+        Path directory = options.dataDirectory();
+        try {
+            Files.createDirectories(directory);
+            Journal journal = new Journal(directory, catalog, options.fsync(), options.snapshotBytes());
+            boolean fresh = !journal.recover();
+            journal.log = FileChannel.open(journal.wal(journal.generation),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            journal.generationBytes = journal.log.size();
+            journal.flusher.start();
+            if (fresh) {
+                catalog.seed(options);
+                journal.awaitDurable(journal.append(record(SEED, out -> {
+                    out.writeInt(options.seedBooks());
+                    out.writeInt(options.authorsPerBook());
+                    writeString(options.fixture() == null ? null : options.fixture().toString(), out);
+                })));
+            }
+            catalog.journal(journal);
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the journal in " + directory, e);
+        }
+    }
+
+    static byte[] putBook(Book book) {
+        return record(PUT_BOOK, out -> writeBook(book, out));
+    }
+
+    static byte[] deleteBook(int id) {
+        return record(DELETE_BOOK, out -> out.writeInt(id));
+    }
+
+    static byte[] putAuthor(Author author) {
+        return record(PUT_AUTHOR, out -> writeAuthor(author, out));
+    }
+
+    static byte[] deleteAuthor(int id) {
+        return record(DELETE_AUTHOR, out -> out.writeInt(id));
+    }
+
+    /**
+     * Queue a record and return its sequence number. Callers serialize appends with the writes they describe.
+     */
+    long append(byte[] record) {
+        byte[] framed = frame(record);
+        synchronized (lock) {
+            checkUsable();
+            pending.add(framed);
+            generationBytes += framed.length;
+            if (generationBytes >= snapshotBytes) {
+                pending.add(ROTATE);
+                generationBytes = 0;
+            }
+            lock.notifyAll();
+            return ++appended;
+        }
+    }
+
+    /**
+     * Fail if records can no longer be appended, because the log could not be written or the journal is closed.
+     */
+    void checkUsable() {
+        synchronized (lock) {
+            if (failure != null) {
+                throw new UncheckedIOException("Journal is unusable", failure);
+            }
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+        }
+    }
+
+    /**
+     * Wait until the record with this sequence number, and every one before it, is on disk.
+     */
+    void awaitDurable(long sequence) {
+        synchronized (lock) {
+            while (durable < sequence && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the journal", e);
+                }
+            }
+            if (durable < sequence) {
+                throw new UncheckedIOException("Journal write failed", failure);
+            }
+        }
+    }
+
+    /**
+     * Write out what is pending, stop the flusher, and let a running snapshot finish. Throws if a snapshot
+     * failed while the journal was open.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+            snapshots.shutdown();
+            snapshots.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.close();
+        } catch (IOException ignored) {
+            // Everything acknowledged is already forced
+        }
+        synchronized (lock) {
+            if (snapshotFailure != null) {
+                throw new UncheckedIOException("Snapshot failed; the previous snapshot and the logs since it are kept",
+                    snapshotFailure);
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            List<byte[]> batch;
+            long upTo;
+            synchronized (lock) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                upTo = appended;
+            }
+            try {
+                write(batch);
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            synchronized (lock) {
+                durable = upTo;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void write(List<byte[]> batch) throws IOException {
+        for (byte[] framed : batch) {
+            if (framed == ROTATE) {
+                drain();
+                force();
+                log.close();
+                long next = ++generation;
+                log = FileChannel.open(wal(next), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+                snapshots.execute(() -> snapshot(next));
+            } else if (framed.length > buffer.capacity()) {
+                drain();
+                ByteBuffer whole = ByteBuffer.wrap(framed);
+                while (whole.hasRemaining()) {
+                    log.write(whole);
+                }
+            } else {
+                if (framed.length > buffer.remaining()) {
+                    drain();
+                }
+                buffer.put(framed);
+            }
+        }
+        drain();
+        force();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            log.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void force() throws IOException {
+        if (fsync) {
+            log.force(false);
+        }
+    }
+
+    /**
+     * Write every live row as of now to the snapshot of {@code next}, then drop what it supersedes.
+     */
+    private void snapshot(long next) {
+        Path target = snapshotFile(next);
+        Path partial = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+                int nextBook = catalog.nextBookId();
+                int nextAuthor = catalog.nextAuthorId();
+                out.write(frame(record(NEXT_IDS, data -> {
+                    data.writeInt(nextBook);
+                    data.writeInt(nextAuthor);
+                })));
+                long[] rows = new long[1];
+                IOException[] error = new IOException[1];
+                for (int after = 0, last = -1; last != after; ) {
+                    last = after;
+                    after = catalog.scanBooks(after, SCAN_BATCH, book -> {
+                        rows[0]++;
+                        writeQuietly(out, frame(putBook(book)), error);
+                    });
+                }
+                for (int after = 0, last = -1; last != after; ) {
+                    last = after;
+                    after = catalog.scanAuthors(after, SCAN_BATCH, author -> {
+                        rows[0]++;
+                        writeQuietly(out, frame(putAuthor(author)), error);
+                    });
+                }
+                if (error[0] != null) {
+                    throw error[0];
+                }
+                out.write(frame(record(END, data -> data.writeLong(rows[0]))));
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+            for (long old : generations("snapshot")) {
+                if (old < next) {
+                    Files.deleteIfExists(snapshotFile(old));
+                }
+            }
+            for (long old : generations("wal")) {
+                if (old < next) {
+                    Files.deleteIfExists(wal(old));
+                }
+            }
+        } catch (IOException e) {
+            // The older snapshot and every log since it are still in place, so recovery is unaffected
+            synchronized (lock) {
+                if (snapshotFailure == null) {
+                    snapshotFailure = new IOException("Could not write " + target, e);
+                } else {
+                    snapshotFailure.addSuppressed(e);
+                }
+            }
+        }
+    }
+
+    private static void writeQuietly(OutputStream out, byte[] bytes, IOException[] error) {
+        if (error[0] == null) {
+            try {
+                out.write(bytes);
+            } catch (IOException e) {
+                error[0] = e;
+            }
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ignored) {
+            // Not every platform can open a directory; the rename is then as durable as it gets
+        }
+    }
+
+    /**
+     * Load the newest snapshot and replay the logs after it. Returns false if the directory holds no state.
+     */
+    private boolean recover() throws IOException {
+        TreeSet<Long> wals = generations("wal");
+        TreeSet<Long> snapshotGenerations = generations("snapshot");
+        if (wals.isEmpty() && snapshotGenerations.isEmpty()) {
+            generation = 1;
+            return false;
+        }
+        long base = snapshotGenerations.isEmpty() ? wals.first() : snapshotGenerations.last();
+        if (!snapshotGenerations.isEmpty()) {
+            Path file = snapshotFile(base);
+            if (!replay(file, false)) {
+                throw new IllegalStateException("Snapshot " + file + " is incomplete");
+            }
+        }
+        generation = base;
+        for (long wal : wals.tailSet(base, true)) {
+            if (wal != generation && wal != generation + 1) {
+                throw new IllegalStateException("Log generation " + (generation + 1) + " is missing in " + directory);
+            }
+            generation = wal;
+            replay(wal(wal), wal == wals.last());
+        }
+        return true;
+    }
+
+    /**
+     * Apply the records in a file. A snapshot must end with its end record, which makes this return true; a
+     * log that may be torn is cut back to its last whole record.
+     */
+    private boolean replay(Path file, boolean mayBeTorn) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32C crc = new CRC32C();
+            while (data.remaining() >= FRAME_BYTES) {
+                int start = data.position();
+                int length = data.getInt();
+                int checksum = data.getInt();
+                if (length <= 0 || length > data.remaining()) {
+                    data.position(start);
+                    break;
+                }
+                ByteBuffer payload = data.slice(data.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    data.position(start);
+                    break;
+                }
+                data.position(data.position() + length);
+                if (apply(payload)) {
+                    return true;
+                }
+            }
+            if (data.hasRemaining()) {
+                if (!mayBeTorn) {
+                    throw new IllegalStateException("Corrupt record at offset " + data.position() + " in " + file);
+                }
+                channel.truncate(data.position());
+                channel.force(true);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Apply one record to the catalog; returns true for the end of a snapshot.
+     */
+    private boolean apply(ByteBuffer record) {
+        switch (record.get()) {
+            case SEED -> {
+                EmulatorOptions seed = new EmulatorOptions().seed(record.getInt(), record.getInt());
+                String fixture = readString(record);
+                catalog.seed(fixture == null ? seed : seed.fixture(Path.of(fixture)));
+            }
+            case PUT_BOOK -> catalog.putBook(new Book(record.getInt(), readString(record), readString(record),
+                record.getInt(), readString(record), record.getLong()));
+            case DELETE_BOOK -> catalog.deleteBook(record.getInt());
+            case PUT_AUTHOR -> catalog.putAuthor(new Author(record.getInt(), record.getInt(), readString(record),
+                readString(record)));
+            case DELETE_AUTHOR -> catalog.deleteAuthor(record.getInt());
+            case NEXT_IDS -> catalog.reserveIdsBelow(record.getInt(), record.getInt());
+            case END -> {
+                return true;
+            }
+            default -> throw new IllegalStateException("Unknown journal record type");
+        }
+        return false;
+    }
+
+    private TreeSet<Long> generations(String kind) throws IOException {
+        TreeSet<Long> generations = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher name = FILE_NAME.matcher(file.getFileName().toString());
+                if (name.matches() && name.group(1).equals(kind)) {
+                    generations.add(Long.parseLong(name.group(2)));
+                }
+            });
+        }
+        return generations;
+    }
+
+    private Path wal(long generation) {
+        return directory.resolve(String.format("wal-%010d.log", generation));
+    }
+
+    private Path snapshotFile(long generation) {
+        return directory.resolve(String.format("snapshot-%010d.bin", generation));
+    }
+
+    private interface RecordBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] record(byte type, RecordBody body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            body.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] frame(byte[] record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+        return ByteBuffer.allocate(FRAME_BYTES + record.length)
+            .putInt(record.length)
+            .putInt((int) crc.getValue())
+            .put(record)
+            .array();
+    }
+
+    private static void writeBook(Book book, DataOutputStream out) throws IOException {
+        out.writeInt(book.id());
+        writeString(book.title(), out);
+        writeString(book.description(), out);
+        out.writeInt(book.pageCount());
+        writeString(book.excerpt(), out);
+        out.writeLong(book.publishDate());
+    }
+
+    private static void writeAuthor(Author author, DataOutputStream out) throws IOException {
+        out.writeInt(author.id());
+        out.writeInt(author.idBook());
+        writeString(author.firstName(), out);
+        writeString(author.lastName(), out);
+    }
+
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        record.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
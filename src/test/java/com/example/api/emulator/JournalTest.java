@@ -0,0 +1,156 @@
+package com.example.api.emulator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Restarts of a journaled {@link Catalog}: replay, snapshots and torn log tails.
+ */
+public class JournalTest {
+    @TempDir
+    Path directory;
+
+    private static Catalog open(Path directory, long snapshotBytes, List<Journal> opened) {
+        Catalog catalog = new Catalog();
+        opened.add(Journal.open(new EmulatorOptions().seed(5, 2).dataDirectory(directory).snapshotBytes(snapshotBytes),
+            catalog));
+        return catalog;
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * The seed, later writes and the ID counter all come back after a restart.
+     */
+    @Test
+    public void restoresWritesAfterRestart() {
+        List<Journal> journals = new ArrayList<>();
+        Catalog catalog = open(directory, 1 << 20, journals);
+        Book created = catalog.putBook(new Book(0, "Created", null, 1, null, 0));
+        catalog.putBook(new Book(2, "Updated", "Café", 2, null, 0));
+        catalog.deleteBook(3);
+        catalog.deleteBook(created.id());
+        catalog.putAuthor(new Author(4, 1, "Moved", null));
+        catalog.deleteAuthor(5);
+        journals.get(0).close();
+
+        Catalog restored = open(directory, 1 << 20, journals);
+        Assertions.assertEquals(CatalogRows.of(catalog), CatalogRows.of(restored));
+        Assertions.assertNull(restored.book(3));
+        Assertions.assertEquals(created.id() + 1, restored.putBook(new Book(0, "Next", null, 1, null, 0)).id());
+        journals.get(1).close();
+    }
+
+    /**
+     * Concurrent writers past the snapshot threshold leave a snapshot and no superseded logs, and the state
+     * restored from them matches what was acknowledged.
+     */
+    @Test
+    public void snapshotsReplaceOldLogs() throws Exception {
+        List<Journal> journals = new ArrayList<>();
+        Catalog catalog = open(directory, 8 << 10, journals);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        List<Future<?>> done = new ArrayList<>();
+        for (int w = 0; w < 8; w++) {
+            int writer = w;
+            done.add(writers.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    catalog.putBook(new Book(100 + writer, "Writer " + writer + " round " + i, null, i, null, i));
+                    catalog.putAuthor(new Author(0, writer, "Author", "Round " + i));
+                }
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get();
+        }
+        writers.shutdown();
+        journals.get(0).close();
+
+        List<String> files = files();
+        Assertions.assertTrue(files.stream().anyMatch(name -> name.startsWith("snapshot-")), files.toString());
+        Assertions.assertTrue(files.stream().filter(name -> name.startsWith("wal-")).count() <= 2, files.toString());
+        Catalog restored = open(directory, 8 << 10, journals);
+        Assertions.assertEquals(CatalogRows.of(catalog), CatalogRows.of(restored));
+        journals.get(1).close();
+    }
+
+    /**
+     * A record cut short by a crash is dropped, and the log carries on after the last whole one.
+     */
+    @Test
+    public void truncatesTornTail() throws IOException {
+        List<Journal> journals = new ArrayList<>();
+        Catalog catalog = open(directory, 1 << 20, journals);
+        catalog.putBook(new Book(1, "Kept", null, 1, null, 0));
+        journals.get(0).close();
+        Path wal = directory.resolve(files().get(0));
+        long intact = Files.size(wal);
+        Files.write(wal, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        Catalog restored = open(directory, 1 << 20, journals);
+        Assertions.assertEquals(intact, Files.size(wal));
+        Assertions.assertEquals("Kept", restored.book(1).title());
+        restored.putBook(new Book(1, "After crash", null, 1, null, 0));
+        journals.get(1).close();
+
+        Assertions.assertEquals("After crash", open(directory, 1 << 20, journals).book(1).title());
+        journals.get(2).close();
+    }
+    /**
+     * Once the log cannot be written, later writes fail without reaching the catalog.
+     */
+    @Test
+    public void failedLogRefusesLaterWrites() throws IOException {
+        List<Journal> journals = new ArrayList<>();
+        Catalog catalog = open(directory, 256, journals);
+        Files.createDirectory(directory.resolve(String.format("wal-%010d.log", 2)));
+        Assertions.assertThrows(UncheckedIOException.class, () -> {
+            for (int i = 0; i < 100; i++) {
+                catalog.putBook(new Book(1, "Round " + i, null, i, null, 0));
+            }
+        });
+        Assertions.assertThrows(UncheckedIOException.class,
+            () -> catalog.putBook(new Book(0, "Refused", null, 1, null, 0)));
+        Assertions.assertThrows(UncheckedIOException.class, () -> catalog.deleteBook(2));
+        Assertions.assertNotNull(catalog.book(2));
+        Assertions.assertTrue(CatalogRows.of(catalog).stream().noneMatch(row -> row.toString().contains("Refused")));
+        journals.get(0).close();
+    }
+
+    /**
+     * A failed snapshot keeps the logs it would have replaced and is reported on close.
+     */
+    @Test
+    public void failedSnapshotIsReportedOnClose() throws IOException {
+        Path blocked = directory.resolve(String.format("snapshot-%010d.bin.tmp", 2));
+        List<Journal> journals = new ArrayList<>();
+        Catalog catalog = open(directory, 256, journals);
+        Files.createDirectory(blocked);
+        for (int i = 0; i < 20; i++) {
+            catalog.putBook(new Book(1, "Round " + i, null, i, null, 0));
+        }
+        Assertions.assertThrows(UncheckedIOException.class, () -> journals.get(0).close());
+
+        Catalog restored = open(directory, 1 << 20, journals);
+        Assertions.assertEquals(CatalogRows.of(catalog), CatalogRows.of(restored));
+        journals.get(1).close();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.api.emulator;
+
+/**
+ * A request body the emulator rejects, carrying the location details System.Text.Json reports.
+ * {@link #getMessage()} returns the full message as it appears in the ASP.NET validation problem.
+ */
+final class JsonException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String path;
+
+    JsonException(String reason, String path, int line, int bytePositionInLine) {
+        super(reason + " Path: " + path + " | LineNumber: " + line + " | BytePositionInLine: " + bytePositionInLine + ".");
+        this.path = path;
+    }
+
+    /**
+     * JSON path of the offending value, used as the key in the problem's {@code errors} object.
+     */
+    String path() {
+        return path;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.api.emulator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Serializes books, authors and problem details the way System.Text.Json does with its default encoder:
+ * camelCase names, and non-ASCII plus HTML-sensitive characters written as {@code \\uXXXX} escapes.
+ */
+final class JsonWriter {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private JsonWriter() {
+    }
+
+    static byte[] book(Book book) {
+        StringBuilder out = new StringBuilder(256);
+        writeBook(book, out);
+        return bytes(out);
+    }
+
+    static byte[] books(Collection<Book> books) {
+        StringBuilder out = new StringBuilder(64 + books.size() * 256);
+        out.append('[');
+        for (Book book : books) {
+            if (out.length() > 1) {
+                out.append(',');
+            }
+            writeBook(book, out);
+        }
+        return bytes(out.append(']'));
+    }
+
+    static byte[] author(Author author) {
+        StringBuilder out = new StringBuilder(128);
+        writeAuthor(author, out);
+        return bytes(out);
+    }
+
+    static byte[] authors(Collection<Author> authors) {
+        StringBuilder out = new StringBuilder(64 + authors.size() * 96);
+        out.append('[');
+        for (Author author : authors) {
+            if (out.length() > 1) {
+                out.append(',');
+            }
+            writeAuthor(author, out);
+        }
+        return bytes(out.append(']'));
+    }
+
+    static void writeBook(Book book, StringBuilder out) {
+        out.append("{\"id\":").append(book.id());
+        out.append(",\"title\":");
+        string(book.title(), out);
+        out.append(",\"description\":");
+        string(book.description(), out);
+        out.append(",\"pageCount\":").append(book.pageCount());
+        out.append(",\"excerpt\":");
+        string(book.excerpt(), out);
+        out.append(",\"publishDate\":\"");
+        IsoDate.format(book.publishDate(), out);
+        out.append("\"}");
+    }
+
+    static void writeAuthor(Author author, StringBuilder out) {
+        out.append("{\"id\":").append(author.id());
+        out.append(",\"idBook\":").append(author.idBook());
+        out.append(",\"firstName\":");
+        string(author.firstName(), out);
+        out.append(",\"lastName\":");
+        string(author.lastName(), out);
+        out.append('}');
+    }
+
+    static void string(String value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    if (c < 0x20 || c > 0x7E || c == '"' || c == '&' || c == '\'' || c == '+' || c == '<' || c == '>' || c == '`') {
+                        out.append("\\u").append(HEX[c >> 12 & 0xF]).append(HEX[c >> 8 & 0xF]).append(HEX[c >> 4 & 0xF]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    static byte[] bytes(StringBuilder out) {
+        // Everything outside printable ASCII is escaped, so the text is pure ASCII.
+        return out.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,711 @@
+package com.example.api.emulator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/1.1 on non-blocking channels: a few selector threads, each owning its connections and a pair of direct
+ * buffers that every read and write of those connections goes through. Requests are handled on the selector
+ * thread as soon as they are complete, so pipelined requests are answered in order, and their responses are
+ * gathered into as few writes as the socket allows. The exception is a write to a journaled catalog, which waits
+ * for its record to be forced to disk: it runs on a worker thread while its connection is parked, and its response
+ * is handed back to the loop. Concurrent writes thereby share the journal's group commit.
+ * <p>
+ * An idle connection holds no buffers at all. Bytes of a request that arrived only partly are kept on the
+ * connection, up to {@value #MAX_HEADER_BYTES} of headers and {@value #MAX_BODY_BYTES} of body, and the queue of
+ * unsent responses is capped at {@value #MAX_QUEUED_BYTES}: once it is full the connection is not read again
+ * until the client has taken some of it. Response bodies are queued by reference, so cached JSON is not copied
+ * until it reaches the direct buffer.
+ * <p>
+ * Injected faults do not block a selector thread either: a delayed response parks its connection on a timer of
+ * the loop, which answers nothing after it until the timer fires, and a dripped response is written a slice per
+ * timer tick.
+ */
+final class NioTransport implements Transport {
+    private static final int READ_BUFFER_BYTES = 64 << 10;
+    private static final int WRITE_BUFFER_BYTES = 64 << 10;
+    private static final int MAX_HEADER_BYTES = 32 << 10;
+    private static final int MAX_BODY_BYTES = 4 << 20;
+    private static final int MAX_QUEUED_BYTES = 256 << 10;
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final BookstoreApi api;
+    private final FaultInjector faults;
+    private final ServerSocketChannel server;
+    /** Runs writes that wait for the journal, or null when the catalog is not journaled. */
+    private final ExecutorService writers;
+    private final EventLoop[] loops;
+    private int nextLoop;
+    private volatile boolean running = true;
+
+    NioTransport(BookstoreApi api, FaultInjector faults, EmulatorOptions options) throws IOException {
+        this.api = api;
+        this.faults = faults;
+        if (options.stateful() && options.dataDirectory() != null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.writers = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "emulator-nio-write-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.writers = null;
+        }
+        this.server = ServerSocketChannel.open();
+        this.server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), options.port()), 4096);
+        this.server.configureBlocking(false);
+        this.loops = new EventLoop[Math.max(1, Math.min(options.threads(), Runtime.getRuntime().availableProcessors()))];
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop(i + 1);
+        }
+        server.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+        for (EventLoop loop : loops) {
+            loop.thread.start();
+        }
+    }
+
+    @Override
+    public InetSocketAddress address() {
+        try {
+            return (InetSocketAddress) server.getLocalAddress();
+        } catch (IOException e) {
+            throw new IllegalStateException("Transport is closed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        for (EventLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+        for (EventLoop loop : loops) {
+            try {
+                loop.thread.join(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        closeQuietly(server);
+        if (writers != null) {
+            writers.shutdownNow();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // Nothing useful to do while shutting down
+        }
+    }
+
+    private static String reason(int status) {
+        return switch (status) {
+            case 200 -> "OK";
+            case 201 -> "Created";
+            case 204 -> "No Content";
+            case 304 -> "Not Modified";
+            case 400 -> "Bad Request";
+            case 404 -> "Not Found";
+            case 405 -> "Method Not Allowed";
+            case 413 -> "Payload Too Large";
+            case 415 -> "Unsupported Media Type";
+            case 431 -> "Request Header Fields Too Large";
+            case 500 -> "Internal Server Error";
+            case 501 -> "Not Implemented";
+            case 503 -> "Service Unavailable";
+            default -> "";
+        };
+    }
+
+    private static int indexOfHeaderEnd(byte[] data, int from, int to) {
+        for (int i = from; i + 3 < to; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n' && data[i + 2] == '\r' && data[i + 3] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOfLineEnd(byte[] data, int from, int to) {
+        for (int i = from; i + 1 < to; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * State of one accepted socket. Everything but the channel is null or zero while the connection is idle.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        /** Received bytes not yet consumed by a complete request. */
+        byte[] input;
+        int inputLength;
+        /** Responses not yet written, each as header and body buffers. */
+        ArrayDeque<ByteBuffer> output;
+        int queued;
+        /** Complete requests are waiting in {@link #input} until the output queue drains. */
+        boolean blocked;
+        boolean closing;
+        boolean continueSent;
+        /** A delayed response is pending, and later requests wait behind it. */
+        boolean parked;
+        /** Abort with a reset instead of closing once the output is written. */
+        boolean reset;
+        /** Write at most this many bytes per {@link #dripNanos} while output is queued, or 0. */
+        int dripBytes;
+        long dripNanos;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void queue(ByteBuffer buffer) {
+            if (output == null) {
+                output = new ArrayDeque<>(4);
+            }
+            output.add(buffer);
+            queued += buffer.remaining();
+        }
+
+        /**
+         * Keep {@code data[from, to)} as the start of the next request, dropping the buffer when nothing is left.
+         */
+        void keep(byte[] data, int from, int to) {
+            int remaining = to - from;
+            if (remaining == 0) {
+                input = null;
+                inputLength = 0;
+            } else if (data == input) {
+                System.arraycopy(input, from, input, 0, remaining);
+                inputLength = remaining;
+            } else {
+                input = Arrays.copyOfRange(data, from, from + Math.max(remaining, 1024));
+                inputLength = remaining;
+            }
+        }
+
+        void append(ByteBuffer bytes) {
+            int need = inputLength + bytes.remaining();
+            if (input.length < need) {
+                input = Arrays.copyOf(input, Math.max(need, input.length * 2));
+            }
+            int n = bytes.remaining();
+            bytes.get(input, inputLength, n);
+            inputLength += n;
+        }
+    }
+
+    private final class EventLoop implements Runnable {
+        final Selector selector;
+        final Thread thread;
+        final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+        /** Responses of writes finished on a worker thread, to queue on this loop. */
+        final Queue<Runnable> completed = new ConcurrentLinkedQueue<>();
+        final ByteBuffer in = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+        final ByteBuffer out = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        final byte[] scratch = new byte[READ_BUFFER_BYTES];
+        final StringBuilder head = new StringBuilder(256);
+        final PriorityQueue<Timer> timers = new PriorityQueue<>();
+        long dateSecond;
+        String date;
+
+        EventLoop(int number) throws IOException {
+            this.selector = Selector.open();
+            this.thread = new Thread(this, "emulator-nio-" + number);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    Timer next = timers.peek();
+                    long wait = next == null ? 0 : Math.max(1, (next.due - System.nanoTime() + 999_999) / 1_000_000);
+                    selector.select(this::dispatch, wait);
+                    while ((next = timers.peek()) != null && next.due - System.nanoTime() <= 0) {
+                        timers.poll().action.run();
+                    }
+                    Runnable done;
+                    while ((done = completed.poll()) != null) {
+                        done.run();
+                    }
+                    SocketChannel channel;
+                    while ((channel = accepted.poll()) != null) {
+                        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Selector failed", e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    closeQuietly(key.channel());
+                }
+                closeQuietly(selector);
+            }
+        }
+
+        private void dispatch(SelectionKey key) {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                accept();
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            if (key.isWritable()) {
+                drain(key, connection);
+            } else if (key.isReadable()) {
+                read(key, connection);
+            }
+        }
+
+        private void accept() {
+            SocketChannel channel;
+            try {
+                while ((channel = server.accept()) != null) {
+                    channel.configureBlocking(false);
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    EventLoop loop = loops[nextLoop++ % loops.length];
+                    loop.accepted.add(channel);
+                    if (loop != this) {
+                        loop.selector.wakeup();
+                    }
+                }
+            } catch (IOException e) {
+                // The client gave up before the accept completed; keep serving the others
+            }
+        }
+
+        private void read(SelectionKey key, Connection connection) {
+            in.clear();
+            int n;
+            try {
+                n = connection.channel.read(in);
+            } catch (IOException e) {
+                n = -1;
+            }
+            if (n < 0) {
+                close(key);
+                return;
+            }
+            if (n == 0) {
+                return;
+            }
+            in.flip();
+            byte[] data;
+            if (connection.inputLength == 0) {
+                in.get(scratch, 0, n);
+                data = scratch;
+            } else {
+                connection.append(in);
+                data = connection.input;
+                n = connection.inputLength;
+            }
+            connection.keep(data, handle(connection, data, n), n);
+            drain(key, connection);
+        }
+
+        /**
+         * Write what is queued, then go on with requests held back while it was full, until the socket stops
+         * taking bytes or nothing is left to do.
+         */
+        private void drain(SelectionKey key, Connection connection) {
+            if (!key.isValid()) {
+                return;
+            }
+            while (flush(key, connection)) {
+                // A delayed response is still to come, even on a connection that closes after it
+                if (connection.parked) {
+                    key.interestOps(0);
+                    return;
+                }
+                if (connection.closing) {
+                    if (connection.reset) {
+                        try {
+                            connection.channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+                        } catch (IOException e) {
+                            // Already gone; a plain close is all that is left
+                        }
+                    }
+                    close(key);
+                    return;
+                }
+                if (!connection.blocked) {
+                    key.interestOps(SelectionKey.OP_READ);
+                    return;
+                }
+                connection.blocked = false;
+                byte[] data = connection.input;
+                connection.keep(data, handle(connection, data, connection.inputLength), connection.inputLength);
+            }
+        }
+
+        /**
+         * Answer every complete request in {@code data[0, length)} while the output queue has room, and return
+         * where the first unanswered one starts.
+         */
+        private int handle(Connection connection, byte[] data, int length) {
+            int at = 0;
+            while (at < length && !connection.closing && !connection.parked) {
+                if (connection.queued >= MAX_QUEUED_BYTES) {
+                    connection.blocked = true;
+                    break;
+                }
+                int used = exchange(connection, data, at, length);
+                if (used == 0) {
+                    break;
+                }
+                at += used;
+            }
+            return connection.closing ? length : at;
+        }
+
+        /**
+         * Parse one request starting at {@code at}, queue its response and return its length, or return 0 if
+         * it has not fully arrived yet.
+         */
+        private int exchange(Connection connection, byte[] data, int at, int length) {
+            int headerEnd = indexOfHeaderEnd(data, at, length);
+            if (headerEnd < 0) {
+                if (length - at > MAX_HEADER_BYTES) {
+                    reject(connection, 431);
+                }
+                return 0;
+            }
+            int lineEnd = indexOfLineEnd(data, at, headerEnd + 2);
+            String[] requestLine = new String(data, at, lineEnd - at, StandardCharsets.ISO_8859_1).split(" ");
+            if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+                reject(connection, 400);
+                return 0;
+            }
+            Map<String, String> headers = new HashMap<>();
+            for (int line = lineEnd + 2; line < headerEnd; ) {
+                int end = indexOfLineEnd(data, line, headerEnd + 2);
+                String header = new String(data, line, end - line, StandardCharsets.ISO_8859_1);
+                int colon = header.indexOf(':');
+                if (colon <= 0) {
+                    reject(connection, 400);
+                    return 0;
+                }
+                headers.putIfAbsent(header.substring(0, colon).trim().toLowerCase(), header.substring(colon + 1).trim());
+                line = end + 2;
+            }
+
+            int bodyStart = headerEnd + 4;
+            byte[] body;
+            int requestEnd;
+            String transferEncoding = headers.get("transfer-encoding");
+            if (transferEncoding != null) {
+                if (!transferEncoding.equalsIgnoreCase("chunked")) {
+                    reject(connection, 501);
+                    return 0;
+                }
+                ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+                requestEnd = dechunk(data, bodyStart, length, chunks);
+                if (requestEnd == -2) {
+                    reject(connection, chunks.size() > MAX_BODY_BYTES ? 413 : 400);
+                    return 0;
+                }
+                body = chunks.toByteArray();
+            } else {
+                long contentLength;
+                try {
+                    contentLength = Long.parseLong(headers.getOrDefault("content-length", "0"));
+                } catch (NumberFormatException e) {
+                    contentLength = -1;
+                }
+                if (contentLength < 0 || contentLength > MAX_BODY_BYTES) {
+                    reject(connection, contentLength < 0 ? 400 : 413);
+                    return 0;
+                }
+                requestEnd = bodyStart + (int) contentLength > length ? -1 : bodyStart + (int) contentLength;
+                body = requestEnd < 0 ? null : Arrays.copyOfRange(data, bodyStart, requestEnd);
+            }
+            if (requestEnd < 0) {
+                if (!connection.continueSent && "100-continue".equalsIgnoreCase(headers.get("expect"))) {
+                    connection.continueSent = true;
+                    connection.queue(ByteBuffer.wrap(CONTINUE));
+                }
+                return 0;
+            }
+            connection.continueSent = false;
+
+            String connectionHeader = headers.getOrDefault("connection", "");
+            if (requestLine[2].equals("HTTP/1.0") ? !connectionHeader.equalsIgnoreCase("keep-alive")
+                : connectionHeader.equalsIgnoreCase("close")) {
+                connection.closing = true;
+            }
+            String target = requestLine[1];
+            int question = target.indexOf('?');
+            ApiRequest request = new ApiRequest(requestLine[0],
+                question < 0 ? target : target.substring(0, question),
+                question < 0 ? null : target.substring(question + 1), headers, body);
+            FaultInjector.Fault fault = faults.decide(request);
+            boolean withBody = !request.method().equals("HEAD");
+            if (writers != null && !request.method().equals("GET") && withBody) {
+                connection.parked = true;
+                connection.blocked = true;
+                writers.execute(() -> {
+                    ApiResponse response = fault.respond(request, this::answer);
+                    completed.add(() -> {
+                        connection.parked = false;
+                        SelectionKey key = connection.channel.keyFor(selector);
+                        if (key == null || !key.isValid()) {
+                            return;
+                        }
+                        if (fault.delayNanos() > 0) {
+                            park(connection, key, response, withBody, fault);
+                        } else {
+                            respond(connection, response, withBody, fault);
+                            drain(key, connection);
+                        }
+                    });
+                    selector.wakeup();
+                });
+            } else {
+                ApiResponse response = fault.respond(request, this::answer);
+                if (fault.delayNanos() > 0) {
+                    park(connection, connection.channel.keyFor(selector), response, withBody, fault);
+                } else {
+                    respond(connection, response, withBody, fault);
+                }
+            }
+            return requestEnd - at;
+        }
+
+        /**
+         * Hold the connection until the fault's delay has passed, then queue the response and go on with the
+         * requests behind it.
+         */
+        private void park(Connection connection, SelectionKey key, ApiResponse response, boolean withBody,
+                          FaultInjector.Fault fault) {
+            connection.parked = true;
+            connection.blocked = true;
+            schedule(fault.delayNanos(), () -> {
+                connection.parked = false;
+                if (key.isValid()) {
+                    respond(connection, response, withBody, fault);
+                    drain(key, connection);
+                }
+            });
+        }
+
+        private ApiResponse answer(ApiRequest request) {
+            try {
+                return api.handle(request);
+            } catch (RuntimeException e) {
+                return ApiResponse.empty(500);
+            }
+        }
+
+        private void schedule(long delayNanos, Runnable action) {
+            timers.add(new Timer(System.nanoTime() + delayNanos, action));
+        }
+
+        /**
+         * Queue a response with its fault applied: the body cut off before a reset, or the connection switched to
+         * dripping until its queue is empty. A null response is a reset before any of it.
+         */
+        private void respond(Connection connection, ApiResponse response, boolean withBody, FaultInjector.Fault fault) {
+            if (fault.reset()) {
+                if (response != null) {
+                    respond(connection, response, false);
+                }
+                if (response != null && withBody) {
+                    connection.queue(ByteBuffer.wrap(response.body(), 0, response.body().length / 2));
+                }
+                connection.closing = true;
+                connection.reset = true;
+                return;
+            }
+            if (fault.dripBytes() > 0) {
+                connection.dripBytes = fault.dripBytes();
+                connection.dripNanos = fault.dripIntervalNanos();
+            }
+            respond(connection, response, withBody);
+        }
+
+        /**
+         * Decode a chunked body into {@code body}, returning where the request ends, -1 if more bytes are needed,
+         * or -2 if the encoding is malformed or the body too large.
+         */
+        private int dechunk(byte[] data, int at, int length, ByteArrayOutputStream body) {
+            while (true) {
+                int lineEnd = indexOfLineEnd(data, at, length);
+                if (lineEnd < 0) {
+                    return -1;
+                }
+                int size;
+                try {
+                    String line = new String(data, at, lineEnd - at, StandardCharsets.ISO_8859_1);
+                    int extension = line.indexOf(';');
+                    size = Integer.parseInt((extension < 0 ? line : line.substring(0, extension)).trim(), 16);
+                } catch (NumberFormatException e) {
+                    return -2;
+                }
+                if (size < 0 || body.size() + (long) size > MAX_BODY_BYTES) {
+                    return -2;
+                }
+                at = lineEnd + 2;
+                if (size == 0) {
+                    // Skip trailers up to the empty line that ends the message
+                    while (true) {
+                        int end = indexOfLineEnd(data, at, length);
+                        if (end < 0) {
+                            return -1;
+                        }
+                        if (end == at) {
+                            return end + 2;
+                        }
+                        at = end + 2;
+                    }
+                }
+                if (at + size + 2 > length) {
+                    return -1;
+                }
+                body.write(data, at, size);
+                at += size + 2;
+            }
+        }
+
+        private void reject(Connection connection, int status) {
+            connection.closing = true;
+            respond(connection, ApiResponse.empty(status), true);
+        }
+
+        private void respond(Connection connection, ApiResponse response, boolean withBody) {
+            int status = response.status();
+            byte[] body = response.body();
+            head.setLength(0);
+            head.append("HTTP/1.1 ").append(status).append(' ').append(reason(status)).append("\r\n");
+            head.append("Date: ").append(date()).append("\r\n");
+            if (status != 204 && status != 304) {
+                head.append("Content-Length: ").append(body.length).append("\r\n");
+            }
+            if (response.contentType() != null) {
+                head.append("Content-Type: ").append(response.contentType()).append("\r\n");
+            }
+            response.headers().forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+            if (connection.closing) {
+                head.append("Connection: close\r\n");
+            }
+            head.append("\r\n");
+            connection.queue(ByteBuffer.wrap(head.toString().getBytes(StandardCharsets.ISO_8859_1)));
+            if (withBody && body.length > 0) {
+                connection.queue(ByteBuffer.wrap(body));
+            }
+        }
+
+        private String date() {
+            long second = System.currentTimeMillis() / 1_000;
+            if (second != dateSecond) {
+                dateSecond = second;
+                date = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                    ZonedDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneOffset.UTC));
+            }
+            return date;
+        }
+
+        /**
+         * Copy queued responses into the direct buffer and write it until the queue is empty, returning false if
+         * the socket is full (the connection then waits for it to become writable) or was closed.
+         */
+        private boolean flush(SelectionKey key, Connection connection) {
+            ArrayDeque<ByteBuffer> output = connection.output;
+            while (output != null && !output.isEmpty()) {
+                out.clear();
+                if (connection.dripBytes > 0) {
+                    out.limit(Math.min(connection.dripBytes, out.capacity()));
+                }
+                for (ByteBuffer buffer : output) {
+                    int n = Math.min(out.remaining(), buffer.remaining());
+                    out.put(out.position(), buffer, buffer.position(), n);
+                    out.position(out.position() + n);
+                    if (!out.hasRemaining()) {
+                        break;
+                    }
+                }
+                out.flip();
+                int written;
+                try {
+                    written = connection.channel.write(out);
+                } catch (IOException e) {
+                    close(key);
+                    return false;
+                }
+                connection.queued -= written;
+                while (written > 0) {
+                    ByteBuffer first = output.peek();
+                    int n = Math.min(written, first.remaining());
+                    first.position(first.position() + n);
+                    written -= n;
+                    if (!first.hasRemaining()) {
+                        output.poll();
+                    }
+                }
+                if (out.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return false;
+                }
+                if (connection.dripBytes > 0 && !output.isEmpty()) {
+                    key.interestOps(0);
+                    schedule(connection.dripNanos, () -> drain(key, connection));
+                    return false;
+                }
+            }
+            connection.output = null;
+            connection.dripBytes = 0;
+            return true;
+        }
+
+        private void close(SelectionKey key) {
+            key.cancel();
+            closeQuietly(key.channel());
+        }
+    }
+
+    private static final class Timer implements Comparable<Timer> {
+        final long due;
+        final Runnable action;
+
+        Timer(long due, Runnable action) {
+            this.due = due;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Timer other) {
+            return Long.compare(due - other.due, 0);
+        }
+    }
+}
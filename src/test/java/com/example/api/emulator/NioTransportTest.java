@@ -0,0 +1,210 @@
+package com.example.api.emulator;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Raw-socket tests for {@link NioTransport}: pipelining, requests that trickle in, and many open connections.
+ */
+public class NioTransportTest {
+    private static EmbeddedBookstoreServer server;
+
+    @BeforeAll
+    public static void start() {
+        server = EmbeddedBookstoreServer.start(new EmulatorOptions().nio(true).threads(2).seed(10, 1));
+    }
+
+    @AfterAll
+    public static void stop() {
+        server.close();
+    }
+
+    private record RawResponse(int status, Map<String, String> headers, String body) {
+    }
+
+    private static RawResponse read(InputStream in) throws IOException {
+        String statusLine = line(in);
+        Map<String, String> headers = new HashMap<>();
+        for (String header = line(in); !header.isEmpty(); header = line(in)) {
+            int colon = header.indexOf(':');
+            headers.put(header.substring(0, colon).toLowerCase(), header.substring(colon + 1).trim());
+        }
+        byte[] body = in.readNBytes(Integer.parseInt(headers.getOrDefault("content-length", "0")));
+        return new RawResponse(Integer.parseInt(statusLine.split(" ")[1]), headers,
+            new String(body, StandardCharsets.UTF_8));
+    }
+
+    private static String line(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        for (int b = in.read(); b != '\n'; b = in.read()) {
+            if (b < 0) {
+                throw new IOException("Connection closed mid-response");
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return line.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static String get(String path) {
+        return "GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+    }
+
+    /**
+     * Requests written back to back in one packet are all answered, in the order they were sent.
+     */
+    @Test
+    public void answersPipelinedRequestsInOrder() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", server.port())) {
+            OutputStream out = socket.getOutputStream();
+            out.write((get("/api/v1/Books/3") + get("/api/v1/Books/999") + get("/api/v1/Books/1"))
+                .getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            RawResponse first = read(in);
+            RawResponse second = read(in);
+            RawResponse third = read(in);
+            Assertions.assertEquals(200, first.status());
+            Assertions.assertTrue(first.body().startsWith("{\"id\":3,"), first.body());
+            Assertions.assertEquals(404, second.status());
+            Assertions.assertEquals(200, third.status());
+            Assertions.assertTrue(third.body().startsWith("{\"id\":1,"), third.body());
+        }
+    }
+
+    /**
+     * A request that arrives a few bytes at a time, with a plain or chunked body, is put back together.
+     */
+    @Test
+    public void assemblesRequestsAcrossReads() throws IOException, InterruptedException {
+        String book = "{\"id\":5,\"title\":\"Trickled\",\"pageCount\":10}";
+        String plain = "POST /api/v1/Books HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+            + "Content-Length: " + book.length() + "\r\n\r\n" + book;
+        String chunked = "POST /api/v1/Books HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+            + "Transfer-Encoding: chunked\r\n\r\n"
+            + Integer.toHexString(10) + "\r\n" + book.substring(0, 10) + "\r\n"
+            + Integer.toHexString(book.length() - 10) + "\r\n" + book.substring(10) + "\r\n0\r\n\r\n";
+        try (Socket socket = new Socket("127.0.0.1", server.port())) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+            byte[] bytes = (plain + chunked).getBytes(StandardCharsets.ISO_8859_1);
+            for (int at = 0; at < bytes.length; at += 7) {
+                out.write(bytes, at, Math.min(7, bytes.length - at));
+                out.flush();
+                Thread.sleep(1);
+            }
+
+            InputStream in = socket.getInputStream();
+            for (int i = 0; i < 2; i++) {
+                RawResponse response = read(in);
+                Assertions.assertEquals(200, response.status());
+                Assertions.assertTrue(response.body().contains("\"title\":\"Trickled\""), response.body());
+            }
+        }
+    }
+
+    /**
+     * Many connections can stay open at once, and each is still served afterwards.
+     */
+    @Test
+    public void servesManyOpenConnections() throws IOException {
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                sockets.add(new Socket("127.0.0.1", server.port()));
+            }
+            byte[] request = get("/api/v1/Authors/1").getBytes(StandardCharsets.ISO_8859_1);
+            for (Socket socket : sockets) {
+                socket.getOutputStream().write(request);
+            }
+            for (Socket socket : sockets) {
+                Assertions.assertEquals(200, read(socket.getInputStream()).status());
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+    /**
+     * Journaled writes, which wait for the disk on a worker thread, still answer pipelined requests in order on
+     * many concurrent connections of one loop, and everything acknowledged survives a restart.
+     */
+    @Test
+    public void answersJournaledWritesInOrder(@TempDir Path directory) throws Exception {
+        EmulatorOptions options = new EmulatorOptions().nio(true).threads(1).stateful(true).seed(10, 1)
+            .dataDirectory(directory);
+        EmbeddedBookstoreServer journaled = EmbeddedBookstoreServer.start(options);
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int c = 0; c < 16; c++) {
+                int client = c;
+                done.add(clients.submit(() -> {
+                    try (Socket socket = new Socket("127.0.0.1", journaled.port())) {
+                        String book = "{\"id\":0,\"title\":\"Client " + client + "\",\"pageCount\":1}";
+                        String put = "PUT /api/v1/Books/" + (100 + client) + " HTTP/1.1\r\nHost: localhost\r\n"
+                            + "Content-Type: application/json\r\nContent-Length: " + book.length() + "\r\n\r\n" + book;
+                        String post = "POST /api/v1/Books HTTP/1.1\r\nHost: localhost\r\n"
+                            + "Content-Type: application/json\r\nContent-Length: " + book.length() + "\r\n\r\n" + book;
+                        OutputStream out = socket.getOutputStream();
+                        out.write((get("/api/v1/Books/1") + post + put + get("/api/v1/Books/" + (100 + client)))
+                            .getBytes(StandardCharsets.ISO_8859_1));
+                        out.flush();
+                        InputStream in = socket.getInputStream();
+                        Assertions.assertTrue(read(in).body().startsWith("{\"id\":1,"));
+                        Assertions.assertEquals(200, read(in).status());
+                        Assertions.assertEquals(404, read(in).status());
+                        Assertions.assertEquals(404, read(in).status());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+            try (Socket socket = new Socket("127.0.0.1", journaled.port())) {
+                socket.getOutputStream().write(get("/api/v1/Books").getBytes(StandardCharsets.ISO_8859_1));
+                String books = read(socket.getInputStream()).body();
+                for (int c = 0; c < 16; c++) {
+                    Assertions.assertTrue(books.contains("\"title\":\"Client " + c + "\""), books);
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+            journaled.close();
+        }
+
+        EmbeddedBookstoreServer restarted = EmbeddedBookstoreServer.start(options);
+        try (Socket socket = new Socket("127.0.0.1", restarted.port())) {
+            socket.getOutputStream().write(get("/api/v1/Books").getBytes(StandardCharsets.ISO_8859_1));
+            String books = read(socket.getInputStream()).body();
+            for (int c = 0; c < 16; c++) {
+                Assertions.assertTrue(books.contains("\"title\":\"Client " + c + "\""), books);
+            }
+        } finally {
+            restarted.close();
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package com.example.api.emulator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming parser for Book and Author request bodies. It walks the UTF-8 bytes once and binds each known
+ * property as it goes: integers and dates are decoded in place from the buffer, strings are only materialized
+ * for text fields, and unknown properties are validated and skipped. Parsers are reused per thread, so a body
+ * costs the record and its text fields and nothing else.
+ * <p>
+ * Errors carry the wording, JSON path and line/byte coordinates System.Text.Json reports, as ASP.NET's
+ * case-insensitive web defaults bind them: property names match regardless of case, the last duplicate wins,
+ * and numbers may be written as strings. The path is kept as a stack of offsets and only rendered on error.
+ */
+final class RecordParser {
+    private static final int INT = 0;
+    private static final int STRING = 1;
+    private static final int DATE = 2;
+
+    private static final byte[][] BOOK_NAMES = names("id", "title", "description", "pagecount", "excerpt", "publishdate");
+    private static final int[] BOOK_TYPES = {INT, STRING, STRING, INT, STRING, DATE};
+    private static final byte[][] AUTHOR_NAMES = names("id", "idbook", "firstname", "lastname");
+    private static final int[] AUTHOR_TYPES = {INT, INT, STRING, STRING};
+    private static final long NO_INT = Long.MIN_VALUE;
+    private static final long DEFAULT_DATE = IsoDate.pack(0, IsoDate.KIND_UNSPECIFIED);
+
+    private static final ThreadLocal<RecordParser> PARSERS = ThreadLocal.withInitial(RecordParser::new);
+
+    private final int[] ints = new int[BOOK_NAMES.length];
+    private final long[] dates = new long[BOOK_NAMES.length];
+    private final String[] strings = new String[BOOK_NAMES.length];
+
+    private byte[] buf;
+    private int pos;
+    private int line;
+    private int lineStart;
+
+    // One frame per open container: the current member's name (objects) or item index (arrays)
+    private int depth;
+    private int[] nameStarts = new int[8];
+    private int[] nameEnds = new int[8];
+    private int[] items = new int[8];
+    private boolean[] inItem = new boolean[8];
+
+    private RecordParser() {
+        clear();
+    }
+
+    static Book readBook(byte[] body) {
+        RecordParser parser = PARSERS.get();
+        try {
+            parser.parse(body, BOOK_NAMES, BOOK_TYPES);
+            return new Book(parser.ints[0], parser.strings[1], parser.strings[2], parser.ints[3],
+                parser.strings[4], parser.dates[5]);
+        } finally {
+            parser.clear();
+        }
+    }
+
+    static Author readAuthor(byte[] body) {
+        RecordParser parser = PARSERS.get();
+        try {
+            parser.parse(body, AUTHOR_NAMES, AUTHOR_TYPES);
+            return new Author(parser.ints[0], parser.ints[1], parser.strings[2], parser.strings[3]);
+        } finally {
+            parser.clear();
+        }
+    }
+
+    private void parse(byte[] body, byte[][] names, int[] types) {
+        buf = body;
+        pos = 0;
+        line = 0;
+        lineStart = 0;
+        depth = 0;
+        skipWhitespace();
+        if (pos >= buf.length) {
+            throw new JsonException("The input does not contain any JSON tokens. Expected the input to start with a valid JSON token, while isFinalBlock is true.",
+                "$", line, pos - lineStart);
+        }
+        if (buf[pos] != '{') {
+            int valueLine = line;
+            int valueColumn = pos - lineStart;
+            skipValue();
+            throw new JsonException("The JSON value could not be converted to the target type.", "$", valueLine, valueColumn);
+        }
+        readObject(names, types);
+        skipWhitespace();
+        if (pos < buf.length) {
+            throw new JsonException("'" + (char) buf[pos] + "' is invalid after a single JSON value. Expected end of data.",
+                "$", line, pos - lineStart);
+        }
+    }
+
+    private void clear() {
+        buf = null;
+        for (int i = 0; i < strings.length; i++) {
+            ints[i] = 0;
+            dates[i] = DEFAULT_DATE;
+            strings[i] = null;
+        }
+    }
+
+    /**
+     * Read an object, binding members whose names are in {@code names}; with null names every member is skipped.
+     */
+    private void readObject(byte[][] names, int[] types) {
+        pos++; // '{'
+        push(-1);
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            depth--;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            if (pos >= buf.length) {
+                throw openError();
+            }
+            if (buf[pos] != '"') {
+                throw error("'" + (char) buf[pos] + "' is an invalid start of a property name. Expected a '\"'.");
+            }
+            int nameStart = pos + 1;
+            boolean escaped = scanString();
+            nameStarts[depth - 1] = nameStart;
+            nameEnds[depth - 1] = pos - 1;
+            skipWhitespace();
+            if (pos >= buf.length) {
+                throw openError();
+            }
+            if (buf[pos] != ':') {
+                throw error("'" + (char) buf[pos] + "' is invalid after a property name. Expected a ':'.");
+            }
+            pos++;
+            skipWhitespace();
+            int field = names == null ? -1 : match(names, nameStart, nameEnds[depth - 1], escaped);
+            if (field < 0) {
+                skipValue();
+            } else {
+                readField(field, types[field]);
+            }
+            skipWhitespace();
+            if (pos >= buf.length) {
+                throw openError();
+            }
+            byte c = buf[pos++];
+            if (c == '}') {
+                depth--;
+                return;
+            }
+            if (c != ',') {
+                pos--;
+                throw error("'" + (char) c + "' is invalid after a value. Expected either ',', '}', or ']'.");
+            }
+            skipWhitespace();
+            if (peek() == '}') {
+                throw error("The JSON object contains a trailing comma at the end which is not supported in this mode. Change the reader options.");
+            }
+        }
+    }
+
+    private void skipArray() {
+        pos++; // '['
+        push(0);
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            depth--;
+            return;
+        }
+        while (true) {
+            skipWhitespace();
+            inItem[depth - 1] = true;
+            skipValue();
+            inItem[depth - 1] = false;
+            skipWhitespace();
+            if (pos >= buf.length) {
+                throw openError();
+            }
+            byte c = buf[pos++];
+            if (c == ']') {
+                depth--;
+                return;
+            }
+            if (c != ',') {
+                pos--;
+                throw error("'" + (char) c + "' is invalid after a value. Expected either ',', '}', or ']'.");
+            }
+            items[depth - 1]++;
+        }
+    }
+
+    private void skipValue() {
+        if (pos >= buf.length) {
+            throw openError();
+        }
+        byte c = buf[pos];
+        switch (c) {
+            case '{' -> readObject(null, null);
+            case '[' -> skipArray();
+            case '"' -> scanString();
+            case 't' -> literal("true");
+            case 'f' -> literal("false");
+            case 'n' -> literal("null");
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    scanNumber();
+                } else {
+                    throw error("'" + (char) c + "' is an invalid start of a value.");
+                }
+            }
+        }
+    }
+
+    private void readField(int field, int type) {
+        if (pos >= buf.length) {
+            throw openError();
+        }
+        int valueLine = line;
+        int valueColumn = pos - lineStart;
+        byte c = buf[pos];
+        switch (type) {
+            case INT -> {
+                long value = NO_INT;
+                if (c == '"') {
+                    // ASP.NET's web defaults also accept numbers written as strings
+                    int start = pos + 1;
+                    value = scanString() ? parseInt(decode(start, pos - 1)) : parseInt(start, pos - 1, true);
+                } else if (c == '-' || (c >= '0' && c <= '9')) {
+                    int start = pos;
+                    scanNumber();
+                    value = parseInt(start, pos, false);
+                } else {
+                    skipValue();
+                }
+                if (value == NO_INT) {
+                    throw conversionError("System.Int32", valueLine, valueColumn);
+                }
+                ints[field] = (int) value;
+            }
+            case STRING -> {
+                if (c == '"') {
+                    strings[field] = readString();
+                } else if (c == 'n') {
+                    literal("null");
+                    strings[field] = null;
+                } else {
+                    skipValue();
+                    throw conversionError("System.String", valueLine, valueColumn);
+                }
+            }
+            default -> {
+                long date = IsoDate.INVALID;
+                if (c == '"') {
+                    int start = pos + 1;
+                    date = scanString() ? IsoDate.parse(decode(start, pos - 1)) : IsoDate.parse(buf, start, pos - 1 - start);
+                } else {
+                    skipValue();
+                }
+                if (date == IsoDate.INVALID) {
+                    throw conversionError("System.DateTime", valueLine, valueColumn);
+                }
+                dates[field] = date;
+            }
+        }
+    }
+
+    /**
+     * Step over a string starting at the opening quote, validating it, and report whether it holds escapes.
+     */
+    private boolean scanString() {
+        pos++; // opening quote
+        boolean escaped = false;
+        while (pos < buf.length) {
+            byte c = buf[pos];
+            if (c == '"') {
+                pos++;
+                return escaped;
+            }
+            if (c == '\\') {
+                escaped = true;
+                if (++pos >= buf.length) {
+                    break;
+                }
+                byte e = buf[pos];
+                if (e == 'u') {
+                    for (int i = 1; i <= 4; i++) {
+                        if (pos + i >= buf.length) {
+                            throw openError();
+                        }
+                        if (Character.digit(buf[pos + i], 16) < 0) {
+                            pos += i;
+                            throw error("'" + (char) buf[pos] + "' is not a hex digit following '\\u' within a JSON string. The string should be correctly escaped.");
+                        }
+                    }
+                    pos += 4;
+                } else if (e != '"' && e != '\\' && e != '/' && e != 'b' && e != 'f' && e != 'n' && e != 'r' && e != 't') {
+                    throw error("'" + (char) e + "' is not a valid escapable character within a JSON string. The string should be correctly escaped.");
+                }
+                pos++;
+                continue;
+            }
+            if (c >= 0 && c < 0x20) {
+                throw error("'" + (c == '\n' ? "0x0A" : "0x" + Integer.toHexString(c)) + "' is invalid within a JSON string. The string should be correctly escaped.");
+            }
+            pos++;
+        }
+        throw openError();
+    }
+
+    private String readString() {
+        int start = pos + 1;
+        boolean escaped = scanString();
+        return escaped ? decode(start, pos - 1) : new String(buf, start, pos - 1 - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decode an already validated string body that contains escapes.
+     */
+    private String decode(int start, int end) {
+        StringBuilder out = new StringBuilder(end - start);
+        int run = start;
+        int i = start;
+        while (i < end) {
+            if (buf[i] != '\\') {
+                i++;
+                continue;
+            }
+            out.append(new String(buf, run, i - run, StandardCharsets.UTF_8));
+            byte e = buf[i + 1];
+            switch (e) {
+                case 'b' -> out.append('\b');
+                case 'f' -> out.append('\f');
+                case 'n' -> out.append('\n');
+                case 'r' -> out.append('\r');
+                case 't' -> out.append('\t');
+                case 'u' -> {
+                    int code = 0;
+                    for (int k = 2; k < 6; k++) {
+                        code = code << 4 | Character.digit(buf[i + k], 16);
+                    }
+                    out.append((char) code);
+                    i += 4;
+                }
+                default -> out.append((char) e);
+            }
+            i += 2;
+            run = i;
+        }
+        return out.append(new String(buf, run, end - run, StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Step over a number, validating the JSON grammar.
+     */
+    private void scanNumber() {
+        int start = pos;
+        if (buf[pos] == '-') {
+            pos++;
+        }
+        boolean valid = digits() > 0;
+        if (valid && peek() == '.') {
+            pos++;
+            valid = digits() > 0;
+        }
+        if (valid && (peek() == 'e' || peek() == 'E')) {
+            pos++;
+            if (peek() == '+' || peek() == '-') {
+                pos++;
+            }
+            valid = digits() > 0;
+        }
+        if (!valid) {
+            pos = start;
+            throw error("'" + (char) buf[start] + "' is an invalid start of a value.");
+        }
+    }
+
+    private int digits() {
+        int start = pos;
+        while (pos < buf.length && buf[pos] >= '0' && buf[pos] <= '9') {
+            pos++;
+        }
+        return pos - start;
+    }
+
+    /**
+     * An Int32 written as an integer literal (a leading {@code +} is allowed only inside a string), or
+     * {@link #NO_INT} for anything else, including fractions and exponents.
+     */
+    private long parseInt(int from, int to, boolean quoted) {
+        int i = from;
+        boolean negative = i < to && buf[i] == '-';
+        if (i < to && (negative || (quoted && buf[i] == '+'))) {
+            i++;
+        }
+        if (i == to || to - i > 10) {
+            return NO_INT;
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            byte c = buf[i];
+            if (c < '0' || c > '9') {
+                return NO_INT;
+            }
+            value = value * 10 + (c - '0');
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? NO_INT : value;
+    }
+
+    private static long parseInt(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            return NO_INT;
+        }
+    }
+
+    private void literal(String expected) {
+        for (int i = 0; i < expected.length(); i++) {
+            if (pos + i >= buf.length || buf[pos + i] != expected.charAt(i)) {
+                String seen = new String(buf, pos, Math.min(i + 1, buf.length - pos), StandardCharsets.UTF_8);
+                throw error("'" + seen + "' is an invalid JSON literal. Expected the literal '" + expected + "'.");
+            }
+        }
+        pos += expected.length();
+    }
+
+    /**
+     * Index of the property named by the string body between {@code start} and {@code end},
+     * compared case-insensitively, or -1.
+     */
+    private int match(byte[][] names, int start, int end, boolean escaped) {
+        if (escaped) {
+            byte[] decoded = decode(start, end).toLowerCase().getBytes(StandardCharsets.UTF_8);
+            for (int f = 0; f < names.length; f++) {
+                if (Arrays.equals(names[f], decoded)) {
+                    return f;
+                }
+            }
+            return -1;
+        }
+        for (int f = 0; f < names.length; f++) {
+            byte[] name = names[f];
+            if (name.length != end - start) {
+                continue;
+            }
+            int i = 0;
+            while (i < name.length && (buf[start + i] | 0x20) == name[i]) {
+                i++;
+            }
+            if (i == name.length) {
+                return f;
+            }
+        }
+        return -1;
+    }
+
+    private void push(int item) {
+        if (depth == items.length) {
+            nameStarts = Arrays.copyOf(nameStarts, depth * 2);
+            nameEnds = Arrays.copyOf(nameEnds, depth * 2);
+            items = Arrays.copyOf(items, depth * 2);
+            inItem = Arrays.copyOf(inItem, depth * 2);
+        }
+        nameStarts[depth] = -1;
+        items[depth] = item;
+        inItem[depth] = false;
+        depth++;
+    }
+
+    /**
+     * The JSON path of the current position, e.g. {@code $.a.b[2].c}.
+     */
+    private String path() {
+        StringBuilder out = new StringBuilder("$");
+        for (int d = 0; d < depth; d++) {
+            if (items[d] < 0) {
+                if (nameStarts[d] >= 0) {
+                    out.append('.').append(decode(nameStarts[d], nameEnds[d]));
+                }
+            } else if (inItem[d]) {
+                out.append('[').append(items[d]).append(']');
+            }
+        }
+        return out.toString();
+    }
+
+    private byte peek() {
+        return pos < buf.length ? buf[pos] : 0;
+    }
+
+    private void skipWhitespace() {
+        while (pos < buf.length) {
+            byte c = buf[pos];
+            if (c == '\n') {
+                line++;
+                lineStart = pos + 1;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private JsonException conversionError(String type, int valueLine, int valueColumn) {
+        return new JsonException("The JSON value could not be converted to " + type + ".", path(), valueLine, valueColumn);
+    }
+
+    private JsonException openError() {
+        return new JsonException("Expected depth to be zero at the end of the JSON payload. There is an open JSON object or array that should be closed.",
+            "$", line, pos - lineStart);
+    }
+
+    private JsonException error(String reason) {
+        return new JsonException(reason, path(), line, pos - lineStart);
+    }
+
+    private static byte[][] names(String... names) {
+        byte[][] bytes = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            bytes[i] = names[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return bytes;
+    }
+}
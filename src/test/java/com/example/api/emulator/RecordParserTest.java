@@ -0,0 +1,70 @@
+package com.example.api.emulator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests for {@link RecordParser} binding and System.Text.Json error reporting.
+ */
+public class RecordParserTest {
+    private static Book book(String json) {
+        return RecordParser.readBook(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static JsonException authorError(String json) {
+        return Assertions.assertThrows(JsonException.class,
+            () -> RecordParser.readAuthor(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Names bind case-insensitively with the last duplicate winning, numbers may be strings,
+     * escapes are decoded, and unknown members are skipped however deeply nested.
+     */
+    @Test
+    public void bindsKnownFields() {
+        Book book = book("""
+            {"ID": "7", "title": "first", "Title": "caf\\u00e9 \\"quoted\\"", "extra": {"a": [1, {"b": null}]},
+             "pageCount": -12, "publishDate": "2020-01-02T03:04:05Z"}""");
+        Assertions.assertEquals(new Book(7, "café \"quoted\"", null, -12, null,
+            IsoDate.parse("2020-01-02T03:04:05Z")), book);
+        Assertions.assertEquals(new Author(0, 3, null, "Smith"),
+            RecordParser.readAuthor("{\"idBook\":3,\"lastName\":\"Smith\"}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * A missing value is reported at the offending token under the member's path.
+     */
+    @Test
+    public void reportsInvalidStartOfValue() {
+        JsonException e = authorError("{\n  \"firstName\": \"Test\",\n  \"lastName\": \n}");
+        Assertions.assertEquals("$.lastName", e.path());
+        Assertions.assertEquals("'}' is an invalid start of a value. Path: $.lastName | LineNumber: 3 | BytePositionInLine: 0.",
+            e.getMessage());
+    }
+
+    /**
+     * A body cut short reports the open object at the root.
+     */
+    @Test
+    public void reportsOpenObject() {
+        JsonException e = authorError("{\n  \"firstName\": \"Test\",\n  \"lastName\": \"Author\"\n");
+        Assertions.assertEquals("$", e.path());
+        Assertions.assertTrue(e.getMessage().contains("There is an open JSON object or array that should be closed"));
+    }
+
+    /**
+     * Values of the wrong type are conversion errors pointing at the start of the value, and nested
+     * syntax errors carry the full path.
+     */
+    @Test
+    public void reportsConversionErrors() {
+        JsonException date = Assertions.assertThrows(JsonException.class, () -> book("{\"publishDate\": \"invalid\"}"));
+        Assertions.assertEquals("The JSON value could not be converted to System.DateTime. Path: $.publishDate | LineNumber: 0 | BytePositionInLine: 16.",
+            date.getMessage());
+        Assertions.assertEquals("$.idBook", authorError("{\"idBook\": 1.5}").path());
+        Assertions.assertEquals("$.firstName", authorError("{\"firstName\": [\"x\"]}").path());
+        Assertions.assertEquals("$.a.b[2].c", authorError("{\"a\":{\"b\":[1,2,{\"c\":x}]}}").path());
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.api.emulator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only UTF-8 storage behind a table's string columns, so a row holds an int reference instead of a
+ * {@link String}. A reference carries its page in the high bits and its offset in the low {@value #PAGE_BITS};
+ * the bytes there are prefixed with their length as a varint. Reference 0 is {@code null}.
+ * <p>
+ * Repeated values are interned through a small direct-mapped cache, so a description shared by a million rows
+ * is stored once without an unbounded dictionary. Replaced values stay in place as garbage until the owning
+ * table compacts into a fresh arena. Not thread-safe.
+ * <p>
+ * The pages laid end to end form a heap in which a reference is simply the byte offset, which is how a
+ * {@link CatalogFixture} stores its strings and why it can hand them back as an arena with one copy per page.
+ */
+final class StringArena {
+    static final int NULL = 0;
+
+    private static final int PAGE_BITS = 20;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int OFFSET_MASK = PAGE_SIZE - 1;
+    private static final int MAX_PAGES = 1 << (32 - PAGE_BITS);
+    private static final int CACHE_SIZE = 1 << 12;
+
+    private final int[] cache = new int[CACHE_SIZE];
+    private byte[][] pages = new byte[4][];
+    private int page;
+    private int position = 1; // offset 0 of page 0 would be reference 0
+    private long usedBytes;
+    private long garbageBytes;
+
+    StringArena() {
+        pages[0] = new byte[PAGE_SIZE];
+    }
+
+    /**
+     * An arena holding a heap previously written by {@link #writeTo}, so references into it stay valid.
+     */
+    static StringArena adopt(ByteBuffer heap) {
+        StringArena arena = new StringArena();
+        int length = heap.remaining();
+        if (length < 1) {
+            throw new IllegalArgumentException("A heap holds at least its reserved first byte");
+        }
+        int pageCount = (length + PAGE_SIZE - 1) / PAGE_SIZE;
+        if (pageCount > MAX_PAGES) {
+            throw new IllegalArgumentException("Heap of " + length + " bytes is too large");
+        }
+        arena.pages = new byte[Math.max(4, pageCount)][];
+        for (int p = 0; p < pageCount; p++) {
+            arena.pages[p] = new byte[PAGE_SIZE];
+            heap.get(heap.position() + p * PAGE_SIZE, arena.pages[p], 0,
+                Math.min(PAGE_SIZE, length - p * PAGE_SIZE));
+        }
+        arena.page = pageCount - 1;
+        arena.position = length - arena.page * PAGE_SIZE;
+        arena.usedBytes = length - 1;
+        return arena;
+    }
+
+    int intern(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        return intern(utf8, 0, utf8.length);
+    }
+
+    int intern(byte[] utf8, int offset, int length) {
+        int h = 1;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + utf8[i];
+        }
+        int c = (h ^ (h >>> 16)) & (CACHE_SIZE - 1);
+        int cached = cache[c];
+        if (cached != NULL && equals(cached, utf8, offset, length)) {
+            return cached;
+        }
+        int ref = append(utf8, offset, length);
+        cache[c] = ref;
+        return ref;
+    }
+
+    /**
+     * Intern a value held by another arena, without decoding it.
+     */
+    int copy(StringArena from, int ref) {
+        if (ref == NULL) {
+            return NULL;
+        }
+        byte[] bytes = from.pages[ref >>> PAGE_BITS];
+        int at = ref & OFFSET_MASK;
+        int length = readLength(bytes, at);
+        return intern(bytes, at + lengthSize(length), length);
+    }
+
+    String get(int ref) {
+        if (ref == NULL) {
+            return null;
+        }
+        byte[] bytes = pages[ref >>> PAGE_BITS];
+        int at = ref & OFFSET_MASK;
+        int length = readLength(bytes, at);
+        return new String(bytes, at + lengthSize(length), length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Count a value that is no longer referenced as garbage.
+     */
+    void release(int ref) {
+        if (ref != NULL) {
+            int length = readLength(pages[ref >>> PAGE_BITS], ref & OFFSET_MASK);
+            garbageBytes += lengthSize(length) + length;
+        }
+    }
+
+    /**
+     * Write the pages in use as one heap, returning its length. Only possible while no value has needed a page
+     * of its own, which would break the offset arithmetic.
+     */
+    long writeTo(WritableByteChannel out) throws IOException {
+        for (int p = 0; p <= page; p++) {
+            if (pages[p].length != PAGE_SIZE) {
+                throw new IllegalStateException("A value longer than " + PAGE_SIZE + " bytes cannot be written out");
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(pages[p], 0, p == page ? position : PAGE_SIZE);
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+        }
+        return (long) page * PAGE_SIZE + position;
+    }
+
+    long usedBytes() {
+        return usedBytes;
+    }
+
+    long garbageBytes() {
+        return garbageBytes;
+    }
+
+    private int append(byte[] utf8, int offset, int length) {
+        int need = lengthSize(length) + length;
+        if (need > pages[page].length - position) {
+            // A value longer than a page gets a page of its own
+            newPage(Math.max(PAGE_SIZE, need));
+        }
+        byte[] bytes = pages[page];
+        int at = position;
+        int p = at;
+        for (int v = length; ; v >>>= 7) {
+            if (v < 0x80) {
+                bytes[p++] = (byte) v;
+                break;
+            }
+            bytes[p++] = (byte) (v | 0x80);
+        }
+        System.arraycopy(utf8, offset, bytes, p, length);
+        position = p + length;
+        usedBytes += need;
+        return page << PAGE_BITS | at;
+    }
+
+    private void newPage(int size) {
+        if (page + 1 == MAX_PAGES) {
+            throw new IllegalStateException("String arena is full");
+        }
+        if (++page == pages.length) {
+            pages = Arrays.copyOf(pages, Math.min(MAX_PAGES, pages.length * 2));
+        }
+        pages[page] = new byte[size];
+        position = 0;
+    }
+
+    private boolean equals(int ref, byte[] utf8, int offset, int length) {
+        byte[] bytes = pages[ref >>> PAGE_BITS];
+        int at = ref & OFFSET_MASK;
+        if (readLength(bytes, at) != length) {
+            return false;
+        }
+        int start = at + lengthSize(length);
+        return Arrays.equals(bytes, start, start + length, utf8, offset, offset + length);
+    }
+
+    private static int readLength(byte[] bytes, int at) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[at++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return length;
+            }
+        }
+    }
+
+    private static int lengthSize(int length) {
+        return length < 1 << 7 ? 1 : length < 1 << 14 ? 2 : length < 1 << 21 ? 3 : length < 1 << 28 ? 4 : 5;
+    }
+}
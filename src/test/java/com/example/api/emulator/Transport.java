@@ -0,0 +1,13 @@
+package com.example.api.emulator;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Carries HTTP exchanges between sockets and a {@link BookstoreApi}, selected by {@code EMULATOR_TRANSPORT}.
+ */
+interface Transport extends AutoCloseable {
+    InetSocketAddress address();
+
+    @Override
+    void close();
+}
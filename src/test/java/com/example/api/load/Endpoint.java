@@ -0,0 +1,74 @@
+package com.example.api.load;
+
+import com.example.api.support.Payloads;
+import io.restassured.http.ContentType;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.function.IntFunction;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * The API calls the suite makes, as reusable request definitions.
+ * Bodies come from {@link Payloads}, the same ones the functional tests send.
+ */
+public enum Endpoint {
+    GET_BOOKS(Method.GET, "/api/v1/Books", null),
+    GET_BOOK(Method.GET, "/api/v1/Books/{id}", null),
+    CREATE_BOOK(Method.POST, "/api/v1/Books", id -> Payloads.newBook()),
+    UPDATE_BOOK(Method.PUT, "/api/v1/Books/{id}", Payloads::updatedBook),
+    DELETE_BOOK(Method.DELETE, "/api/v1/Books/{id}", null),
+    GET_AUTHORS(Method.GET, "/api/v1/Authors", null),
+    GET_AUTHOR(Method.GET, "/api/v1/Authors/{id}", null),
+    CREATE_AUTHOR(Method.POST, "/api/v1/Authors", id -> Payloads.newAuthor()),
+    UPDATE_AUTHOR(Method.PUT, "/api/v1/Authors/{id}", Payloads::updatedAuthor),
+    DELETE_AUTHOR(Method.DELETE, "/api/v1/Authors/{id}", null);
+
+    private final Method method;
+    private final String path;
+    private final IntFunction<byte[]> body;
+
+    Endpoint(Method method, String path, IntFunction<byte[]> body) {
+        this.method = method;
+        this.path = path;
+        this.body = body;
+    }
+
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Path template, e.g. {@code /api/v1/Books/{id}}.
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Whether the call targets a single resource and therefore needs an ID.
+     */
+    public boolean takesId() {
+        return path.endsWith("{id}");
+    }
+
+    /**
+     * The request, ready to send. The ID fills the path and, for updates, the body.
+     */
+    public RequestSpecification request(int id) {
+        RequestSpecification spec = given();
+        if (takesId()) {
+            spec.pathParam("id", id);
+        }
+        if (body != null) {
+            spec.contentType(ContentType.JSON).body(body.apply(id));
+        }
+        return spec;
+    }
+
+    public Response send(int id) {
+        return request(id).request(method, path);
+    }
+}
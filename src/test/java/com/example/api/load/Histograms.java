@@ -0,0 +1,36 @@
+package com.example.api.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+
+/**
+ * Histograms on the wire between {@link LoadCoordinator} and its workers, in HdrHistogram's compressed encoding.
+ * The encoding keeps every bucket count, so histograms decoded and added together report exactly what one
+ * histogram recording all the values would.
+ */
+final class Histograms {
+    private Histograms() {
+    }
+
+    static void write(DataOutput out, Histogram histogram) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        out.writeInt(length);
+        out.write(buffer.array(), 0, length);
+    }
+
+    static Histogram read(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt histogram", e);
+        }
+    }
+}
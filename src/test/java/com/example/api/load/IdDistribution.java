@@ -0,0 +1,61 @@
+package com.example.api.load;
+
+import com.example.api.support.Settings;
+
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * How single-resource calls choose the ID they address, from {@code 1..max}. Real catalogs are read unevenly: a
+ * Zipfian distribution makes ID 1 the most popular and ID k about k^s times rarer, and a hot set sends a fixed
+ * share of requests to a small slice of the catalog. Either keeps caches and indexes as warm as production does
+ * rather than as cold as uniform IDs would.
+ */
+@FunctionalInterface
+public interface IdDistribution {
+    int next(RandomGenerator random);
+
+    static IdDistribution uniform(int max) {
+        return random -> 1 + random.nextInt(max);
+    }
+
+    /**
+     * Rank k drawn with probability proportional to {@code 1 / k^exponent}, in O(1) per draw.
+     */
+    static IdDistribution zipf(int max, double exponent) {
+        return new ZipfianIds(max, exponent);
+    }
+
+    /**
+     * The first {@code hotFraction} of the IDs receive {@code hotProbability} of the draws, uniformly; the rest
+     * share the remainder.
+     */
+    static IdDistribution hotSet(int max, double hotFraction, double hotProbability) {
+        int hot = Math.max(1, Math.min(max, (int) Math.round(max * hotFraction)));
+        return random -> hot == max || random.nextDouble() < hotProbability
+            ? 1 + random.nextInt(hot)
+            : hot + 1 + random.nextInt(max - hot);
+    }
+
+    /**
+     * {@code uniform}, {@code zipf[:exponent]} (default 0.99) or {@code hotset[:fraction[:probability]]}
+     * (default 0.2 of the IDs taking 0.8 of the draws).
+     */
+    static IdDistribution parse(String spec, int max) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        return switch (parts[0]) {
+            case "uniform" -> uniform(max);
+            case "zipf", "zipfian" -> zipf(max, parts.length > 1 ? Double.parseDouble(parts[1]) : 0.99);
+            case "hotset" -> hotSet(max, parts.length > 1 ? Double.parseDouble(parts[1]) : 0.2,
+                parts.length > 2 ? Double.parseDouble(parts[2]) : 0.8);
+            default -> throw new IllegalArgumentException("Unknown ID distribution: " + spec);
+        };
+    }
+
+    /**
+     * The distribution named by {@code LOAD_IDS} over {@code 1..LOAD_MAX_ID}.
+     */
+    static IdDistribution fromSettings() {
+        return parse(Settings.get("LOAD_IDS", "uniform"), Settings.getInt("LOAD_MAX_ID", 200));
+    }
+}
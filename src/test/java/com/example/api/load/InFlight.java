@@ -0,0 +1,80 @@
+package com.example.api.load;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The requests of one run that were handed to a worker and not yet recorded, at most {@code max} at a time.
+ * When the run ends, {@link #finish} waits a grace period for them and records any still outstanding as
+ * failures, so the report accounts for every arrival it accepted even when the server stops answering.
+ */
+final class InFlight {
+    static final Duration GRACE = Duration.ofMinutes(1);
+
+    private final Semaphore permits;
+    private final Set<Request> requests = ConcurrentHashMap.newKeySet();
+
+    InFlight(int max) {
+        this.permits = new Semaphore(max);
+    }
+
+    /**
+     * A request to {@code endpoint}, or null when {@code max} are already outstanding.
+     */
+    Request tryStart(Endpoint endpoint) {
+        if (!permits.tryAcquire()) {
+            return null;
+        }
+        Request request = new Request(endpoint);
+        requests.add(request);
+        return request;
+    }
+
+    void finish(ExecutorService workers, LoadReport report) throws InterruptedException {
+        finish(workers, report, GRACE);
+    }
+
+    /**
+     * Shuts {@code workers} down and waits up to {@code grace} for them. Requests still outstanding after that
+     * are recorded as failures, and the workers are interrupted.
+     */
+    void finish(ExecutorService workers, LoadReport report, Duration grace) throws InterruptedException {
+        workers.shutdown();
+        if (workers.awaitTermination(grace.toNanos(), TimeUnit.NANOSECONDS)) {
+            return;
+        }
+        for (Request request : requests) {
+            if (request.settle()) {
+                report.recordFailure(request.endpoint);
+            }
+        }
+        workers.shutdownNow();
+    }
+
+    final class Request {
+        final Endpoint endpoint;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Request(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        /**
+         * True for the first caller only, who then records the outcome; a worker finishing after the run gave
+         * up on its request records nothing.
+         */
+        boolean settle() {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            requests.remove(this);
+            permits.release();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.api.load;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * How {@link InFlight} accounts for requests that outlive the run.
+ */
+public class InFlightTest {
+    /**
+     * A request still outstanding after the grace period is counted as a failure once, a worker settling it
+     * afterwards records nothing, and its permit is returned.
+     */
+    @Test
+    public void outstandingRequestsFailAfterTheGracePeriod() throws InterruptedException {
+        InFlight inFlight = new InFlight(2);
+        LoadReport report = new LoadReport();
+        ExecutorService workers = Executors.newCachedThreadPool();
+        CountDownLatch release = new CountDownLatch(1);
+
+        InFlight.Request quick = inFlight.tryStart(Endpoint.GET_BOOK);
+        InFlight.Request stuck = inFlight.tryStart(Endpoint.CREATE_AUTHOR);
+        Assertions.assertNull(inFlight.tryStart(Endpoint.GET_BOOK));
+        workers.execute(() -> {
+            if (quick.settle()) {
+                report.recordResponse(quick.endpoint, 200, 1_000, 1_000);
+            }
+        });
+        workers.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        inFlight.finish(workers, report, Duration.ofMillis(200));
+
+        Assertions.assertEquals(1, report.sent(Endpoint.GET_BOOK));
+        Assertions.assertEquals(0, report.errors(Endpoint.GET_BOOK));
+        Assertions.assertEquals(1, report.sent(Endpoint.CREATE_AUTHOR));
+        Assertions.assertEquals(1, report.errors(Endpoint.CREATE_AUTHOR));
+        Assertions.assertFalse(stuck.settle());
+        Assertions.assertNotNull(inFlight.tryStart(Endpoint.GET_BOOK));
+    }
+}
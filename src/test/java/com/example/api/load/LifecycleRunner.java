@@ -0,0 +1,203 @@
+package com.example.api.load;
+
+import com.example.api.support.ScenarioContext;
+import com.example.api.support.Settings;
+import io.restassured.response.Response;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs many independent create→get→update→delete lifecycles at once, the same flow as the
+ * {@code Lifecycle} chains in {@code BooksApiTest} and {@code AuthorsApiTest}.
+ * Each lifecycle runs on its own thread (virtual where the runtime supports it, see {@link Threads})
+ * with its own {@link ScenarioContext}; a semaphore caps how many are in flight.
+ */
+public final class LifecycleRunner {
+    /**
+     * The four calls of a lifecycle for one resource.
+     */
+    public enum Resource {
+        BOOKS(Endpoint.CREATE_BOOK, Endpoint.GET_BOOK, Endpoint.UPDATE_BOOK, Endpoint.DELETE_BOOK),
+        AUTHORS(Endpoint.CREATE_AUTHOR, Endpoint.GET_AUTHOR, Endpoint.UPDATE_AUTHOR, Endpoint.DELETE_AUTHOR);
+
+        final Endpoint create;
+        final Endpoint get;
+        final Endpoint update;
+        final Endpoint delete;
+
+        Resource(Endpoint create, Endpoint get, Endpoint update, Endpoint delete) {
+            this.create = create;
+            this.get = get;
+            this.update = update;
+            this.delete = delete;
+        }
+    }
+
+    private final int lifecycles;
+    private final int concurrency;
+    private final List<Resource> resources;
+
+    /**
+     * @param lifecycles  lifecycles to run per resource
+     * @param concurrency maximum lifecycles in flight at once, across resources
+     */
+    public LifecycleRunner(int lifecycles, int concurrency, List<Resource> resources) {
+        this.lifecycles = lifecycles;
+        this.concurrency = concurrency;
+        this.resources = resources;
+    }
+
+    /**
+     * A runner configured from {@code LIFECYCLE_COUNT}, {@code LIFECYCLE_CONCURRENCY} and
+     * {@code LIFECYCLE_RESOURCES} (e.g. {@code books,authors}).
+     */
+    public static LifecycleRunner fromSettings() {
+        List<Resource> resources = new ArrayList<>();
+        for (String name : Settings.get("LIFECYCLE_RESOURCES", "books,authors").split(",")) {
+            resources.add(Resource.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        }
+        return new LifecycleRunner(
+            Settings.getInt("LIFECYCLE_COUNT", 1000),
+            Settings.getInt("LIFECYCLE_CONCURRENCY", 256),
+            resources);
+    }
+
+    public Result run() throws InterruptedException {
+        Result result = new Result();
+        Semaphore permits = new Semaphore(concurrency);
+        long start = System.nanoTime();
+        ExecutorService executor = Threads.perTaskExecutor("lifecycle");
+        try {
+            for (int i = 0; i < lifecycles; i++) {
+                for (Resource resource : resources) {
+                    permits.acquire();
+                    executor.execute(() -> {
+                        try {
+                            runOne(resource, result);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.HOURS);
+        }
+        result.elapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * One create→get→update→delete lifecycle, recorded in {@code result}.
+     */
+    static void runOne(Resource resource, Result result) {
+        ScenarioContext scenario = new ScenarioContext();
+        long start = System.nanoTime();
+        try {
+            Response created = resource.create.send(0);
+            if (created.statusCode() != 200 && created.statusCode() != 201) {
+                result.failed(resource, "create returned " + created.statusCode());
+                return;
+            }
+            scenario.createdId(created.jsonPath().getInt("id"));
+            int id = scenario.targetId();
+            if (!expect(resource, resource.get.send(id), result, "get", 200)
+                || !expect(resource, resource.update.send(id), result, "update", 200, 204)
+                || !expect(resource, resource.delete.send(id), result, "delete", 200, 204)) {
+                return;
+            }
+            result.completed(resource, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            result.failed(resource, e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean expect(Resource resource, Response response, Result result, String step, int... statuses) {
+        for (int status : statuses) {
+            if (response.statusCode() == status) {
+                return true;
+            }
+        }
+        result.failed(resource, step + " returned " + response.statusCode());
+        return false;
+    }
+
+    /**
+     * Lifecycle counts and end-to-end lifecycle durations per resource.
+     */
+    public static final class Result {
+        private final Map<Resource, Histogram> durations = new EnumMap<>(Resource.class);
+        private final Map<Resource, LongAdder> failures = new EnumMap<>(Resource.class);
+        private volatile String firstFailure;
+        private long elapsedNanos;
+
+        Result() {
+            for (Resource resource : Resource.values()) {
+                durations.put(resource, new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3));
+                failures.put(resource, new LongAdder());
+            }
+        }
+
+        void elapsedNanos(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        private void completed(Resource resource, long nanos) {
+            durations.get(resource).recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        }
+
+        private void failed(Resource resource, String reason) {
+            failures.get(resource).increment();
+            if (firstFailure == null) {
+                firstFailure = resource + ": " + reason;
+            }
+        }
+
+        public long completed(Resource resource) {
+            return durations.get(resource).getTotalCount();
+        }
+
+        public long failed(Resource resource) {
+            return failures.get(resource).sum();
+        }
+
+        /**
+         * End-to-end lifecycle durations in microseconds.
+         */
+        public Histogram durations(Resource resource) {
+            return durations.get(resource).copy();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("%-8s %9s %9s %9s %9s %9s %9s%n", "resource", "completed", "failed", "p50(ms)", "p90", "p99", "max"));
+            for (Resource resource : Resource.values()) {
+                Histogram h = durations.get(resource);
+                if (h.getTotalCount() + failed(resource) == 0) {
+                    continue;
+                }
+                out.append(String.format("%-8s %9d %9d %9.2f %9.2f %9.2f %9.2f%n", resource, h.getTotalCount(), failed(resource),
+                    h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                    h.getValueAtPercentile(99) / 1000.0, h.getMaxValue() / 1000.0));
+            }
+            if (firstFailure != null) {
+                out.append("first failure: ").append(firstFailure).append('\n');
+            }
+            out.append(String.format("elapsed %.1f s (%s threads)%n", elapsedNanos / 1e9,
+                Threads.virtualThreadsAvailable() ? "virtual" : "platform"));
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.api.load;
+
+import com.example.api.support.LatencyRecorder;
+import com.example.api.support.Settings;
+import io.restassured.RestAssured;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Offers a {@link ProfileRunner}'s load from several local JVMs, for when one process cannot generate it: payload
+ * encoding, TLS and histogram recording all cost client CPU, and one JVM's allocation and GC stay in its own
+ * measurements. The coordinator forks {@link LoadWorker}s with this JVM's classpath, hands each a
+ * {@linkplain ProfileRunner#slice slice} over a loopback socket, starts them together once all are ready, and
+ * merges what they send back. Counters are summed and HdrHistograms added bucket by bucket, so the merged report
+ * is the one a single process recording every request would have printed.
+ * <p>
+ * Workers get every upper-case system property as a setting, and the resolved {@code BASE_URL}: with
+ * {@code BASE_URL=embedded} they all target the emulator running in this process instead of starting their own.
+ */
+public final class LoadCoordinator {
+    private static final Pattern SETTING = Pattern.compile("[A-Z][A-Z0-9_]*");
+    /** How often to check, while waiting for workers to connect, whether one has already exited. */
+    private static final int ACCEPT_POLL_MILLIS = 100;
+
+    private final ProfileRunner runner;
+    private final int workers;
+    private final List<String> jvmOptions;
+    private final Duration startTimeout;
+    private final ProcessBuilder.Redirect output;
+
+    /**
+     * @param workers      number of worker processes
+     * @param jvmOptions   extra options for each worker's {@code java} command, e.g. {@code -Xmx512m}
+     * @param startTimeout how long to wait for every worker to connect and report ready, and to exit after the run
+     */
+    public LoadCoordinator(ProfileRunner runner, int workers, List<String> jvmOptions, Duration startTimeout) {
+        this(runner, workers, jvmOptions, startTimeout, ProcessBuilder.Redirect.INHERIT);
+    }
+
+    /**
+     * @param output where the workers' standard output and error go, instead of this process's
+     */
+    LoadCoordinator(ProfileRunner runner, int workers, List<String> jvmOptions, Duration startTimeout,
+                    ProcessBuilder.Redirect output) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Need at least one worker: " + workers);
+        }
+        this.runner = runner;
+        this.workers = workers;
+        this.jvmOptions = List.copyOf(jvmOptions);
+        this.startTimeout = startTimeout;
+        this.output = output;
+    }
+
+    /**
+     * A coordinator for {@link ProfileRunner#fromSettings} of {@code profile}, configured from
+     * {@code LOAD_WORKERS}, {@code LOAD_WORKER_JVM_OPTS} and {@code LOAD_WORKER_START_TIMEOUT}.
+     */
+    public static LoadCoordinator fromSettings(LoadProfile profile) {
+        String options = Settings.get("LOAD_WORKER_JVM_OPTS", "").trim();
+        return new LoadCoordinator(
+            ProfileRunner.fromSettings(profile),
+            Settings.getInt("LOAD_WORKERS", 2),
+            options.isEmpty() ? List.of() : Arrays.asList(options.split("\\s+")),
+            Settings.getDuration("LOAD_WORKER_START_TIMEOUT", Duration.ofMinutes(1)));
+    }
+
+    /**
+     * Run the load across the workers and merge their reports; the workers' latency histograms are added to
+     * {@link LatencyRecorder#global()}. The run fails if a worker exits before connecting, does not exit after
+     * sending its report, or exits with a non-zero code.
+     */
+    public LoadReport run() throws IOException, InterruptedException {
+        List<Process> processes = new ArrayList<>();
+        List<Socket> sockets = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(ACCEPT_POLL_MILLIS);
+            for (int i = 0; i < workers; i++) {
+                processes.add(fork(server.getLocalPort()));
+            }
+            List<DataInputStream> ins = new ArrayList<>();
+            List<DataOutputStream> outs = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Socket socket = accept(server, processes);
+                sockets.add(socket);
+                socket.setSoTimeout((int) startTimeout.toMillis());
+                ins.add(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+                outs.add(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())));
+                runner.slice(i, workers).writeTo(outs.get(i));
+                outs.get(i).flush();
+            }
+            for (int i = 0; i < workers; i++) {
+                if (ins.get(i).readByte() != LoadWorker.READY) {
+                    throw new IOException("Load worker " + i + " did not report ready");
+                }
+                // The run itself may take as long as the profile does
+                sockets.get(i).setSoTimeout(0);
+            }
+            for (DataOutputStream out : outs) {
+                out.writeByte(LoadWorker.GO);
+                out.flush();
+            }
+            LoadReport merged = new LoadReport();
+            for (DataInputStream in : ins) {
+                merged.add(LoadReport.readFrom(in));
+                LatencyRecorder.global().add(LoadWorker.readHistograms(in), LoadWorker.readHistograms(in),
+                    in.readBoolean());
+            }
+            for (int i = 0; i < workers; i++) {
+                Process process = processes.get(i);
+                if (!process.waitFor(startTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                    throw new IOException("Load worker " + i + " did not exit within " + startTimeout
+                        + " of sending its report");
+                }
+                if (process.exitValue() != 0) {
+                    throw new IOException("Load worker " + i + " exited with code " + process.exitValue()
+                        + "; see its output above");
+                }
+            }
+            return merged;
+        } catch (EOFException e) {
+            throw new IOException("A load worker exited early; see its output above", e);
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            processes.forEach(Process::destroy);
+        }
+    }
+
+    private Process fork(int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        System.getProperties().forEach((name, value) -> {
+            if (SETTING.matcher(name.toString()).matches() && !name.equals("BASE_URL")) {
+                command.add("-D" + name + "=" + value);
+            }
+        });
+        command.add("-DBASE_URL=" + RestAssured.baseURI);
+        command.add("-cp");
+        command.add(classpath());
+        command.add(LoadWorker.class.getName());
+        command.add(Integer.toString(port));
+        return new ProcessBuilder(command)
+            .redirectInput(ProcessBuilder.Redirect.INHERIT)
+            .redirectOutput(output)
+            .redirectError(output)
+            .start();
+    }
+
+    /**
+     * The classpath this class was loaded from: under {@code exec:java} that is the plugin's class loader, not
+     * {@code java.class.path}, which then only holds Maven's launcher.
+     */
+    private static String classpath() {
+        if (LoadCoordinator.class.getClassLoader() instanceof URLClassLoader loader) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : loader.getURLs()) {
+                try {
+                    entries.add(Path.of(url.toURI()).toString());
+                } catch (URISyntaxException e) {
+                    throw new IllegalStateException("Unusable classpath entry: " + url, e);
+                }
+            }
+            return String.join(File.pathSeparator, entries);
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    /**
+     * The next worker's connection, failing as soon as any worker has exited rather than at the start timeout.
+     */
+    private Socket accept(ServerSocket server, List<Process> processes) throws IOException {
+        long deadline = System.nanoTime() + startTimeout.toNanos();
+        while (true) {
+            for (int i = 0; i < processes.size(); i++) {
+                if (!processes.get(i).isAlive()) {
+                    throw new IOException("Load worker " + i + " exited with code " + processes.get(i).exitValue()
+                        + " before the run started; see its output above");
+                }
+            }
+            try {
+                return server.accept();
+            } catch (SocketTimeoutException e) {
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new IOException("Load workers did not all connect within " + startTimeout
+                        + "; see their output above", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d worker processes, together offering %s", workers, runner);
+    }
+}
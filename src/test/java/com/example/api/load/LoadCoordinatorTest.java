@@ -0,0 +1,121 @@
+package com.example.api.load;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * What {@link LoadCoordinator} relies on: slices of a profile add up to the whole, and reports sent between
+ * processes merge without losing anything.
+ */
+public class LoadCoordinatorTest {
+
+    /**
+     * Evenly spaced arrivals of three phase-shifted slices, sent over the wire, interleave into the arrivals of
+     * the unsliced profile, to within the rounding of the ramp's square root.
+     */
+    @Test
+    public void slicesInterleaveIntoTheWhole() throws IOException {
+        LoadProfile profile = LoadProfile.builder()
+            .endpoint(Endpoint.GET_BOOK)
+                .hold(100, Duration.ofMillis(1_005))
+                .rampTo(700, Duration.ofMillis(1_500))
+                .spike(2_000, Duration.ofMillis(200), Duration.ofMillis(250))
+            .build();
+        List<Long> whole = arrivals(profile, 0);
+        List<Long> sliced = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            profile.scaled(1.0 / 3, 1).writeTo(new DataOutputStream(bytes));
+            LoadProfile slice = LoadProfile.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+            sliced.addAll(arrivals(slice, i / 3.0));
+        }
+        sliced.sort(null);
+        Assertions.assertEquals(whole.size(), sliced.size());
+        for (int k = 0; k < whole.size(); k++) {
+            Assertions.assertEquals(whole.get(k), sliced.get(k), 1_000, "arrival " + k);
+        }
+    }
+
+    /**
+     * Two reports, encoded and decoded as workers send them, merge into the counters and percentiles of one
+     * report that recorded every response.
+     */
+    @Test
+    public void mergedReportsMatchOneRecorder() throws IOException {
+        LoadReport whole = new LoadReport();
+        LoadReport[] parts = {new LoadReport(), new LoadReport()};
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 50_000; i++) {
+            LoadReport part = parts[i % 2];
+            Endpoint endpoint = i % 3 == 0 ? Endpoint.CREATE_BOOK : Endpoint.GET_BOOK;
+            long nanos = (long) (-Math.log(1 - random.nextDouble()) * 2e6);
+            int status = i % 97 == 0 ? 500 : 200;
+            whole.recordResponse(endpoint, status, nanos, nanos + 1_000);
+            part.recordResponse(endpoint, status, nanos, nanos + 1_000);
+            if (i % 1_000 == 0) {
+                whole.recordDropped(endpoint);
+                part.recordDropped(endpoint);
+            }
+        }
+        whole.elapsedNanos(2_000_000_000L);
+        parts[0].elapsedNanos(1_900_000_000L);
+        parts[1].elapsedNanos(2_000_000_000L);
+
+        LoadReport merged = new LoadReport();
+        for (LoadReport part : parts) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            part.writeTo(new DataOutputStream(bytes));
+            merged.add(LoadReport.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        }
+        for (Endpoint endpoint : Endpoint.values()) {
+            Assertions.assertEquals(whole.sent(endpoint), merged.sent(endpoint), endpoint.name());
+            Assertions.assertEquals(whole.errors(endpoint), merged.errors(endpoint), endpoint.name());
+        }
+        Assertions.assertEquals(whole.totalDropped(), merged.totalDropped());
+        Assertions.assertEquals(whole.throughput(), merged.throughput());
+        for (double percentile : new double[] {0, 50, 90, 99, 99.9, 99.99, 100}) {
+            Assertions.assertEquals(whole.responseTimeMillis(percentile), merged.responseTimeMillis(percentile),
+                "p" + percentile);
+        }
+        Assertions.assertEquals(whole.toString(), merged.toString());
+    }
+
+    /**
+     * A worker that cannot start fails the run as soon as it exits, with its exit code, instead of leaving the
+     * coordinator waiting for the start timeout.
+     */
+    @Test
+    public void failedWorkerFailsTheRun() {
+        LoadProfile profile = LoadProfile.builder()
+            .endpoint(Endpoint.GET_BOOK)
+                .hold(10, Duration.ofSeconds(1))
+            .build();
+        LoadCoordinator coordinator = new LoadCoordinator(
+            new ProfileRunner(profile, false, 1, 10, IdDistribution.uniform(10)), 2,
+            List.of("-XX:+NoSuchOption"), Duration.ofMinutes(1), ProcessBuilder.Redirect.DISCARD);
+
+        long start = System.nanoTime();
+        IOException failure = Assertions.assertThrows(IOException.class, coordinator::run);
+        Assertions.assertTrue(failure.getMessage().contains("exited with code 1"), failure.getMessage());
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(30).toNanos());
+    }
+
+    private static List<Long> arrivals(LoadProfile profile, double phase) {
+        LoadProfile.Arrivals arrivals = profile.arrivals(Endpoint.GET_BOOK, null, phase);
+        List<Long> times = new ArrayList<>();
+        for (long at = arrivals.next(); at != Long.MAX_VALUE; at = arrivals.next()) {
+            times.add(at);
+        }
+        return times;
+    }
+}
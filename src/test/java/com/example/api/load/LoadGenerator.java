@@ -0,0 +1,119 @@
+package com.example.api.load;
+
+import com.example.api.support.LatencyRecorder;
+import com.example.api.support.Settings;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Open-model load generator: requests arrive at a target rate regardless of how quickly earlier ones complete.
+ * Each arrival picks an endpoint from a {@link WorkloadMix} and an ID from an {@link IdDistribution}, and runs
+ * on its own worker, so a slow server increases concurrency instead of silently lowering the offered load.
+ */
+public final class LoadGenerator {
+    private final double ratePerSecond;
+    private final Duration duration;
+    private final WorkloadMix mix;
+    private final boolean poisson;
+    private final int maxInFlight;
+    private final IdDistribution ids;
+
+    /**
+     * @param ratePerSecond target arrival rate
+     * @param duration      how long to keep issuing arrivals
+     * @param mix           weighted endpoints
+     * @param poisson       exponential inter-arrival times instead of a fixed interval
+     * @param maxInFlight   arrivals beyond this many outstanding requests are dropped and counted
+     * @param ids           IDs for single-resource calls
+     */
+    public LoadGenerator(double ratePerSecond, Duration duration, WorkloadMix mix, boolean poisson, int maxInFlight,
+                         IdDistribution ids) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + ratePerSecond);
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+        this.mix = mix;
+        this.poisson = poisson;
+        this.maxInFlight = maxInFlight;
+        this.ids = ids;
+    }
+
+    /**
+     * A generator configured from {@code LOAD_RATE}, {@code LOAD_DURATION}, {@code LOAD_MIX},
+     * {@code LOAD_ARRIVALS} ({@code fixed} or {@code poisson}), {@code LOAD_MAX_IN_FLIGHT}, {@code LOAD_IDS} and
+     * {@code LOAD_MAX_ID}.
+     */
+    public static LoadGenerator fromSettings() {
+        return new LoadGenerator(
+            Settings.getDouble("LOAD_RATE", 50),
+            Settings.getDuration("LOAD_DURATION", Duration.ofSeconds(30)),
+            WorkloadMix.parse(Settings.get("LOAD_MIX", "CREATE_BOOK:40,UPDATE_BOOK:30,CREATE_AUTHOR:30")),
+            Settings.get("LOAD_ARRIVALS", "fixed").equalsIgnoreCase("poisson"),
+            Settings.getInt("LOAD_MAX_IN_FLIGHT", 1000),
+            IdDistribution.fromSettings());
+    }
+
+    public LoadReport run() throws InterruptedException {
+        LoadReport report = new LoadReport();
+        ExecutorService workers = Threads.perTaskExecutor("load-worker");
+        InFlight inFlight = new InFlight(maxInFlight);
+        Histogram lag = new Histogram(3);
+        double intervalNanos = 1e9 / ratePerSecond;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long arrival = start;
+        double offset = 0;
+        while (arrival < end) {
+            lag.recordValue(Pacer.awaitUntil(arrival) - arrival);
+            Endpoint endpoint = mix.pick(ThreadLocalRandom.current());
+            int id = ids.next(ThreadLocalRandom.current());
+            long intendedStart = arrival;
+            InFlight.Request request = inFlight.tryStart(endpoint);
+            if (request != null) {
+                workers.execute(() -> execute(request, id, intendedStart, report));
+            } else {
+                report.recordDropped(endpoint);
+            }
+            // Arrival times are computed from the start, so scheduling jitter never accumulates into rate drift
+            offset += poisson ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * intervalNanos : intervalNanos;
+            arrival = start + (long) offset;
+        }
+        inFlight.finish(workers, report);
+        report.elapsedNanos(System.nanoTime() - start);
+        report.scheduleLag(lag);
+        return report;
+    }
+
+    /**
+     * Sends {@code request} and records its outcome, unless the run has already counted it as a failure.
+     */
+    static void execute(InFlight.Request request, int id, long intendedStart, LoadReport report) {
+        Endpoint endpoint = request.endpoint;
+        long sent = System.nanoTime();
+        // Latency is measured from the scheduled arrival, not from when a worker got around to sending
+        LatencyRecorder.scheduledAt(intendedStart);
+        try {
+            int status = endpoint.send(id).statusCode();
+            long now = System.nanoTime();
+            if (request.settle()) {
+                report.recordResponse(endpoint, status, now - sent, now - intendedStart);
+            }
+        } catch (RuntimeException e) {
+            if (request.settle()) {
+                report.recordFailure(endpoint);
+            }
+        } finally {
+            LatencyRecorder.scheduledAt(0);
+            request.settle();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.1f req/s for %s (%s)", ratePerSecond, duration, mix);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.api.load;
+
+import com.example.api.BaseTest;
+import com.example.api.emulator.EmbeddedBookstoreServer;
+import com.example.api.support.LatencyRecorder;
+import com.example.api.support.Settings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Entry point for {@code mvn -Pload test}. Targets {@code BASE_URL} exactly as the test suite does and
+ * selects what to run with {@code LOAD_MODE}:
+ * <ul>
+ *     <li>{@code open} (default) — {@link LoadGenerator} at a fixed arrival rate</li>
+ *     <li>{@code lifecycles} — {@link LifecycleRunner} with many concurrent CRUD lifecycles</li>
+ *     <li>{@code profile} — {@link ProfileRunner} replaying the {@link LoadScenario} named by {@code LOAD_SCENARIO}</li>
+ *     <li>{@code saturation} — {@link SaturationFinder} searching each of {@code SATURATION_TARGETS}</li>
+ *     <li>{@code soak} — {@link SoakRunner} looping CRUD lifecycles for {@code SOAK_DURATION} and testing for leaks</li>
+ *     <li>{@code distributed} — {@link LoadCoordinator} replaying {@code LOAD_SCENARIO} from {@code LOAD_WORKERS}
+ *     forked JVMs</li>
+ * </ul>
+ */
+public final class LoadMain {
+    private LoadMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BaseTest.setup();
+        try {
+            String mode = Settings.get("LOAD_MODE", "open").toLowerCase(Locale.ROOT);
+            switch (mode) {
+                case "open" -> {
+                    LoadGenerator generator = LoadGenerator.fromSettings();
+                    System.out.println("Offering " + generator);
+                    System.out.print(generator.run());
+                }
+                case "lifecycles" -> System.out.print(LifecycleRunner.fromSettings().run());
+                case "profile" -> {
+                    ProfileRunner runner = ProfileRunner.fromSettings(
+                        LoadScenario.named(Settings.get("LOAD_SCENARIO", "BooksMorningRampScenario")).profile());
+                    System.out.println("Offering " + runner);
+                    System.out.print(runner.run());
+                }
+                case "saturation" -> {
+                    SaturationFinder finder = SaturationFinder.fromSettings();
+                    System.out.println("Searching with " + finder);
+                    List<SaturationFinder.Result> results = new ArrayList<>();
+                    for (WorkloadMix mix : SaturationFinder.targetsFromSettings()) {
+                        System.out.println(mix);
+                        results.add(finder.find(mix, trial -> System.out.println("  " + trial)));
+                    }
+                    results.forEach(System.out::print);
+                }
+                case "distributed" -> {
+                    LoadCoordinator coordinator = LoadCoordinator.fromSettings(
+                        LoadScenario.named(Settings.get("LOAD_SCENARIO", "BooksMorningRampScenario")).profile());
+                    System.out.println("Offering " + coordinator);
+                    System.out.print(coordinator.run());
+                }
+                case "soak" -> System.out.print(SoakRunner.fromSettings().run());
+                default -> throw new IllegalArgumentException("Unknown LOAD_MODE: " + mode);
+            }
+            System.out.print(LatencyRecorder.global().report());
+        } finally {
+            EmbeddedBookstoreServer.closeShared();
+            BaseTest.closeConnectionPool();
+        }
+    }
+}
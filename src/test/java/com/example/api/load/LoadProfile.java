@@ -0,0 +1,358 @@
+package com.example.api.load;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Arrival rates that change over time, one piecewise-linear track per endpoint:
+ * <pre>
+ * LoadProfile.builder()
+ *     .endpoint(Endpoint.GET_BOOK)
+ *         .hold(200, Duration.ofMinutes(1))
+ *         .rampTo(2_000, Duration.ofMinutes(5))
+ *         .spike(20_000, Duration.ofSeconds(2), Duration.ofSeconds(30))
+ *     .endpoint(Endpoint.CREATE_AUTHOR)
+ *         .steps(5, 20, Duration.ofMinutes(1))
+ *     .build();
+ * </pre>
+ * Rates are requests per second. Every track starts at rate 0 at the start of the run, and a rate that
+ * jumps between segments is a step. {@link ProfileRunner} executes a profile.
+ */
+public final class LoadProfile {
+    private final Map<Endpoint, Track> tracks;
+
+    private LoadProfile(Map<Endpoint, Track> tracks) {
+        this.tracks = tracks;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Set<Endpoint> endpoints() {
+        return Collections.unmodifiableSet(tracks.keySet());
+    }
+
+    /**
+     * Until the longest track ends.
+     */
+    public Duration duration() {
+        return Duration.ofNanos((long) (tracks.values().stream().mapToDouble(Track::seconds).max().orElse(0) * 1e9));
+    }
+
+    /**
+     * The rate offered to {@code endpoint} this far into the run.
+     */
+    public double rateAt(Endpoint endpoint, Duration elapsed) {
+        Track track = tracks.get(endpoint);
+        return track == null ? 0 : track.rateAt(elapsed.toNanos() / 1e9);
+    }
+
+    /**
+     * The expected number of requests over the whole run.
+     */
+    public double expectedRequests() {
+        return tracks.values().stream().mapToDouble(track -> track.cumulative[track.from.length]).sum();
+    }
+
+    /**
+     * This profile with every rate multiplied by {@code rateFactor} and every segment's length by
+     * {@code timeFactor}, e.g. to run a production shape briefly and gently against the emulator.
+     */
+    public LoadProfile scaled(double rateFactor, double timeFactor) {
+        if (rateFactor <= 0 || timeFactor <= 0) {
+            throw new IllegalArgumentException("Scale factors must be positive");
+        }
+        Map<Endpoint, Track> scaled = new EnumMap<>(Endpoint.class);
+        tracks.forEach((endpoint, track) -> {
+            double[] from = track.from.clone();
+            double[] to = track.to.clone();
+            double[] seconds = track.seconds.clone();
+            for (int i = 0; i < from.length; i++) {
+                from[i] *= rateFactor;
+                to[i] *= rateFactor;
+                seconds[i] *= timeFactor;
+            }
+            scaled.put(endpoint, new Track(from, to, seconds));
+        });
+        return new LoadProfile(scaled);
+    }
+
+    /**
+     * Arrival times for {@code endpoint}, as nanoseconds from the start of the run.
+     *
+     * @param random inter-arrival draws for Poisson arrivals, or null for evenly spaced ones
+     * @param phase  fraction of an arrival, in {@code [0, 1)}, by which evenly spaced arrivals come early; slices
+     *               of one profile with phases {@code i / n} interleave into the arrivals of the whole
+     */
+    Arrivals arrivals(Endpoint endpoint, SplittableRandom random, double phase) {
+        return new Arrivals(tracks.get(endpoint), random, random == null ? -phase : 0);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(tracks.size());
+        for (Map.Entry<Endpoint, Track> entry : tracks.entrySet()) {
+            Track track = entry.getValue();
+            out.writeUTF(entry.getKey().name());
+            out.writeInt(track.from.length);
+            for (int i = 0; i < track.from.length; i++) {
+                out.writeDouble(track.from[i]);
+                out.writeDouble(track.to[i]);
+                out.writeDouble(track.seconds[i]);
+            }
+        }
+    }
+
+    static LoadProfile readFrom(DataInput in) throws IOException {
+        Map<Endpoint, Track> tracks = new EnumMap<>(Endpoint.class);
+        for (int count = in.readInt(); count > 0; count--) {
+            Endpoint endpoint = Endpoint.valueOf(in.readUTF());
+            int segments = in.readInt();
+            double[] from = new double[segments];
+            double[] to = new double[segments];
+            double[] seconds = new double[segments];
+            for (int i = 0; i < segments; i++) {
+                from[i] = in.readDouble();
+                to[i] = in.readDouble();
+                seconds[i] = in.readDouble();
+            }
+            tracks.put(endpoint, new Track(from, to, seconds));
+        }
+        return new LoadProfile(tracks);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        tracks.forEach((endpoint, track) -> {
+            out.append(String.format("%-14s", endpoint));
+            for (int i = 0; i < track.from.length; i++) {
+                out.append(track.from[i] == track.to[i]
+                    ? String.format(" %.0f/s for %ss,", track.from[i], seconds(track.seconds[i]))
+                    : String.format(" %.0f->%.0f/s over %ss,", track.from[i], track.to[i], seconds(track.seconds[i])));
+            }
+            out.setLength(out.length() - 1);
+            out.append(System.lineSeparator());
+        });
+        return out.toString();
+    }
+
+    private static String seconds(double seconds) {
+        return BigDecimal.valueOf(seconds).setScale(3, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Segments of one endpoint's rate, with the expected arrivals before each, so that the time of the n-th
+     * arrival follows from inverting the integral of the rate.
+     */
+    private static final class Track {
+        final double[] from;
+        final double[] to;
+        final double[] seconds;
+        /** Expected arrivals before segment i; the last entry is the total. */
+        final double[] cumulative;
+
+        Track(double[] from, double[] to, double[] seconds) {
+            this.from = from;
+            this.to = to;
+            this.seconds = seconds;
+            this.cumulative = new double[from.length + 1];
+            for (int i = 0; i < from.length; i++) {
+                cumulative[i + 1] = cumulative[i] + (from[i] + to[i]) / 2 * seconds[i];
+            }
+        }
+
+        double seconds() {
+            double total = 0;
+            for (double length : seconds) {
+                total += length;
+            }
+            return total;
+        }
+
+        double rateAt(double at) {
+            for (int i = 0; i < from.length; i++) {
+                if (at < seconds[i]) {
+                    return from[i] + (to[i] - from[i]) * at / seconds[i];
+                }
+                at -= seconds[i];
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Walks one track forward: arrival k is due when the expected arrivals reach k, or, for Poisson arrivals,
+     * the running sum of k unit exponentials. Within a segment the rate is {@code a + b t}, so the time to
+     * the next target is the root of {@code a t + b t² / 2 = Δ}, computed in the form that stays accurate as
+     * {@code b} approaches 0.
+     */
+    static final class Arrivals {
+        private final Track track;
+        private final SplittableRandom random;
+        private int segment;
+        private double segmentStart;
+        private double target;
+
+        Arrivals(Track track, SplittableRandom random, double target) {
+            this.track = track;
+            this.random = random;
+            this.target = target;
+        }
+
+        /**
+         * Nanoseconds from the start of the run to the next arrival, or {@link Long#MAX_VALUE} once the track
+         * has ended.
+         */
+        long next() {
+            target += random == null ? 1 : -Math.log(1 - random.nextDouble());
+            while (segment < track.from.length && target > track.cumulative[segment + 1]) {
+                segmentStart += track.seconds[segment++];
+            }
+            if (segment == track.from.length) {
+                return Long.MAX_VALUE;
+            }
+            double a = track.from[segment];
+            double b = (track.to[segment] - a) / track.seconds[segment];
+            double delta = target - track.cumulative[segment];
+            double denominator = a + Math.sqrt(Math.max(0, a * a + 2 * b * delta));
+            double t = denominator == 0 ? 0 : 2 * delta / denominator;
+            return (long) ((segmentStart + Math.min(t, track.seconds[segment])) * 1e9);
+        }
+    }
+
+    public static final class Builder {
+        private final Map<Endpoint, Track> tracks = new EnumMap<>(Endpoint.class);
+
+        private Builder() {
+        }
+
+        /**
+         * Start the track of {@code endpoint}; each endpoint has at most one.
+         */
+        public TrackBuilder endpoint(Endpoint endpoint) {
+            if (tracks.containsKey(endpoint)) {
+                throw new IllegalArgumentException(endpoint + " already has a track");
+            }
+            return new TrackBuilder(this, endpoint);
+        }
+
+        public LoadProfile build() {
+            if (tracks.isEmpty()) {
+                throw new IllegalStateException("A load profile needs at least one endpoint");
+            }
+            return new LoadProfile(new EnumMap<>(tracks));
+        }
+    }
+
+    public static final class TrackBuilder {
+        private final Builder profile;
+        private final Endpoint endpoint;
+        private final List<double[]> segments = new ArrayList<>();
+        private double rate;
+
+        private TrackBuilder(Builder profile, Endpoint endpoint) {
+            this.profile = profile;
+            this.endpoint = endpoint;
+            profile.tracks.put(endpoint, new Track(new double[0], new double[0], new double[0]));
+        }
+
+        /**
+         * Change linearly from {@code from} to {@code to} requests per second.
+         */
+        public TrackBuilder ramp(double from, double to, Duration duration) {
+            if (from < 0 || to < 0) {
+                throw new IllegalArgumentException("Rates must not be negative");
+            }
+            double seconds = duration.toNanos() / 1e9;
+            if (seconds <= 0) {
+                throw new IllegalArgumentException("Segment duration must be positive: " + duration);
+            }
+            segments.add(new double[] {from, to, seconds});
+            rate = to;
+            profile.tracks.put(endpoint, track());
+            return this;
+        }
+
+        /**
+         * Change linearly from the current rate to {@code to}.
+         */
+        public TrackBuilder rampTo(double to, Duration duration) {
+            return ramp(rate, to, duration);
+        }
+
+        /**
+         * Jump to {@code rate} and stay there.
+         */
+        public TrackBuilder hold(double rate, Duration duration) {
+            return ramp(rate, rate, duration);
+        }
+
+        /**
+         * Stay at the current rate.
+         */
+        public TrackBuilder hold(Duration duration) {
+            return ramp(rate, rate, duration);
+        }
+
+        /**
+         * Send nothing, e.g. before an endpoint's traffic starts.
+         */
+        public TrackBuilder pause(Duration duration) {
+            return ramp(0, 0, duration);
+        }
+
+        /**
+         * A staircase: {@code count} steps, each {@code increment} above the one before and held for
+         * {@code each}.
+         */
+        public TrackBuilder steps(int count, double increment, Duration each) {
+            for (int i = 0; i < count; i++) {
+                hold(rate + increment, each);
+            }
+            return this;
+        }
+
+        /**
+         * Rise to {@code peak} over {@code edge}, hold it, and fall back to the current rate over {@code edge}.
+         */
+        public TrackBuilder spike(double peak, Duration edge, Duration hold) {
+            double base = rate;
+            return rampTo(peak, edge).hold(hold).rampTo(base, edge);
+        }
+
+        /**
+         * Start the next endpoint's track.
+         */
+        public TrackBuilder endpoint(Endpoint endpoint) {
+            return profile.endpoint(endpoint);
+        }
+
+        public LoadProfile build() {
+            return profile.build();
+        }
+
+        private Track track() {
+            double[] from = new double[segments.size()];
+            double[] to = new double[segments.size()];
+            double[] seconds = new double[segments.size()];
+            for (int i = 0; i < segments.size(); i++) {
+                from[i] = segments.get(i)[0];
+                to[i] = segments.get(i)[1];
+                seconds[i] = segments.get(i)[2];
+            }
+            return new Track(from, to, seconds);
+        }
+    }
+}
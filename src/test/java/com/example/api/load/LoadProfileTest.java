@@ -0,0 +1,97 @@
+package com.example.api.load;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Arrival schedules of {@link LoadProfile} and the deadlines kept by {@link Pacer}.
+ */
+public class LoadProfileTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private static List<Long> arrivals(LoadProfile profile, Endpoint endpoint, SplittableRandom random) {
+        LoadProfile.Arrivals arrivals = profile.arrivals(endpoint, random, 0);
+        List<Long> times = new ArrayList<>();
+        for (long at = arrivals.next(); at != Long.MAX_VALUE; at = arrivals.next()) {
+            times.add(at);
+        }
+        return times;
+    }
+
+    private static long before(List<Long> times, long nanos) {
+        return times.stream().filter(at -> at <= nanos).count();
+    }
+
+    /**
+     * Evenly spaced arrivals reach the integral of the rate at every segment boundary, none fall in a pause, and
+     * each track delivers its expected total and then ends.
+     */
+    @Test
+    public void evenArrivalsFollowTheIntegral() {
+        LoadProfile profile = LoadProfile.builder()
+            .endpoint(Endpoint.GET_BOOK)
+                .hold(100, Duration.ofSeconds(1))
+                .rampTo(300, Duration.ofSeconds(2))
+                .steps(2, 100, Duration.ofMillis(500))
+                .pause(Duration.ofSeconds(1))
+                .hold(50, Duration.ofSeconds(1))
+            .endpoint(Endpoint.CREATE_AUTHOR)
+                .spike(40, Duration.ofMillis(500), Duration.ofSeconds(1))
+            .build();
+        List<Long> books = arrivals(profile, Endpoint.GET_BOOK, null);
+        Assertions.assertEquals(100, before(books, SECOND));
+        Assertions.assertEquals(500, before(books, 3 * SECOND));
+        Assertions.assertEquals(700, before(books, 3 * SECOND + SECOND / 2));
+        Assertions.assertEquals(950, before(books, 4 * SECOND));
+        Assertions.assertEquals(950, before(books, 5 * SECOND));
+        Assertions.assertEquals(1_000, books.size());
+        Assertions.assertTrue(books.get(books.size() - 1) <= 6 * SECOND);
+
+        List<Long> authors = arrivals(profile, Endpoint.CREATE_AUTHOR, null);
+        Assertions.assertEquals(10, before(authors, SECOND / 2));
+        Assertions.assertEquals(50, before(authors, 3 * SECOND / 2));
+        Assertions.assertEquals(60, authors.size());
+        Assertions.assertEquals(1_060, profile.expectedRequests(), 1e-9);
+        Assertions.assertEquals(Duration.ofSeconds(6), profile.duration());
+    }
+
+    /**
+     * Poisson arrivals repeat for the same seed, and their total is within a few standard deviations of the
+     * expected count.
+     */
+    @Test
+    public void poissonArrivalsAreSeeded() {
+        LoadProfile profile = LoadProfile.builder()
+            .endpoint(Endpoint.GET_BOOK)
+                .rampTo(5_000, Duration.ofSeconds(2))
+                .hold(Duration.ofSeconds(2))
+                .rampTo(0, Duration.ofSeconds(2))
+            .build();
+        List<Long> first = arrivals(profile, Endpoint.GET_BOOK, new SplittableRandom(7));
+        Assertions.assertEquals(first, arrivals(profile, Endpoint.GET_BOOK, new SplittableRandom(7)));
+        Assertions.assertNotEquals(first, arrivals(profile, Endpoint.GET_BOOK, new SplittableRandom(8)));
+        Assertions.assertEquals(20_000, profile.expectedRequests(), 1e-9);
+        Assertions.assertEquals(20_000, first.size(), 4 * Math.sqrt(20_000));
+        for (int k = 1; k < first.size(); k++) {
+            Assertions.assertTrue(first.get(k - 1) <= first.get(k), "arrival " + k);
+        }
+    }
+
+    /**
+     * The pacer never returns before its deadline, and reports the time it reached.
+     */
+    @Test
+    public void pacerWaitsForTheDeadline() {
+        for (long wait : new long[] {0, 50_000, 500_000, 5_000_000}) {
+            long deadline = System.nanoTime() + wait;
+            long reached = Pacer.awaitUntil(deadline);
+            Assertions.assertTrue(reached >= deadline, "waited " + wait);
+            Assertions.assertTrue(System.nanoTime() >= reached);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.api.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint counters collected during a load run.
+ */
+public final class LoadReport {
+    private final Map<Endpoint, Counters> counters = new EnumMap<>(Endpoint.class);
+    /** Microseconds from each answered request's scheduled arrival to its response, across endpoints. */
+    private final Histogram responseTimes = new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3);
+    private volatile long elapsedNanos;
+    private volatile Histogram scheduleLag;
+
+    LoadReport() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            counters.put(endpoint, new Counters());
+        }
+    }
+
+    /**
+     * @param latencyNanos      service time, from sending the request
+     * @param responseTimeNanos from the request's scheduled arrival, so including any wait to be sent
+     */
+    void recordResponse(Endpoint endpoint, int status, long latencyNanos, long responseTimeNanos) {
+        Counters c = counters.get(endpoint);
+        c.sent.increment();
+        c.latencyNanos.add(latencyNanos);
+        responseTimes.recordValue(Math.min(responseTimes.getHighestTrackableValue(),
+            Math.max(1, TimeUnit.NANOSECONDS.toMicros(responseTimeNanos))));
+        if (status >= 200 && status < 300) {
+            c.ok.increment();
+        } else {
+            c.httpErrors.increment();
+        }
+    }
+
+    void recordFailure(Endpoint endpoint) {
+        Counters c = counters.get(endpoint);
+        c.sent.increment();
+        c.failures.increment();
+    }
+
+    /**
+     * An arrival that could not be issued because the in-flight limit was reached.
+     */
+    void recordDropped(Endpoint endpoint) {
+        counters.get(endpoint).dropped.increment();
+    }
+
+    void elapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * How late each arrival was dispatched relative to its schedule, in nanoseconds.
+     */
+    void scheduleLag(Histogram scheduleLag) {
+        this.scheduleLag = scheduleLag;
+    }
+
+    /**
+     * Fold in the counters and histograms of a report from another process running part of the same load. The
+     * slices run side by side, so the merged elapsed time is the longest of them.
+     */
+    void add(LoadReport other) {
+        other.counters.forEach((endpoint, theirs) -> counters.get(endpoint).add(theirs));
+        responseTimes.add(other.responseTimes);
+        elapsedNanos = Math.max(elapsedNanos, other.elapsedNanos);
+        Histogram theirLag = other.scheduleLag;
+        if (theirLag != null) {
+            Histogram lag = scheduleLag == null ? new Histogram(3) : scheduleLag.copy();
+            lag.add(theirLag);
+            scheduleLag = lag;
+        }
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(elapsedNanos);
+        out.writeInt(counters.size());
+        for (Map.Entry<Endpoint, Counters> entry : counters.entrySet()) {
+            Counters c = entry.getValue();
+            out.writeUTF(entry.getKey().name());
+            for (LongAdder counter : c.all()) {
+                out.writeLong(counter.sum());
+            }
+        }
+        Histograms.write(out, responseTimes);
+        Histogram lag = scheduleLag;
+        out.writeBoolean(lag != null);
+        if (lag != null) {
+            Histograms.write(out, lag);
+        }
+    }
+
+    static LoadReport readFrom(DataInput in) throws IOException {
+        LoadReport report = new LoadReport();
+        report.elapsedNanos = in.readLong();
+        for (int count = in.readInt(); count > 0; count--) {
+            for (LongAdder counter : report.counters.get(Endpoint.valueOf(in.readUTF())).all()) {
+                counter.add(in.readLong());
+            }
+        }
+        report.responseTimes.add(Histograms.read(in));
+        if (in.readBoolean()) {
+            report.scheduleLag = Histograms.read(in);
+        }
+        return report;
+    }
+
+    public long sent(Endpoint endpoint) {
+        return counters.get(endpoint).sent.sum();
+    }
+
+    public long errors(Endpoint endpoint) {
+        Counters c = counters.get(endpoint);
+        return c.httpErrors.sum() + c.failures.sum() + c.dropped.sum();
+    }
+
+    public long totalSent() {
+        return counters.values().stream().mapToLong(c -> c.sent.sum()).sum();
+    }
+
+    public long totalErrors() {
+        return counters.keySet().stream().mapToLong(this::errors).sum();
+    }
+
+    public long totalDropped() {
+        return counters.values().stream().mapToLong(c -> c.dropped.sum()).sum();
+    }
+
+    /**
+     * Share of offered requests that failed, were answered with a non-2xx status, or were dropped.
+     */
+    public double errorRate() {
+        long offered = totalSent() + totalDropped();
+        return offered == 0 ? 0 : (double) totalErrors() / offered;
+    }
+
+    /**
+     * Response time at {@code percentile} across endpoints, measured from scheduled arrival, in milliseconds.
+     */
+    public double responseTimeMillis(double percentile) {
+        return responseTimes.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double throughput() {
+        return elapsedNanos == 0 ? 0 : totalSent() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-14s %9s %9s %9s %9s %9s %11s%n",
+            "endpoint", "sent", "2xx", "non-2xx", "failed", "dropped", "mean(ms)"));
+        counters.forEach((endpoint, c) -> {
+            long sent = c.sent.sum();
+            long answered = sent - c.failures.sum();
+            if (sent + c.dropped.sum() == 0) {
+                return;
+            }
+            out.append(String.format("%-14s %9d %9d %9d %9d %9d %11.2f%n", endpoint, sent, c.ok.sum(),
+                c.httpErrors.sum(), c.failures.sum(), c.dropped.sum(),
+                answered == 0 ? 0.0 : c.latencyNanos.sum() / 1e6 / answered));
+        });
+        out.append(String.format("elapsed %.1f s, throughput %.1f req/s%n", elapsedNanos / 1e9, throughput()));
+        Histogram lag = scheduleLag;
+        if (lag != null && lag.getTotalCount() > 0) {
+            out.append(String.format("schedule lag p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                lag.getValueAtPercentile(50) / 1e3, lag.getValueAtPercentile(99) / 1e3,
+                lag.getValueAtPercentile(99.9) / 1e3, lag.getMaxValue() / 1e3));
+        }
+        return out.toString();
+    }
+
+    private static final class Counters {
+        final LongAdder sent = new LongAdder();
+        final LongAdder ok = new LongAdder();
+        final LongAdder httpErrors = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder latencyNanos = new LongAdder();
+
+        LongAdder[] all() {
+            return new LongAdder[] {sent, ok, httpErrors, failures, dropped, latencyNanos};
+        }
+
+        void add(Counters other) {
+            LongAdder[] mine = all();
+            LongAdder[] theirs = other.all();
+            for (int i = 0; i < mine.length; i++) {
+                mine[i].add(theirs[i].sum());
+            }
+        }
+    }
+}
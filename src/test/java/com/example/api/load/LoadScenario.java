@@ -0,0 +1,21 @@
+package com.example.api.load;
+
+/**
+ * A named traffic shape to replay with {@code LOAD_MODE=profile}. Implementations live next to the functional
+ * tests in {@code com.example.api} and need a public no-argument constructor.
+ */
+public interface LoadScenario {
+    LoadProfile profile();
+
+    /**
+     * The scenario named by {@code name}: a simple class name in {@code com.example.api}, or a fully qualified one.
+     */
+    static LoadScenario named(String name) {
+        String className = name.contains(".") ? name : "com.example.api." + name;
+        try {
+            return (LoadScenario) Class.forName(className).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Not a load scenario: " + className, e);
+        }
+    }
+}
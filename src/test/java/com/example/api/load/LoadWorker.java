@@ -0,0 +1,79 @@
+package com.example.api.load;
+
+import com.example.api.BaseTest;
+import com.example.api.support.LatencyRecorder;
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One process forked by {@link LoadCoordinator}. It connects back to the coordinator's loopback port, given as
+ * its only argument, and then:
+ * <ol>
+ *     <li>reads its slice of the load, a {@link ProfileRunner} without the ID distribution, which comes from
+ *     the settings the coordinator passed on the command line</li>
+ *     <li>sets up RestAssured against the coordinator's {@code BASE_URL} and answers {@link #READY}</li>
+ *     <li>waits for {@link #GO}, sent once every worker is ready, and runs the slice</li>
+ *     <li>writes its {@link LoadReport}, then the service and response time histograms of
+ *     {@link LatencyRecorder#global()}, and exits</li>
+ * </ol>
+ */
+public final class LoadWorker {
+    static final byte READY = 1;
+    static final byte GO = 2;
+
+    private LoadWorker() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            ProfileRunner runner = ProfileRunner.readFrom(in, IdDistribution.fromSettings());
+            BaseTest.setup();
+            try {
+                out.writeByte(READY);
+                out.flush();
+                if (in.readByte() != GO) {
+                    throw new IOException("Expected the coordinator's go");
+                }
+                runner.run().writeTo(out);
+                LatencyRecorder recorder = LatencyRecorder.global();
+                writeHistograms(out, recorder.serviceTimes());
+                writeHistograms(out, recorder.responseTimes());
+                out.writeBoolean(recorder.corrected());
+                out.flush();
+            } finally {
+                BaseTest.closeConnectionPool();
+            }
+        }
+        // Client libraries may leave non-daemon threads behind; the coordinator waits for this process to exit
+        System.exit(0);
+    }
+
+    static void writeHistograms(DataOutput out, Map<String, Histogram> histograms) throws IOException {
+        out.writeInt(histograms.size());
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            out.writeUTF(entry.getKey());
+            Histograms.write(out, entry.getValue());
+        }
+    }
+
+    static Map<String, Histogram> readHistograms(DataInput in) throws IOException {
+        Map<String, Histogram> histograms = new TreeMap<>();
+        for (int count = in.readInt(); count > 0; count--) {
+            histograms.put(in.readUTF(), Histograms.read(in));
+        }
+        return histograms;
+    }
+}
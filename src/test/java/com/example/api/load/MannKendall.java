@@ -0,0 +1,71 @@
+package com.example.api.load;
+
+import java.util.Arrays;
+
+/**
+ * The Mann-Kendall test for a monotonic trend in a series, and Sen's estimate of its slope. Neither assumes the
+ * samples are normally distributed or the trend linear, so a heap that steps up between collections or a thread
+ * count that creeps up by one now and then is caught as readily as a steady climb, while one large outlier
+ * counts no more than any other sample.
+ *
+ * @param s     the statistic: pairs that increase minus pairs that decrease
+ * @param z     {@code s} normalized by its standard deviation under no trend, with ties and continuity corrected
+ * @param p     one-sided p-value for an increasing trend
+ * @param slope Sen's slope, the median change per sample over all pairs
+ */
+record MannKendall(long s, double z, double p, double slope) {
+    /** Sen's slope keeps every pairwise slope, so longer series are thinned to this many samples for it. */
+    private static final int MAX_SLOPE_SAMPLES = 2_000;
+
+    static MannKendall of(double[] series) {
+        int n = series.length;
+        long s = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                s += Double.compare(series[j], series[i]);
+            }
+        }
+        double variance = n * (n - 1.0) * (2 * n + 5) / 18;
+        double[] sorted = series.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < n; ) {
+            int t = 1;
+            while (i + t < n && sorted[i + t] == sorted[i]) {
+                t++;
+            }
+            variance -= t * (t - 1.0) * (2 * t + 5) / 18;
+            i += t;
+        }
+        double z = s == 0 || variance <= 0 ? 0 : (s - Math.signum(s)) / Math.sqrt(variance);
+        return new MannKendall(s, z, 1 - normalCdf(z), senSlope(series));
+    }
+
+    private static double senSlope(double[] series) {
+        if (series.length < 2) {
+            return 0;
+        }
+        int stride = (series.length + MAX_SLOPE_SAMPLES - 1) / MAX_SLOPE_SAMPLES;
+        int n = (series.length + stride - 1) / Math.max(1, stride);
+        double[] slopes = new double[n * (n - 1) / 2];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                slopes[k++] = (series[j * stride] - series[i * stride]) / ((j - i) * stride);
+            }
+        }
+        Arrays.sort(slopes);
+        int middle = slopes.length / 2;
+        return slopes.length % 2 == 1 ? slopes[middle] : (slopes[middle - 1] + slopes[middle]) / 2;
+    }
+
+    /**
+     * Standard normal CDF by the Abramowitz and Stegun 7.1.26 approximation of erf, good to 1.5e-7.
+     */
+    static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - ((((1.061405429 * t - 1.453152027) * t + 1.421413741) * t - 0.284496736) * t + 0.254829592)
+            * t * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.api.load;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+/**
+ * The trend test {@link SoakRunner} uses to flag leaks.
+ */
+public class MannKendallTest {
+    /**
+     * A noisy climb is flagged with the right slope; noise alone and a flat series with ties are not.
+     */
+    @Test
+    public void flagsOnlyUpwardTrends() {
+        SplittableRandom random = new SplittableRandom(3);
+        double[] leaking = new double[200];
+        double[] noise = new double[200];
+        for (int i = 0; i < leaking.length; i++) {
+            noise[i] = 100 + random.nextGaussian() * 10;
+            leaking[i] = noise[i] + 0.5 * i;
+        }
+        MannKendall leak = MannKendall.of(leaking);
+        Assertions.assertTrue(leak.p() < 1e-6, leak.toString());
+        Assertions.assertEquals(0.5, leak.slope(), 0.05);
+        Assertions.assertTrue(MannKendall.of(noise).p() > 0.01, MannKendall.of(noise).toString());
+
+        MannKendall flat = MannKendall.of(new double[] {23, 23, 23, 23, 23, 23});
+        Assertions.assertEquals(0, flat.s());
+        Assertions.assertEquals(0.5, flat.p(), 1e-6);
+
+        MannKendall rising = MannKendall.of(new double[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+        Assertions.assertEquals(45, rising.s());
+        // Var(S) = 10 * 9 * 25 / 18 = 125, so z = 44 / sqrt(125)
+        Assertions.assertEquals(44 / Math.sqrt(125), rising.z(), 1e-9);
+        Assertions.assertEquals(0.975, MannKendall.normalCdf(1.959964), 1e-6);
+    }
+}
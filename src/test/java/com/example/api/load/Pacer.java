@@ -0,0 +1,34 @@
+package com.example.api.load;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits for arrival deadlines to within a few microseconds. {@link LockSupport#parkNanos} alone wakes late by
+ * the OS timer slack (50 µs or more on Linux, up to milliseconds elsewhere), which at tens of thousands of
+ * arrivals per second is longer than the gap between them. So the thread parks until shortly before the
+ * deadline and spins through the rest, which keeps one core busy while load is offered at high rates.
+ */
+final class Pacer {
+    /** How long before a deadline to stop parking and start spinning. */
+    private static final long SPIN_NANOS = 200_000;
+
+    private Pacer() {
+    }
+
+    /**
+     * Return at {@code deadline} (a {@link System#nanoTime()} value) or as soon after it as possible, with the
+     * time actually reached.
+     */
+    static long awaitUntil(long deadline) {
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            long remaining = deadline - now;
+            if (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return now;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.api.load;
+
+import com.example.api.support.Settings;
+import org.HdrHistogram.Histogram;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Offers the load of a {@link LoadProfile}, open-model like {@link LoadGenerator}: one scheduler thread merges
+ * the arrival times of every endpoint's track, waits for each with {@link Pacer} and hands it to its own
+ * worker. Arrival times are computed from the start of the run, so a late dispatch is caught up on instead
+ * of shifting every later arrival, and how late each one was is reported as the schedule lag.
+ */
+public final class ProfileRunner {
+    private final LoadProfile profile;
+    private final boolean poisson;
+    private final long seed;
+    private final int maxInFlight;
+    private final IdDistribution ids;
+    private final double phase;
+
+    /**
+     * @param poisson     exponential inter-arrival times at the profile's rate instead of even spacing
+     * @param seed        seed for the Poisson draws and the IDs, so a run can be repeated
+     * @param maxInFlight arrivals beyond this many outstanding requests are dropped and counted
+     * @param ids         IDs for single-resource calls
+     */
+    public ProfileRunner(LoadProfile profile, boolean poisson, long seed, int maxInFlight, IdDistribution ids) {
+        this(profile, poisson, seed, maxInFlight, ids, 0);
+    }
+
+    private ProfileRunner(LoadProfile profile, boolean poisson, long seed, int maxInFlight, IdDistribution ids,
+                          double phase) {
+        this.profile = profile;
+        this.poisson = poisson;
+        this.seed = seed;
+        this.maxInFlight = maxInFlight;
+        this.ids = ids;
+        this.phase = phase;
+    }
+
+    /**
+     * A runner for {@code profile} scaled by {@code LOAD_RATE_SCALE} and {@code LOAD_TIME_SCALE}, configured from
+     * {@code LOAD_ARRIVALS}, {@code LOAD_SEED}, {@code LOAD_MAX_IN_FLIGHT}, {@code LOAD_IDS} and
+     * {@code LOAD_MAX_ID}.
+     */
+    public static ProfileRunner fromSettings(LoadProfile profile) {
+        return new ProfileRunner(
+            profile.scaled(Settings.getDouble("LOAD_RATE_SCALE", 1), Settings.getDouble("LOAD_TIME_SCALE", 1)),
+            Settings.get("LOAD_ARRIVALS", "fixed").equalsIgnoreCase("poisson"),
+            Settings.getLong("LOAD_SEED", 1),
+            Settings.getInt("LOAD_MAX_IN_FLIGHT", 1000),
+            IdDistribution.fromSettings());
+    }
+
+    public LoadProfile profile() {
+        return profile;
+    }
+
+    /**
+     * Slice {@code index} of {@code count} equal ones that together offer this runner's load: each has
+     * {@code 1 / count} of every rate and of the in-flight limit, and its own seed. Evenly spaced arrivals are
+     * phase-shifted so the slices interleave instead of all arriving at the same instants.
+     */
+    ProfileRunner slice(int index, int count) {
+        return new ProfileRunner(profile.scaled(1.0 / count, 1), poisson, seed + index,
+            Math.max(1, (maxInFlight + count - 1) / count), ids, (double) index / count);
+    }
+
+    /**
+     * Write everything but the ID distribution, which {@link #readFrom} takes from the reading side.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        profile.writeTo(out);
+        out.writeBoolean(poisson);
+        out.writeLong(seed);
+        out.writeInt(maxInFlight);
+        out.writeDouble(phase);
+    }
+
+    static ProfileRunner readFrom(DataInput in, IdDistribution ids) throws IOException {
+        return new ProfileRunner(LoadProfile.readFrom(in), in.readBoolean(), in.readLong(), in.readInt(), ids,
+            in.readDouble());
+    }
+
+    public LoadReport run() throws InterruptedException {
+        Endpoint[] endpoints = profile.endpoints().toArray(new Endpoint[0]);
+        LoadProfile.Arrivals[] arrivals = new LoadProfile.Arrivals[endpoints.length];
+        long[] due = new long[endpoints.length];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < endpoints.length; i++) {
+            arrivals[i] = profile.arrivals(endpoints[i], poisson ? random.split() : null, phase);
+            due[i] = arrivals[i].next();
+        }
+        // Only the scheduler thread draws IDs, so one generator keeps them in arrival order
+        SplittableRandom idRandom = random.split();
+
+        LoadReport report = new LoadReport();
+        ExecutorService workers = Threads.perTaskExecutor("profile-worker");
+        InFlight inFlight = new InFlight(maxInFlight);
+        Histogram lag = new Histogram(3);
+        long start = System.nanoTime();
+        while (true) {
+            // A handful of tracks at most, so a scan beats a priority queue
+            int next = 0;
+            for (int i = 1; i < due.length; i++) {
+                if (due[i] < due[next]) {
+                    next = i;
+                }
+            }
+            if (due[next] == Long.MAX_VALUE) {
+                break;
+            }
+            long arrival = start + due[next];
+            lag.recordValue(Pacer.awaitUntil(arrival) - arrival);
+            Endpoint endpoint = endpoints[next];
+            int id = ids.next(idRandom);
+            InFlight.Request request = inFlight.tryStart(endpoint);
+            if (request != null) {
+                workers.execute(() -> LoadGenerator.execute(request, id, arrival, report));
+            } else {
+                report.recordDropped(endpoint);
+            }
+            due[next] = arrivals[next].next();
+        }
+        inFlight.finish(workers, report);
+        report.elapsedNanos(System.nanoTime() - start);
+        report.scheduleLag(lag);
+        return report;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s arrivals over %s, about %.0f requests:%n%s",
+            poisson ? "Poisson" : "evenly spaced", profile.duration(), profile.expectedRequests(), profile);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.api.load;
+
+import com.example.api.support.Settings;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Finds the highest arrival rate a workload sustains within its SLOs. Open-model trials at a constant rate
+ * (each one a {@link LoadGenerator} run) double the rate from a starting point until one misses the p99 or
+ * error-rate objective, then bisect between the last rate that met them and the first that did not until the
+ * two are within the configured tolerance. The p99 is measured from each request's scheduled arrival, so
+ * queueing in the client once the server falls behind counts against it, and arrivals dropped at the
+ * in-flight limit count as errors. A warm-up at the starting rate comes first and is not judged, so JIT
+ * compilation and connection setup do not fail the first trial.
+ */
+public final class SaturationFinder {
+    private final double startRate;
+    private final double maxRate;
+    private final double tolerance;
+    private final Duration trialDuration;
+    private final Duration warmup;
+    private final Duration settle;
+    private final double p99Millis;
+    private final double maxErrorRate;
+    private final Load load;
+
+    /**
+     * @param startRate     rate of the first trial
+     * @param maxRate       stop stepping up here and report it as a lower bound
+     * @param tolerance     bisect until the failing rate is within this fraction of the passing one
+     * @param trialDuration how long each rate is offered
+     * @param warmup        how long the starting rate is offered, unjudged, before the first trial
+     * @param settle        pause between trials, so a backlog from one does not spill into the next
+     * @param p99Millis     objective for p99 response time
+     * @param maxErrorRate  objective for the share of errors, as a fraction
+     */
+    public SaturationFinder(double startRate, double maxRate, double tolerance, Duration trialDuration,
+                            Duration warmup, Duration settle, double p99Millis, double maxErrorRate,
+                            boolean poisson, int maxInFlight, IdDistribution ids) {
+        this(startRate, maxRate, tolerance, trialDuration, warmup, settle, p99Millis, maxErrorRate,
+            (mix, rate, duration) -> new LoadGenerator(rate, duration, mix, poisson, maxInFlight, ids).run());
+    }
+
+    SaturationFinder(double startRate, double maxRate, double tolerance, Duration trialDuration, Duration warmup,
+                     Duration settle, double p99Millis, double maxErrorRate, Load load) {
+        if (startRate <= 0 || maxRate < startRate || tolerance <= 0) {
+            throw new IllegalArgumentException("Need 0 < start rate <= max rate and a positive tolerance");
+        }
+        this.startRate = startRate;
+        this.maxRate = maxRate;
+        this.tolerance = tolerance;
+        this.trialDuration = trialDuration;
+        this.warmup = warmup;
+        this.settle = settle;
+        this.p99Millis = p99Millis;
+        this.maxErrorRate = maxErrorRate;
+        this.load = load;
+    }
+
+    /**
+     * A finder configured from {@code SATURATION_START_RATE}, {@code SATURATION_MAX_RATE},
+     * {@code SATURATION_TOLERANCE}, {@code SATURATION_TRIAL}, {@code SATURATION_WARMUP}, {@code SATURATION_SETTLE},
+     * {@code SLO_P99_MS}, {@code SLO_ERROR_RATE}, and the load generator's {@code LOAD_ARRIVALS}, {@code LOAD_MAX_IN_FLIGHT},
+     * {@code LOAD_IDS} and {@code LOAD_MAX_ID}.
+     */
+    public static SaturationFinder fromSettings() {
+        return new SaturationFinder(
+            Settings.getDouble("SATURATION_START_RATE", 50),
+            Settings.getDouble("SATURATION_MAX_RATE", 100_000),
+            Settings.getDouble("SATURATION_TOLERANCE", 0.05),
+            Settings.getDuration("SATURATION_TRIAL", Duration.ofSeconds(10)),
+            Settings.getDuration("SATURATION_WARMUP", Duration.ofSeconds(5)),
+            Settings.getDuration("SATURATION_SETTLE", Duration.ofSeconds(2)),
+            Settings.getDouble("SLO_P99_MS", 100),
+            Settings.getDouble("SLO_ERROR_RATE", 0.01),
+            Settings.get("LOAD_ARRIVALS", "fixed").equalsIgnoreCase("poisson"),
+            Settings.getInt("LOAD_MAX_IN_FLIGHT", 1000),
+            IdDistribution.fromSettings());
+    }
+
+    /**
+     * The workloads named by {@code SATURATION_TARGETS}: {@code ;}-separated {@code LOAD_MIX} strings, so a single
+     * endpoint is searched alone and a weighted list as one mixed workload.
+     */
+    public static List<WorkloadMix> targetsFromSettings() {
+        List<WorkloadMix> targets = new ArrayList<>();
+        for (String target : Settings.get("SATURATION_TARGETS",
+            "CREATE_BOOK;GET_AUTHORS;GET_BOOK:70,GET_BOOKS:10,GET_AUTHOR:10,UPDATE_BOOK:10").split(";")) {
+            if (!target.isBlank()) {
+                targets.add(WorkloadMix.parse(target.trim()));
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Search the knee for {@code mix}, passing each trial to {@code progress} as it completes.
+     */
+    public Result find(WorkloadMix mix, Consumer<Trial> progress) throws InterruptedException {
+        if (!warmup.isZero()) {
+            load.run(mix, startRate, warmup);
+            Thread.sleep(settle.toMillis());
+        }
+        List<Trial> trials = new ArrayList<>();
+        double passing = 0;
+        double failing = Double.NaN;
+        for (double rate = startRate; ; rate = Math.min(rate * 2, maxRate)) {
+            Trial trial = trial(mix, rate, trials, progress);
+            if (!trial.passed()) {
+                failing = rate;
+                break;
+            }
+            passing = rate;
+            if (rate == maxRate) {
+                break;
+            }
+        }
+        while (!Double.isNaN(failing) && passing > 0 && failing - passing > tolerance * passing) {
+            double rate = (passing + failing) / 2;
+            if (trial(mix, rate, trials, progress).passed()) {
+                passing = rate;
+            } else {
+                failing = rate;
+            }
+        }
+        return new Result(mix, passing, failing, trials);
+    }
+
+    private Trial trial(WorkloadMix mix, double rate, List<Trial> trials, Consumer<Trial> progress)
+            throws InterruptedException {
+        if (!trials.isEmpty()) {
+            Thread.sleep(settle.toMillis());
+        }
+        LoadReport report = load.run(mix, rate, trialDuration);
+        double p99 = report.responseTimeMillis(99);
+        double errors = report.errorRate();
+        Trial trial = new Trial(rate, report.throughput(), p99, errors, p99 <= p99Millis && errors <= maxErrorRate);
+        trials.add(trial);
+        progress.accept(trial);
+        return trial;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SLOs p99 <= %.1f ms, errors <= %.2f%%; %s trials from %.0f req/s, to within %.0f%%",
+            p99Millis, maxErrorRate * 100, trialDuration, startRate, tolerance * 100);
+    }
+
+    /**
+     * Offers {@code mix} at a constant {@code rate} for {@code duration}: a {@link LoadGenerator} run, or a stub
+     * in tests.
+     */
+    interface Load {
+        LoadReport run(WorkloadMix mix, double rate, Duration duration) throws InterruptedException;
+    }
+
+    /**
+     * One constant-rate run and whether it met the SLOs.
+     */
+    public record Trial(double rate, double throughput, double p99Millis, double errorRate, boolean passed) {
+        @Override
+        public String toString() {
+            return String.format("%9.1f req/s offered, %9.1f achieved, p99 %9.2f ms, errors %6.2f%%  %s",
+                rate, throughput, p99Millis, errorRate * 100, passed ? "ok" : "MISSED");
+        }
+    }
+
+    /**
+     * @param sustainable highest rate that met the SLOs, or 0 if even the starting rate missed them
+     * @param failing     lowest rate that missed them, or NaN if the maximum rate was reached
+     */
+    public record Result(WorkloadMix mix, double sustainable, double failing, List<Trial> trials) {
+        @Override
+        public String toString() {
+            if (sustainable == 0) {
+                return String.format("%s: misses the SLOs already at %.1f req/s%n", mix, failing);
+            }
+            return Double.isNaN(failing)
+                ? String.format("%s: meets the SLOs up to the maximum tried, %.1f req/s%n", mix, sustainable)
+                : String.format("%s: sustains %.1f req/s (misses at %.1f)%n", mix, sustainable, failing);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.api.load;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The search of {@link SaturationFinder}, against stub loads whose knee is known, so no requests are sent.
+ */
+public class SaturationFinderTest {
+    private static final WorkloadMix MIX = WorkloadMix.parse("GET_BOOK");
+    private static final Consumer<SaturationFinder.Trial> QUIET = trial -> { };
+
+    /**
+     * A report of 100 responses, {@code errors} of them 500s, all taking {@code millis}.
+     */
+    private static LoadReport report(double millis, int errors) {
+        LoadReport report = new LoadReport();
+        for (int i = 0; i < 100; i++) {
+            long nanos = (long) (millis * 1e6);
+            report.recordResponse(Endpoint.GET_BOOK, i < errors ? 500 : 200, nanos, nanos);
+        }
+        report.elapsedNanos(1_000_000_000L);
+        return report;
+    }
+
+    /**
+     * Fast below {@code knee} and far over a 100 ms p99 above it, recording every rate offered.
+     */
+    private static SaturationFinder.Load knee(double knee, List<Double> offered) {
+        return (mix, rate, duration) -> {
+            offered.add(rate);
+            return report(rate <= knee ? 5 : 500, 0);
+        };
+    }
+
+    private static SaturationFinder finder(double startRate, double maxRate, double tolerance, Duration warmup,
+                                           SaturationFinder.Load load) {
+        return new SaturationFinder(startRate, maxRate, tolerance, Duration.ofSeconds(1), warmup, Duration.ZERO,
+            100, 0.01, load);
+    }
+
+    /**
+     * Doubling brackets the knee between the last passing and first failing rate, bisection narrows the bracket
+     * to the tolerance, and the unjudged warm-up is not a trial.
+     */
+    @Test
+    public void bracketsAndBisectsTheKnee() throws InterruptedException {
+        List<Double> offered = new ArrayList<>();
+        SaturationFinder.Result result = finder(50, 100_000, 0.05, Duration.ofSeconds(1), knee(730, offered))
+            .find(MIX, QUIET);
+
+        Assertions.assertEquals(List.of(50.0, 50.0, 100.0, 200.0, 400.0, 800.0), offered.subList(0, 6));
+        Assertions.assertEquals(offered.size() - 1, result.trials().size());
+        Assertions.assertTrue(result.sustainable() <= 730 && result.failing() > 730, result.toString());
+        Assertions.assertTrue(result.failing() - result.sustainable() <= 0.05 * result.sustainable(),
+            result.toString());
+        for (SaturationFinder.Trial trial : result.trials()) {
+            Assertions.assertEquals(trial.rate() <= 730, trial.passed(), trial.toString());
+        }
+        Assertions.assertEquals(100, result.trials().get(0).throughput(), 1e-9);
+    }
+
+    /**
+     * A tighter tolerance takes more trials and ends closer to the knee.
+     */
+    @Test
+    public void toleranceBoundsTheBracket() throws InterruptedException {
+        List<Double> coarse = new ArrayList<>();
+        List<Double> fine = new ArrayList<>();
+        SaturationFinder.Result loose = finder(50, 100_000, 0.1, Duration.ZERO, knee(1_234, coarse)).find(MIX, QUIET);
+        SaturationFinder.Result tight = finder(50, 100_000, 0.001, Duration.ZERO, knee(1_234, fine)).find(MIX, QUIET);
+
+        Assertions.assertTrue(fine.size() > coarse.size(), coarse + " " + fine);
+        Assertions.assertTrue(loose.failing() - loose.sustainable() <= 0.1 * loose.sustainable());
+        Assertions.assertTrue(tight.failing() - tight.sustainable() <= 0.001 * tight.sustainable());
+        Assertions.assertTrue(tight.sustainable() <= 1_234 && tight.failing() > 1_234, tight.toString());
+        Assertions.assertTrue(tight.sustainable() >= loose.sustainable());
+    }
+
+    /**
+     * Missing the SLOs at the starting rate reports nothing sustainable after one trial, and meeting them at the
+     * maximum rate stops there without a failing rate.
+     */
+    @Test
+    public void stopsAtTheBounds() throws InterruptedException {
+        List<Double> offered = new ArrayList<>();
+        SaturationFinder.Result tooSlow = finder(50, 1_000, 0.05, Duration.ZERO, knee(20, offered)).find(MIX, QUIET);
+        Assertions.assertEquals(0, tooSlow.sustainable());
+        Assertions.assertEquals(50, tooSlow.failing());
+        Assertions.assertEquals(List.of(50.0), offered);
+
+        offered.clear();
+        SaturationFinder.Result fastEnough = finder(50, 300, 0.05, Duration.ZERO, knee(10_000, offered))
+            .find(MIX, QUIET);
+        Assertions.assertEquals(300, fastEnough.sustainable());
+        Assertions.assertTrue(Double.isNaN(fastEnough.failing()));
+        Assertions.assertEquals(List.of(50.0, 100.0, 200.0, 300.0), offered);
+    }
+
+    /**
+     * An error rate at the objective passes and one above it fails, even with a fast p99.
+     */
+    @Test
+    public void errorRateObjectiveIsInclusive() throws InterruptedException {
+        SaturationFinder.Result result = finder(100, 100_000, 0.05, Duration.ZERO,
+            (mix, rate, duration) -> report(5, rate <= 400 ? 1 : 2)).find(MIX, QUIET);
+        Assertions.assertEquals(400, result.sustainable());
+        Assertions.assertTrue(result.failing() <= 420, result.toString());
+        Assertions.assertEquals(0.01, result.trials().get(0).errorRate(), 1e-12);
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.api.load;
+
+import com.example.api.support.Settings;
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Loops the create→get→update→delete lifecycles of {@link LifecycleRunner} for hours, watching this JVM for
+ * leaks. A fixed number of workers repeat lifecycles until the duration is up, while the runner samples heap,
+ * garbage collection, thread and file-descriptor counts from the platform MXBeans at a fixed interval. At the end,
+ * each metric's samples after the warm-up go through a {@link MannKendall} trend test, and a metric that rises
+ * significantly is flagged with its growth per hour.
+ * <p>
+ * Heap is judged by what survives collection (the pools' usage after their last GC). Current usage rises and falls
+ * with every young collection, so it is reported for reference but never flagged. GC time and count are judged
+ * per interval: the totals only ever grow, but collections that get longer or more frequent are a leak's symptom.
+ */
+public final class SoakRunner {
+    private static final List<Metric> METRICS = List.of(
+        new Metric("heap used after GC (MB)", sample -> sample.heapAfterGc / 1e6, true),
+        new Metric("heap used (MB)", sample -> sample.heapUsed / 1e6, false),
+        new Metric("GC time per interval (ms)", sample -> sample.gcMillis, true),
+        new Metric("GCs per interval", sample -> sample.gcCount, true),
+        new Metric("live threads", sample -> sample.threads, true),
+        new Metric("open file descriptors", sample -> sample.openFiles, true));
+
+    private final Duration duration;
+    private final Duration interval;
+    private final Duration warmup;
+    private final int concurrency;
+    private final List<LifecycleRunner.Resource> resources;
+    private final double alpha;
+    private final Path csv;
+
+    /**
+     * @param duration    how long to keep running lifecycles
+     * @param interval    time between samples
+     * @param warmup      samples before this are reported but left out of the trend test
+     * @param concurrency workers, each running one lifecycle after another
+     * @param alpha       significance level at which an upward trend is flagged
+     * @param csv         file to append each sample to as it is taken, or null
+     */
+    public SoakRunner(Duration duration, Duration interval, Duration warmup, int concurrency,
+                      List<LifecycleRunner.Resource> resources, double alpha, Path csv) {
+        this.duration = duration;
+        this.interval = interval;
+        this.warmup = warmup;
+        this.concurrency = concurrency;
+        this.resources = resources;
+        this.alpha = alpha;
+        this.csv = csv;
+    }
+
+    /**
+     * A runner configured from {@code SOAK_DURATION}, {@code SOAK_SAMPLE_INTERVAL}, {@code SOAK_WARMUP},
+     * {@code SOAK_CONCURRENCY}, {@code LIFECYCLE_RESOURCES} and {@code SOAK_TREND_ALPHA}; samples go to
+     * {@code target/soak-samples.csv} when run from the project directory.
+     */
+    public static SoakRunner fromSettings() {
+        List<LifecycleRunner.Resource> resources = new ArrayList<>();
+        for (String name : Settings.get("LIFECYCLE_RESOURCES", "books,authors").split(",")) {
+            resources.add(LifecycleRunner.Resource.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+        }
+        Path target = Path.of("target");
+        return new SoakRunner(
+            Settings.getDuration("SOAK_DURATION", Duration.ofHours(1)),
+            Settings.getDuration("SOAK_SAMPLE_INTERVAL", Duration.ofSeconds(10)),
+            Settings.getDuration("SOAK_WARMUP", Duration.ofMinutes(2)),
+            Settings.getInt("SOAK_CONCURRENCY", 16),
+            resources,
+            Settings.getDouble("SOAK_TREND_ALPHA", 0.01),
+            Files.isDirectory(target) ? target.resolve("soak-samples.csv") : null);
+    }
+
+    public Result run() throws InterruptedException {
+        LifecycleRunner.Result lifecycles = new LifecycleRunner.Result();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ExecutorService workers = Threads.perTaskExecutor("soak");
+        for (int w = 0; w < concurrency; w++) {
+            int first = w;
+            workers.execute(() -> {
+                for (int i = first; System.nanoTime() < end; i++) {
+                    LifecycleRunner.runOne(resources.get(i % resources.size()), lifecycles);
+                }
+            });
+        }
+        workers.shutdown();
+
+        List<Sample> samples = new ArrayList<>();
+        Sampler sampler = new Sampler();
+        writeCsv(Sample.CSV_HEADER, false);
+        for (long due = start; due <= end; due += interval.toNanos()) {
+            Pacer.awaitUntil(due);
+            Sample sample = sampler.sample((due - start) / 1_000_000_000.0, lifecycles);
+            samples.add(sample);
+            writeCsv(sample.csv(), true);
+            System.out.println(sample);
+        }
+        workers.awaitTermination(1, TimeUnit.HOURS);
+        lifecycles.elapsedNanos(System.nanoTime() - start);
+        return new Result(lifecycles, samples, samples.stream().filter(s -> s.seconds >= warmup.toSeconds()).toList(),
+            interval, alpha);
+    }
+
+    private void writeCsv(String line, boolean append) {
+        if (csv == null) {
+            return;
+        }
+        try {
+            if (append) {
+                Files.writeString(csv, line + "\n", StandardOpenOption.APPEND);
+            } else {
+                Files.writeString(csv, line + "\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + csv, e);
+        }
+    }
+
+    /**
+     * @param flagged whether a rising trend is flagged, or the metric is only reported
+     */
+    private record Metric(String name, ToDoubleFunction<Sample> value, boolean flagged) {
+    }
+
+    /**
+     * One reading of the JVM; GC figures are the change since the previous reading.
+     */
+    private record Sample(double seconds, long lifecycles, long heapUsed, long heapAfterGc, long gcMillis, long gcCount,
+                          int threads, long openFiles) {
+        static final String CSV_HEADER = "seconds,lifecycles,heapUsed,heapAfterGc,gcMillis,gcCount,threads,openFiles";
+
+        String csv() {
+            return String.format(Locale.ROOT, "%.1f,%d,%d,%d,%d,%d,%d,%d",
+                seconds, lifecycles, heapUsed, heapAfterGc, gcMillis, gcCount, threads, openFiles);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%7.0fs  lifecycles %9d  heap %7.1f MB (%7.1f after GC)  GC %5d ms/%4d  threads %4d  fds %5d",
+                seconds, lifecycles, heapUsed / 1e6, heapAfterGc / 1e6, gcMillis, gcCount, threads, openFiles);
+        }
+    }
+
+    /**
+     * Reads the MXBeans, remembering the GC totals of the previous reading.
+     */
+    private static final class Sampler {
+        private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+        private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        private long gcMillis;
+        private long gcCount;
+
+        Sample sample(double seconds, LifecycleRunner.Result lifecycles) {
+            long heapUsed = 0;
+            long heapAfterGc = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                heapUsed += pool.getUsage().getUsed();
+                if (pool.getCollectionUsage() != null) {
+                    heapAfterGc += pool.getCollectionUsage().getUsed();
+                }
+            }
+            long totalMillis = 0;
+            long totalCount = 0;
+            for (GarbageCollectorMXBean collector : collectors) {
+                totalMillis += Math.max(0, collector.getCollectionTime());
+                totalCount += Math.max(0, collector.getCollectionCount());
+            }
+            long completed = 0;
+            for (LifecycleRunner.Resource resource : LifecycleRunner.Resource.values()) {
+                completed += lifecycles.completed(resource) + lifecycles.failed(resource);
+            }
+            Sample sample = new Sample(seconds, completed, heapUsed, heapAfterGc, totalMillis - gcMillis,
+                totalCount - gcCount, ManagementFactory.getThreadMXBean().getThreadCount(),
+                os instanceof UnixOperatingSystemMXBean unix ? unix.getOpenFileDescriptorCount() : -1);
+            gcMillis = totalMillis;
+            gcCount = totalCount;
+            return sample;
+        }
+    }
+
+    /**
+     * The lifecycles run, every sample, and the trend of each metric over the samples after the warm-up.
+     */
+    public static final class Result {
+        private final LifecycleRunner.Result lifecycles;
+        private final List<Sample> samples;
+        private final List<Sample> judged;
+        private final Duration interval;
+        private final double alpha;
+
+        private Result(LifecycleRunner.Result lifecycles, List<Sample> samples, List<Sample> judged, Duration interval,
+                       double alpha) {
+            this.lifecycles = lifecycles;
+            this.samples = samples;
+            this.judged = judged;
+            this.interval = interval;
+            this.alpha = alpha;
+        }
+
+        /**
+         * Names of the flagged metrics with a significant upward trend.
+         */
+        public List<String> growing() {
+            List<String> growing = new ArrayList<>();
+            for (Metric metric : METRICS) {
+                if (metric.flagged() && trend(metric).p() < alpha) {
+                    growing.add(metric.name());
+                }
+            }
+            return growing;
+        }
+
+        private MannKendall trend(Metric metric) {
+            return MannKendall.of(judged.stream().mapToDouble(metric.value()).toArray());
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder(lifecycles.toString());
+            out.append(String.format("%d samples, %d after warm-up; Mann-Kendall trend, flagged at p < %s%n",
+                samples.size(), judged.size(), alpha));
+            out.append(String.format("%-26s %9s %8s %10s %14s%n", "metric", "S", "z", "p", "Sen slope/h"));
+            double perHour = 3600.0 / (interval.toNanos() / 1e9);
+            for (Metric metric : METRICS) {
+                MannKendall trend = trend(metric);
+                String verdict = !metric.flagged() ? "not judged" : trend.p() < alpha ? "GROWING" : "flat";
+                out.append(String.format("%-26s %9d %8.2f %10.2g %14.3f  %s%n", metric.name(), trend.s(), trend.z(),
+                    trend.p(), trend.slope() * perHour, verdict));
+            }
+            if (judged.size() < 10) {
+                out.append("too few samples after the warm-up for the trend test to mean much\n");
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.api.load;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * A weighted table of {@link Endpoint}s, e.g. {@code GET_BOOK:70,GET_BOOKS:10,GET_AUTHOR:10,UPDATE_BOOK:10}, sampled
+ * in constant time by Vose's alias method. Each of the n columns holds up to two endpoints: a pick chooses a column
+ * uniformly, then one of its two by the column's threshold. Building the table sorts the weights into columns that
+ * are below and above the mean, and fills each short column from a tall one, in O(n).
+ * <p>
+ * The operations are the suite's own request definitions, so a mixed run sends the bodies and paths the functional
+ * tests send.
+ */
+public final class WorkloadMix {
+    private final String spec;
+    private final Endpoint[] endpoints;
+    private final double[] threshold;
+    private final int[] alias;
+
+    private WorkloadMix(String spec, Endpoint[] endpoints, double[] weights) {
+        this.spec = spec;
+        this.endpoints = endpoints;
+        int n = weights.length;
+        this.threshold = new double[n];
+        this.alias = new int[n];
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            (scaled[i] < 1 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            threshold[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] -= 1 - scaled[less];
+            (scaled[more] < 1 ? small : large).push(more);
+        }
+        // Whatever is left is 1 up to rounding
+        for (Deque<Integer> rest : List.of(small, large)) {
+            while (!rest.isEmpty()) {
+                int i = rest.pop();
+                threshold[i] = 1;
+                alias[i] = i;
+            }
+        }
+    }
+
+    /**
+     * Parse {@code NAME[:weight],...}; a missing weight is 1.
+     */
+    public static WorkloadMix parse(String spec) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            double weight = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in mix: " + spec);
+            }
+            endpoints.add(Endpoint.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)));
+            weights.add(weight);
+        }
+        double[] w = weights.stream().mapToDouble(Double::doubleValue).toArray();
+        if (Arrays.stream(w).sum() <= 0) {
+            throw new IllegalArgumentException("Mix has no positive weight: " + spec);
+        }
+        return new WorkloadMix(spec, endpoints.toArray(new Endpoint[0]), w);
+    }
+
+    public Endpoint pick(RandomGenerator random) {
+        int column = random.nextInt(endpoints.length);
+        return endpoints[random.nextDouble() < threshold[column] ? column : alias[column]];
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
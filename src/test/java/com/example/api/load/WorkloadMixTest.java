@@ -0,0 +1,69 @@
+package com.example.api.load;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Sampling frequencies of {@link WorkloadMix} and the {@link IdDistribution}s.
+ */
+public class WorkloadMixTest {
+    private static final int DRAWS = 1_000_000;
+
+    /**
+     * Each endpoint is picked in proportion to its weight, including uneven and fractional weights.
+     */
+    @Test
+    public void aliasTableFollowsWeights() {
+        WorkloadMix mix = WorkloadMix.parse("GET_BOOK:70,GET_BOOKS:10,GET_AUTHOR:9.5,UPDATE_BOOK:0.5,CREATE_AUTHOR:10");
+        SplittableRandom random = new SplittableRandom(1);
+        Map<Endpoint, Integer> picks = new EnumMap<>(Endpoint.class);
+        for (int i = 0; i < DRAWS; i++) {
+            picks.merge(mix.pick(random), 1, Integer::sum);
+        }
+        Assertions.assertEquals(0.70, picks.get(Endpoint.GET_BOOK) / (double) DRAWS, 0.003);
+        Assertions.assertEquals(0.10, picks.get(Endpoint.GET_BOOKS) / (double) DRAWS, 0.002);
+        Assertions.assertEquals(0.095, picks.get(Endpoint.GET_AUTHOR) / (double) DRAWS, 0.002);
+        Assertions.assertEquals(0.005, picks.get(Endpoint.UPDATE_BOOK) / (double) DRAWS, 0.0005);
+        Assertions.assertEquals(0.10, picks.get(Endpoint.CREATE_AUTHOR) / (double) DRAWS, 0.002);
+        Assertions.assertEquals(5, picks.size());
+    }
+
+    /**
+     * Zipfian IDs fall off as {@code 1 / k^s}, hot-set IDs put the configured share on the hot slice, and every
+     * draw stays within {@code 1..max}.
+     */
+    @Test
+    public void idDistributionsHaveTheirShape() {
+        SplittableRandom random = new SplittableRandom(2);
+        int[] zipf = new int[1_001];
+        IdDistribution ids = IdDistribution.parse("zipf:1.2", 1_000);
+        for (int i = 0; i < DRAWS; i++) {
+            zipf[ids.next(random)]++;
+        }
+        Assertions.assertEquals(0, zipf[0]);
+        Assertions.assertEquals(Math.pow(2, 1.2), zipf[1] / (double) zipf[2], 0.05);
+        Assertions.assertEquals(Math.pow(10, 1.2), zipf[1] / (double) zipf[10], 0.5);
+        int[] harmonic = new int[4];
+        ids = IdDistribution.zipf(3, 1);
+        for (int i = 0; i < DRAWS; i++) {
+            harmonic[ids.next(random)]++;
+        }
+        Assertions.assertEquals(6 / 11.0, harmonic[1] / (double) DRAWS, 0.003);
+        Assertions.assertEquals(2 / 11.0, harmonic[3] / (double) DRAWS, 0.003);
+
+        int hot = 0;
+        ids = IdDistribution.parse("hotset:0.1:0.9", 1_000);
+        for (int i = 0; i < DRAWS; i++) {
+            int id = ids.next(random);
+            Assertions.assertTrue(id >= 1 && id <= 1_000, "id " + id);
+            if (id <= 100) {
+                hot++;
+            }
+        }
+        Assertions.assertEquals(0.9, hot / (double) DRAWS, 0.003);
+    }
+}
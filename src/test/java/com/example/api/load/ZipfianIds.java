@@ -0,0 +1,64 @@
+package com.example.api.load;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipfian ranks by rejection-inversion (Hörmann and Derflinger, 1996): invert the integral of a continuous hat
+ * function over the ranks and accept the rounded result if it falls under the true probability mass. Needs no
+ * table and no zeta sum, so it is O(1) per draw and setup for any number of IDs, and accepts on the first try
+ * nearly always.
+ */
+final class ZipfianIds implements IdDistribution {
+    private final int max;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralMax;
+    private final double s;
+
+    ZipfianIds(int max, double exponent) {
+        if (max < 1 || exponent <= 0) {
+            throw new IllegalArgumentException("Zipf needs max >= 1 and a positive exponent");
+        }
+        this.max = max;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralMax = hIntegral(max + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    @Override
+    public int next(RandomGenerator random) {
+        while (true) {
+            double u = hIntegralMax + random.nextDouble() * (hIntegralX1 - hIntegralMax);
+            double x = hIntegralInverse(u);
+            int k = (int) Math.max(1, Math.min(max, (long) (x + 0.5)));
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = Math.max(-1, x * (1 - exponent));
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    /** {@code log(1 + x) / x}, continued to 1 at 0. */
+    private static double log1pOverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    /** {@code (e^x - 1) / x}, continued to 1 at 0. */
+    private static double expm1OverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.api.support;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validates a {@code GET /api/v1/Books} response by walking the array token by token.
+ * <p>
+ * No document tree is built: beyond the stream it reads, the validator keeps only the violations, however large the
+ * catalog. A body read through RestAssured is already buffered whole by the suite's filters, so the response
+ * itself still takes memory in proportion to its size. Every element must have an integer {@code id}, a {@code title} that is a string
+ * or null, an integer {@code pageCount} of zero or more, and a {@code publishDate} that parses as an
+ * ISO-8601 date-time.
+ */
+public final class CatalogValidator {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final int maxViolations;
+
+    /**
+     * @param maxViolations how many violation messages to keep; further violations are only counted
+     */
+    public CatalogValidator(int maxViolations) {
+        this.maxViolations = maxViolations;
+    }
+
+    public Result validate(InputStream body) throws IOException {
+        List<String> violations = new ArrayList<>();
+        long count = 0;
+        long violationCount = 0;
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return new Result(0, 1, List.of("Expected a JSON array but found " + parser.currentToken()));
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    violations.add("Array is not closed after " + count + " elements");
+                    return new Result(count, violationCount + 1, violations);
+                }
+                int index = (int) count++;
+                String problem = token == JsonToken.START_OBJECT ? checkBook(parser) : "is not an object";
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                }
+                if (problem != null) {
+                    violationCount++;
+                    if (violations.size() < maxViolations) {
+                        violations.add("[" + index + "] " + problem);
+                    }
+                }
+            }
+        }
+        return new Result(count, violationCount, violations);
+    }
+
+    /**
+     * Consume one book object and return its first problem, or null if it is valid.
+     */
+    private static String checkBook(JsonParser parser) throws IOException {
+        String problem = null;
+        boolean hasId = false;
+        boolean hasTitle = false;
+        boolean hasPageCount = false;
+        boolean hasPublishDate = false;
+        String id = "?";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> {
+                    hasId = true;
+                    if (value == JsonToken.VALUE_NUMBER_INT) {
+                        id = parser.getText();
+                    } else if (problem == null) {
+                        problem = "id is not an integer";
+                    }
+                }
+                case "title" -> {
+                    hasTitle = true;
+                    if (value != JsonToken.VALUE_STRING && value != JsonToken.VALUE_NULL && problem == null) {
+                        problem = "title is not a string";
+                    }
+                }
+                case "pageCount" -> {
+                    hasPageCount = true;
+                    if (value != JsonToken.VALUE_NUMBER_INT) {
+                        problem = problem != null ? problem : "pageCount is not an integer";
+                    } else if (parser.getLongValue() < 0 && problem == null) {
+                        problem = "pageCount " + parser.getLongValue() + " is negative";
+                    }
+                }
+                case "publishDate" -> {
+                    hasPublishDate = true;
+                    if (value != JsonToken.VALUE_STRING || !isDateTime(parser.getText())) {
+                        problem = problem != null ? problem : "publishDate '" + parser.getText() + "' is not an ISO-8601 date-time";
+                    }
+                }
+                default -> {
+                    // Unknown fields are not checked
+                }
+            }
+            // A container where a scalar belongs has been reported above; step over it to the next field
+            parser.skipChildren();
+        }
+        if (problem == null) {
+            if (!hasId) {
+                problem = "id is missing";
+            } else if (!hasTitle) {
+                problem = "title is missing";
+            } else if (!hasPageCount) {
+                problem = "pageCount is missing";
+            } else if (!hasPublishDate) {
+                problem = "publishDate is missing";
+            }
+        }
+        return problem == null ? null : "book " + id + ": " + problem;
+    }
+
+    private static boolean isDateTime(String text) {
+        try {
+            if (text.endsWith("Z") || text.matches(".*[+-]\\d\\d:\\d\\d$")) {
+                OffsetDateTime.parse(text);
+            } else {
+                LocalDateTime.parse(text);
+            }
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Outcome of a validation.
+     *
+     * @param count          number of array elements seen
+     * @param violationCount number of invalid elements
+     * @param violations     messages for the first invalid elements, up to the configured maximum
+     */
+    public record Result(long count, long violationCount, List<String> violations) {
+        public boolean isValid() {
+            return violationCount == 0;
+        }
+
+        @Override
+        public String toString() {
+            return count + " books, " + violationCount + " invalid" + (violations.isEmpty() ? "" : ": " + violations);
+        }
+    }
+}
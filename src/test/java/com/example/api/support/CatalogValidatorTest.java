@@ -0,0 +1,82 @@
+package com.example.api.support;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests for {@link CatalogValidator}.
+ */
+public class CatalogValidatorTest {
+    private static CatalogValidator.Result validate(String json, int maxViolations) throws IOException {
+        return new CatalogValidator(maxViolations).validate(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Well-formed books pass, including unknown fields and all accepted date forms.
+     */
+    @Test
+    public void acceptsValidCatalog() throws IOException {
+        CatalogValidator.Result result = validate("""
+            [
+              {"id":1,"title":"Book 1","pageCount":100,"publishDate":"2025-08-04T08:00:00+00:00","excerpt":{"nested":[1,2]}},
+              {"id":2,"title":null,"pageCount":0,"publishDate":"2020-01-01T00:00:00"},
+              {"id":3,"title":"Book 3","pageCount":5,"publishDate":"2025-08-06T07:55:04.532Z"}
+            ]
+            """, 10);
+        Assertions.assertEquals(3, result.count());
+        Assertions.assertTrue(result.isValid(), result::toString);
+    }
+
+    /**
+     * Every invalid element is counted, but only the first N messages are kept.
+     */
+    @Test
+    public void reportsFirstViolations() throws IOException {
+        CatalogValidator.Result result = validate("""
+            [
+              {"id":1,"title":"Book 1","pageCount":-50,"publishDate":"2020-01-01T00:00:00"},
+              {"id":2,"title":"Book 2","pageCount":1,"publishDate":"invalid-date-format"},
+              {"id":3,"title":"Book 3","pageCount":1},
+              42
+            ]
+            """, 2);
+        Assertions.assertEquals(4, result.count());
+        Assertions.assertEquals(4, result.violationCount());
+        Assertions.assertEquals(2, result.violations().size());
+        Assertions.assertTrue(result.violations().get(0).contains("pageCount -50 is negative"));
+        Assertions.assertTrue(result.violations().get(1).contains("invalid-date-format"));
+    }
+
+    /**
+     * An object or array where a scalar belongs is reported, and skipped whole, so the fields and books after it
+     * are still read correctly.
+     */
+    @Test
+    public void skipsContainersInScalarFields() throws IOException {
+        CatalogValidator.Result result = validate("""
+            [
+              {"id":1,"title":["x",{"id":"nested"}],"pageCount":1,"publishDate":"2020-01-01T00:00:00"},
+              {"id":2,"title":"Book 2","pageCount":{"pages":[1,2]},"publishDate":"2020-01-01T00:00:00"},
+              {"id":{"n":3},"title":"Book 3","pageCount":1,"publishDate":["2020-01-01T00:00:00"]},
+              {"id":4,"title":"Book 4","pageCount":4,"publishDate":"2020-01-01T00:00:00"}
+            ]
+            """, 10);
+        Assertions.assertEquals(4, result.count());
+        Assertions.assertEquals(3, result.violationCount());
+        Assertions.assertEquals("[0] book 1: title is not a string", result.violations().get(0));
+        Assertions.assertEquals("[1] book 2: pageCount is not an integer", result.violations().get(1));
+        Assertions.assertEquals("[2] book ?: id is not an integer", result.violations().get(2));
+    }
+
+    /**
+     * A body that is not an array is a single violation.
+     */
+    @Test
+    public void rejectsNonArrayBody() throws IOException {
+        Assertions.assertFalse(validate("{\"id\":1}", 10).isValid());
+    }
+}
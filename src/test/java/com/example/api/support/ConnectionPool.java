@@ -0,0 +1,132 @@
+package com.example.api.support;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared, bounded keep-alive connection pool for RestAssured.
+ * RestAssured 5 drives Apache HttpClient 4 through the legacy {@code AbstractHttpClient} API,
+ * so the pool is a {@link PoolingClientConnectionManager} handed to every client it creates.
+ */
+@SuppressWarnings("deprecation")
+public final class ConnectionPool implements AutoCloseable {
+    private final PoolingClientConnectionManager manager;
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * @param maxTotal    maximum connections across all routes
+     * @param maxPerRoute maximum connections to a single host
+     * @param idleTimeout idle connections older than this are evicted
+     * @param timeToLive  connections are never reused after this age
+     */
+    public ConnectionPool(int maxTotal, int maxPerRoute, Duration idleTimeout, Duration timeToLive) {
+        SchemeRegistry schemes = SchemeRegistryFactory.createSystemDefault();
+        this.manager = new PoolingClientConnectionManager(schemes, timeToLive.toMillis(), TimeUnit.MILLISECONDS);
+        this.manager.setMaxTotal(maxTotal);
+        this.manager.setDefaultMaxPerRoute(maxPerRoute);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, Math.min(idleTimeout.toMillis(), 5_000));
+        this.evictor.scheduleWithFixedDelay(() -> {
+            manager.closeExpiredConnections();
+            manager.closeIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Build a pool from {@code HTTP_POOL_MAX_TOTAL}, {@code HTTP_POOL_MAX_PER_ROUTE},
+     * {@code HTTP_POOL_IDLE_TIMEOUT} and {@code HTTP_POOL_TTL}.
+     */
+    public static ConnectionPool fromSettings() {
+        return new ConnectionPool(
+            Settings.getInt("HTTP_POOL_MAX_TOTAL", 200),
+            Settings.getInt("HTTP_POOL_MAX_PER_ROUTE", 50),
+            Settings.getDuration("HTTP_POOL_IDLE_TIMEOUT", Duration.ofSeconds(30)),
+            Settings.getDuration("HTTP_POOL_TTL", Duration.ofMinutes(5)));
+    }
+
+    /**
+     * RestAssured client config that reuses one client instance backed by this pool.
+     */
+    public HttpClientConfig httpClientConfig() {
+        return HttpClientConfig.httpClientConfig()
+            .reuseHttpClientInstance()
+            .httpClientFactory(this::newHttpClient);
+    }
+
+    /**
+     * Filter that reads each response body to the end.
+     * RestAssured reads bodies lazily, and a connection only returns to the pool once its body is consumed,
+     * so without this a test that only checks the status code would keep its connection leased.
+     */
+    public Filter releasingFilter() {
+        return (requestSpec, responseSpec, ctx) -> {
+            Response response = ctx.next(requestSpec, responseSpec);
+            response.asByteArray();
+            return response;
+        };
+    }
+
+    private HttpClient newHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(manager);
+        // RestAssured never reads an empty body (e.g. DELETE's 200 with Content-Length: 0), so its streamed
+        // entity would keep the connection leased. A non-streaming entity lets HttpClient release it right away.
+        client.addResponseInterceptor((response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity != null && entity.isStreaming() && entity.getContentLength() == 0) {
+                EntityUtils.consume(entity);
+                ByteArrayEntity empty = new ByteArrayEntity(new byte[0]);
+                empty.setContentType(entity.getContentType());
+                response.setEntity(empty);
+            }
+        });
+        return client;
+    }
+
+    /**
+     * Current pool occupancy across all routes.
+     */
+    public Stats stats() {
+        PoolStats total = manager.getTotalStats();
+        return new Stats(total.getLeased(), total.getAvailable(), total.getPending(), total.getMax());
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        manager.shutdown();
+    }
+
+    /**
+     * Snapshot of pool occupancy.
+     *
+     * @param leased  connections currently checked out by a request
+     * @param idle    open keep-alive connections waiting to be reused
+     * @param pending requests waiting for a connection
+     * @param max     configured maximum number of connections
+     */
+    public record Stats(int leased, int idle, int pending, int max) {
+        @Override
+        public String toString() {
+            return "leased=" + leased + " idle=" + idle + " pending=" + pending + " max=" + max;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.api.support;
+
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Turns a test into a latency gate: the test runs {@link #repetitions()} times and fails when the
+ * server round-trip time exceeds the budget. The annotation replaces {@code @Test}; each run is a separate
+ * invocation with its own {@code @BeforeEach} and {@code @AfterEach}, and the runs never overlap.
+ * <p>
+ * Round-trip time is what {@link LatencyRecorder} measures for the test's requests; time spent in the
+ * test's own code and assertions is measured separately and reported but not budgeted.
+ * Budgets are multiplied by {@code LATENCY_BUDGET_SCALE} and can be switched off with
+ * {@code LATENCY_BUDGET_ENABLED=false}, in which case the test runs once as usual. At least one of
+ * {@link #millis()} and {@link #maxMillis()} must be set.
+ * <pre>
+ * &#64;LatencyBudget(repetitions = 20, percentile = 95, millis = 150)
+ * </pre>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@TestTemplate
+@Execution(ExecutionMode.SAME_THREAD)
+@ExtendWith(LatencyBudgetExtension.class)
+public @interface LatencyBudget {
+    /**
+     * How many times to run the test.
+     */
+    int repetitions() default 1;
+
+    /**
+     * Percentile of the round-trip time that {@link #millis()} applies to.
+     */
+    double percentile() default 95;
+
+    /**
+     * Budget for the {@link #percentile()} round-trip time; negative for none.
+     */
+    long millis() default -1;
+
+    /**
+     * Budget for the slowest single round-trip; negative for none.
+     */
+    long maxMillis() default -1;
+}
@@ -0,0 +1,137 @@
+package com.example.api.support;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContextProvider;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Enforces {@link LatencyBudget}: the test template gets one invocation per repetition, so JUnit runs the
+ * {@code @BeforeEach} and {@code @AfterEach} callbacks around each, and every run is timed. The runs share
+ * their histograms through the template's store, and the last one checks the budget.
+ */
+public final class LatencyBudgetExtension implements TestTemplateInvocationContextProvider {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(LatencyBudgetExtension.class);
+
+    @Override
+    public boolean supportsTestTemplate(ExtensionContext context) {
+        return context.getTestMethod().map(method -> method.isAnnotationPresent(LatencyBudget.class)).orElse(false);
+    }
+
+    @Override
+    public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+        LatencyBudget budget = budget(context.getRequiredTestMethod());
+        if (!Settings.getBoolean("LATENCY_BUDGET_ENABLED", true)) {
+            return Stream.of(new Run(1, 1, null));
+        }
+        Timings timings = context.getStore(NAMESPACE).getOrComputeIfAbsent(Timings.class);
+        return IntStream.rangeClosed(1, budget.repetitions())
+            .mapToObj(repetition -> new Run(repetition, budget.repetitions(), new Measure(budget, timings,
+                repetition == budget.repetitions())));
+    }
+
+    /**
+     * The method's budget, rejected when it repeats less than once or budgets nothing.
+     */
+    static LatencyBudget budget(Method method) {
+        LatencyBudget budget = AnnotationSupport.findAnnotation(method, LatencyBudget.class).orElseThrow();
+        if (budget.repetitions() < 1) {
+            throw new ExtensionConfigurationException("@LatencyBudget on " + method.getName()
+                + " needs at least one repetition: " + budget.repetitions());
+        }
+        if (budget.millis() < 0 && budget.maxMillis() < 0) {
+            throw new ExtensionConfigurationException("@LatencyBudget on " + method.getName()
+                + " sets neither millis nor maxMillis");
+        }
+        return budget;
+    }
+
+    /**
+     * One repetition, named after its place in the series; without a measure the test just runs.
+     */
+    private record Run(int repetition, int repetitions, Measure measure) implements TestTemplateInvocationContext {
+        @Override
+        public String getDisplayName(int invocationIndex) {
+            return repetitions == 1 ? "single run" : "run " + repetition + " of " + repetitions;
+        }
+
+        @Override
+        public List<Extension> getAdditionalExtensions() {
+            return measure == null ? List.of() : List.of(measure);
+        }
+    }
+
+    /**
+     * Round-trip and client-side times of every completed run of one template.
+     */
+    private static final class Timings {
+        final Histogram roundTrip = new Histogram(TimeUnit.HOURS.toMicros(1), 3);
+        final Histogram clientSide = new Histogram(TimeUnit.HOURS.toMicros(1), 3);
+    }
+
+    /**
+     * Times the test method alone, leaving out the lifecycle callbacks around it.
+     */
+    private record Measure(LatencyBudget budget, Timings timings, boolean last) implements InvocationInterceptor {
+        @Override
+        public void interceptTestTemplateMethod(Invocation<Void> invocation,
+                                                ReflectiveInvocationContext<Method> invocationContext,
+                                                ExtensionContext extensionContext) throws Throwable {
+            long roundTripBefore = LatencyRecorder.roundTripNanos();
+            long start = System.nanoTime();
+            invocation.proceed();
+            long total = System.nanoTime() - start;
+            long server = LatencyRecorder.roundTripNanos() - roundTripBefore;
+            timings.roundTrip.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(server)));
+            timings.clientSide.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(total - server)));
+            if (last) {
+                check(budget, timings.roundTrip, timings.clientSide);
+            }
+        }
+    }
+
+    private static void check(LatencyBudget budget, Histogram roundTrip, Histogram clientSide) {
+        double scale = Settings.getDouble("LATENCY_BUDGET_SCALE", 1.0);
+        StringBuilder failures = new StringBuilder();
+        if (budget.millis() >= 0) {
+            double actual = roundTrip.getValueAtPercentile(budget.percentile()) / 1000.0;
+            double limit = budget.millis() * scale;
+            if (actual > limit) {
+                failures.append(String.format("p%s round-trip %.2f ms exceeds budget %.2f ms. ", format(budget.percentile()), actual, limit));
+            }
+        }
+        if (budget.maxMillis() >= 0) {
+            double actual = roundTrip.getMaxValue() / 1000.0;
+            double limit = budget.maxMillis() * scale;
+            if (actual > limit) {
+                failures.append(String.format("Max round-trip %.2f ms exceeds budget %.2f ms. ", actual, limit));
+            }
+        }
+        if (failures.length() > 0) {
+            throw new AssertionFailedError(failures + "Over " + roundTrip.getTotalCount() + " runs:\n"
+                + summary("round-trip ", roundTrip) + summary("client-side", clientSide));
+        }
+    }
+
+    private static String summary(String label, Histogram h) {
+        return String.format("  %s p50=%.2f p90=%.2f p95=%.2f p99=%.2f max=%.2f ms%n", label,
+            h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+            h.getValueAtPercentile(95) / 1000.0, h.getValueAtPercentile(99) / 1000.0, h.getMaxValue() / 1000.0);
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
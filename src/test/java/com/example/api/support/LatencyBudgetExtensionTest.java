@@ -0,0 +1,85 @@
+package com.example.api.support;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+
+/**
+ * Repetitions of {@link LatencyBudget} run the test lifecycle every time, and annotations without a budget are
+ * rejected.
+ */
+public class LatencyBudgetExtensionTest {
+
+    /**
+     * A repeated test whose class counts the lifecycle callbacks around it.
+     */
+    @Nested
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    class Repeated {
+        private int setUps;
+        private int runs;
+        private int tearDowns;
+
+        @BeforeEach
+        public void setUp() {
+            setUps++;
+        }
+
+        @AfterEach
+        public void tearDown() {
+            tearDowns++;
+        }
+
+        @AfterAll
+        public void everyRunWasTornDown() {
+            Assertions.assertEquals(3, runs);
+            Assertions.assertEquals(3, tearDowns);
+        }
+
+        /**
+         * Each of the three runs comes after its own {@code @BeforeEach} and after the previous run's
+         * {@code @AfterEach}.
+         */
+        @LatencyBudget(repetitions = 3, maxMillis = 60_000)
+        public void repeatsWithLifecycle() {
+            runs++;
+            Assertions.assertEquals(runs, setUps);
+            Assertions.assertEquals(runs - 1, tearDowns);
+        }
+    }
+
+    /**
+     * A budget that sets neither limit, or repeats less than once, is a configuration error.
+     */
+    @Test
+    public void rejectsAnnotationsWithoutABudget() throws NoSuchMethodException {
+        Assertions.assertThrows(ExtensionConfigurationException.class,
+            () -> LatencyBudgetExtension.budget(Unchecked.class.getDeclaredMethod("noLimit")));
+        Assertions.assertThrows(ExtensionConfigurationException.class,
+            () -> LatencyBudgetExtension.budget(Unchecked.class.getDeclaredMethod("noRuns")));
+        Assertions.assertEquals(20, LatencyBudgetExtension.budget(Unchecked.class.getDeclaredMethod("budgeted"))
+            .repetitions());
+    }
+
+    /**
+     * Annotated methods that are not discovered as tests, since the class is private.
+     */
+    private static final class Unchecked {
+        @LatencyBudget(repetitions = 5)
+        void noLimit() {
+        }
+
+        @LatencyBudget(repetitions = 0, millis = 10)
+        void noRuns() {
+        }
+
+        @LatencyBudget(repetitions = 20, percentile = 99, millis = 10)
+        void budgeted() {
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.api.support;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RestAssured filter that records every exchange into a log-linear (HdrHistogram) histogram
+ * keyed by method and path template, e.g. {@code GET /api/v1/Books/{id}}.
+ * <p>
+ * Two distributions are kept per endpoint. Service time runs from sending the request to reading the
+ * last byte of the response. Response time is corrected for coordinated omission: when a fixed-rate
+ * schedule has announced the request's intended start via {@link #scheduledAt(long)}, it is measured from
+ * that instant, so time spent queued behind a slow response counts; otherwise, if
+ * {@code LATENCY_EXPECTED_INTERVAL} is set, the histogram back-fills the samples a stalled closed loop missed.
+ */
+public final class LatencyRecorder implements Filter {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final LatencyRecorder GLOBAL = new LatencyRecorder(
+        TimeUnit.MILLISECONDS.toMicros(Settings.getDuration("LATENCY_EXPECTED_INTERVAL", java.time.Duration.ZERO).toMillis()));
+    private static final ThreadLocal<long[]> INTENDED_START = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<long[]> ROUND_TRIP_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final ConcurrentMap<String, Histogram> serviceTimes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> responseTimes = new ConcurrentHashMap<>();
+    private final long expectedIntervalMicros;
+    private volatile boolean corrected;
+
+    /**
+     * @param expectedIntervalMicros interval between requests of a fixed-rate closed loop, or 0 when unknown
+     */
+    public LatencyRecorder(long expectedIntervalMicros) {
+        this.expectedIntervalMicros = expectedIntervalMicros;
+    }
+
+    /**
+     * The recorder BaseTest registers for every request.
+     */
+    public static LatencyRecorder global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Announce when the schedule intended the current thread's next request to start ({@link System#nanoTime()}).
+     * Pass 0 to clear.
+     */
+    public static void scheduledAt(long intendedStartNanos) {
+        INTENDED_START.get()[0] = intendedStartNanos;
+    }
+
+    /**
+     * Total time the current thread has spent in HTTP round-trips through this filter, in nanoseconds.
+     * Sample it before and after a block of code to separate server time from client-side work.
+     */
+    public static long roundTripNanos() {
+        return ROUND_TRIP_NANOS.get()[0];
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        // Include the body transfer; RestAssured otherwise reads it lazily after the filter chain returns
+        response.asByteArray();
+        long end = System.nanoTime();
+        ROUND_TRIP_NANOS.get()[0] += end - start;
+        record(requestSpec.getMethod() + " " + requestSpec.getUserDefinedPath(), start, end);
+        return response;
+    }
+
+    void record(String endpoint, long startNanos, long endNanos) {
+        long serviceMicros = toMicros(endNanos - startNanos);
+        histogram(serviceTimes, endpoint).recordValue(serviceMicros);
+        Histogram responseTime = histogram(responseTimes, endpoint);
+        long intended = INTENDED_START.get()[0];
+        if (intended != 0) {
+            corrected = true;
+            responseTime.recordValue(toMicros(endNanos - intended));
+        } else if (expectedIntervalMicros > 0) {
+            corrected = true;
+            responseTime.recordValueWithExpectedInterval(serviceMicros, expectedIntervalMicros);
+        } else {
+            responseTime.recordValue(serviceMicros);
+        }
+    }
+
+    /**
+     * Copies of the coordinated-omission-corrected response time histograms, in microseconds, by endpoint.
+     */
+    public Map<String, Histogram> responseTimes() {
+        return copy(responseTimes);
+    }
+
+    /**
+     * Copies of the uncorrected service time histograms, in microseconds, by endpoint.
+     */
+    public Map<String, Histogram> serviceTimes() {
+        return copy(serviceTimes);
+    }
+
+    /**
+     * Add histograms recorded elsewhere, e.g. by another process, to this recorder's, endpoint by endpoint.
+     *
+     * @param corrected whether {@code responseTimes} were corrected for coordinated omission
+     */
+    public void add(Map<String, Histogram> serviceTimes, Map<String, Histogram> responseTimes, boolean corrected) {
+        serviceTimes.forEach((endpoint, h) -> histogram(this.serviceTimes, endpoint).add(h));
+        responseTimes.forEach((endpoint, h) -> histogram(this.responseTimes, endpoint).add(h));
+        this.corrected |= corrected;
+    }
+
+    /**
+     * Whether any response time so far was corrected for coordinated omission.
+     */
+    public boolean corrected() {
+        return corrected;
+    }
+
+    public void reset() {
+        serviceTimes.clear();
+        responseTimes.clear();
+        corrected = false;
+    }
+
+    /**
+     * Percentile table per endpoint; the service time table is added when a schedule corrected the response times.
+     */
+    public String report() {
+        if (responseTimes.isEmpty()) {
+            return "No requests recorded\n";
+        }
+        StringBuilder out = new StringBuilder();
+        out.append(corrected ? "Response time, corrected for coordinated omission\n" : "Response time\n");
+        table(responseTimes(), out);
+        if (corrected) {
+            out.append("Service time\n");
+            table(serviceTimes(), out);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Append a p50/p90/p99/p99.9/max table, in milliseconds, for histograms recorded in microseconds.
+     */
+    public static void table(Map<String, Histogram> histograms, StringBuilder out) {
+        out.append(String.format("  %-36s %9s %9s %9s %9s %9s %9s%n", "endpoint", "count", "p50(ms)", "p90", "p99", "p99.9", "max"));
+        histograms.forEach((endpoint, h) -> out.append(String.format("  %-36s %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            endpoint, h.getTotalCount(),
+            h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+            h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+            h.getMaxValue() / 1000.0)));
+    }
+
+    private static Histogram histogram(ConcurrentMap<String, Histogram> histograms, String endpoint) {
+        return histograms.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+    }
+
+    private static Map<String, Histogram> copy(ConcurrentMap<String, Histogram> histograms) {
+        Map<String, Histogram> copy = new TreeMap<>();
+        histograms.forEach((endpoint, h) -> copy.put(endpoint, h.copy()));
+        return copy;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
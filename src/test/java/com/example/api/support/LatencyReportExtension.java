@@ -0,0 +1,34 @@
+package com.example.api.support;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Prints the {@link LatencyRecorder#global()} percentile report once, after the whole test run.
+ * The report is also written to {@code target/latency-report.txt}.
+ */
+public final class LatencyReportExtension implements BeforeAllCallback {
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(LatencyReportExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        // Resources in the root store are closed when the engine finishes, i.e. at the end of the run
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent("report", key -> new Report(), Report.class);
+    }
+
+    private static final class Report implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() throws IOException {
+            String report = LatencyRecorder.global().report();
+            System.out.print(report);
+            Path target = Path.of("target");
+            if (Files.isDirectory(target)) {
+                Files.writeString(target.resolve("latency-report.txt"), report);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.api.support;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Walks a collection endpoint page by page with the {@code limit} and {@code cursor} query parameters, following
+ * the {@value #NEXT_CURSOR} response header. Nothing is requested until the first {@link #hasNext()}; after that,
+ * as soon as a page is handed out the request for the following one starts in the background, so fetching
+ * overlaps with whatever the caller does with the current page.
+ * <p>
+ * A server without pagination, such as the hosted FakeRestAPI, ignores both parameters and sends no cursor,
+ * so the whole collection arrives as a single page.
+ */
+public final class PageIterator implements Iterator<Response> {
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    private static final ExecutorService PREFETCH = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "page-prefetch-" + THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String path;
+    private final int limit;
+    private boolean started;
+    private CompletableFuture<Response> pending;
+
+    /**
+     * @param path  collection path, e.g. {@code /api/v1/Books}
+     * @param limit items per page
+     */
+    public PageIterator(String path, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        this.path = path;
+        this.limit = limit;
+    }
+
+    /**
+     * The pages of a collection, for use in a for-each loop.
+     */
+    public static Iterable<Response> pages(String path, int limit) {
+        return () -> new PageIterator(path, limit);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!started) {
+            started = true;
+            pending = fetch(null);
+        }
+        return pending != null;
+    }
+
+    /**
+     * The next page, already checked for status 200 and fully read.
+     */
+    @Override
+    public Response next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Response page;
+        try {
+            page = pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        String cursor = page.header(NEXT_CURSOR);
+        pending = cursor == null ? null : fetch(cursor);
+        return page;
+    }
+
+    private CompletableFuture<Response> fetch(String cursor) {
+        return CompletableFuture.supplyAsync(() -> {
+            RequestSpecification request = given().queryParam("limit", limit);
+            if (cursor != null) {
+                request.queryParam("cursor", cursor);
+            }
+            return request
+                .when()
+                .get(path)
+                .then()
+                .statusCode(200)
+                .extract().response();
+        }, PREFETCH);
+    }
+}
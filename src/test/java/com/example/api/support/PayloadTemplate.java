@@ -0,0 +1,338 @@
+package com.example.api.support;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A JSON body parsed once into static UTF-8 segments and typed slots.
+ * <p>
+ * Slots are written as {@code ${name:type}} in place of a whole JSON value, with type {@code int},
+ * {@code string} or {@code date}. A {@link Writer} holds the slot values and renders the body into a
+ * reusable byte buffer, so producing a request body needs no string formatting or intermediate objects:
+ * <pre>
+ * PayloadTemplate template = PayloadTemplate.compile("{\"id\": ${id:int}, \"title\": ${title:string}}");
+ * PayloadTemplate.Writer writer = template.newWriter().setString(template.slot("title"), "José María");
+ * ByteBuffer body = writer.setInt(template.slot("id"), 7).render();
+ * </pre>
+ * When only one int slot varies, {@link Writer#prerender} renders everything else once, and each body is then
+ * one exactly sized array holding the fixed bytes and the value's digits.
+ */
+public final class PayloadTemplate {
+    private static final Pattern SLOT = Pattern.compile("\\$\\{(\\w+):(int|string|date)}");
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private enum Type { INT, STRING, DATE }
+
+    private final byte[][] segments;
+    private final String[] names;
+    private final Type[] types;
+
+    private PayloadTemplate(byte[][] segments, String[] names, Type[] types) {
+        this.segments = segments;
+        this.names = names;
+        this.types = types;
+    }
+
+    public static PayloadTemplate compile(String text) {
+        List<byte[]> segments = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Type> types = new ArrayList<>();
+        Matcher matcher = SLOT.matcher(text);
+        int last = 0;
+        while (matcher.find()) {
+            if (names.contains(matcher.group(1))) {
+                throw new IllegalArgumentException("Duplicate slot '" + matcher.group(1) + "' in template");
+            }
+            segments.add(text.substring(last, matcher.start()).getBytes(StandardCharsets.UTF_8));
+            names.add(matcher.group(1));
+            types.add(Type.valueOf(matcher.group(2).toUpperCase()));
+            last = matcher.end();
+        }
+        segments.add(text.substring(last).getBytes(StandardCharsets.UTF_8));
+        return new PayloadTemplate(segments.toArray(new byte[0][]), names.toArray(new String[0]), types.toArray(new Type[0]));
+    }
+
+    /**
+     * Index of a named slot, to resolve once and pass to the {@link Writer} setters.
+     */
+    public int slot(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No slot '" + name + "' in template");
+    }
+
+    public Writer newWriter() {
+        return new Writer();
+    }
+
+    /**
+     * Slot values plus a reusable output buffer. Values persist between renders. Not thread-safe.
+     */
+    public final class Writer {
+        private final long[] numbers = new long[names.length];
+        private final String[] strings = new String[names.length];
+        private final boolean[] assigned = new boolean[names.length];
+        private byte[] buf = new byte[256];
+        private int len;
+
+        private Writer() {
+        }
+
+        public Writer setInt(int slot, int value) {
+            check(slot, Type.INT);
+            numbers[slot] = value;
+            assigned[slot] = true;
+            return this;
+        }
+
+        /**
+         * A string value; {@code null} renders as JSON null.
+         */
+        public Writer setString(int slot, String value) {
+            check(slot, Type.STRING);
+            strings[slot] = value;
+            assigned[slot] = true;
+            return this;
+        }
+
+        /**
+         * A date rendered as {@code "yyyy-MM-ddTHH:mm:ss"}, the form the suite's payloads use.
+         */
+        public Writer setDate(int slot, long epochSecond) {
+            check(slot, Type.DATE);
+            numbers[slot] = epochSecond;
+            assigned[slot] = true;
+            return this;
+        }
+
+        /**
+         * Render the body. The returned buffer wraps this writer's storage and is overwritten by the next render.
+         */
+        public ByteBuffer render() {
+            len = 0;
+            for (int i = 0; i < names.length; i++) {
+                writeSlot(i);
+            }
+            write(segments[names.length]);
+            return ByteBuffer.wrap(buf, 0, len);
+        }
+
+        /**
+         * Render every slot but the int {@code slot} now, for bodies that differ only in that value. The result
+         * is immutable and can be shared between threads; later changes to this writer do not affect it.
+         */
+        public Prerendered prerender(int slot) {
+            check(slot, Type.INT);
+            len = 0;
+            for (int i = 0; i < slot; i++) {
+                writeSlot(i);
+            }
+            write(segments[slot]);
+            byte[] prefix = Arrays.copyOf(buf, len);
+            len = 0;
+            for (int i = slot + 1; i < names.length; i++) {
+                writeSlot(i);
+            }
+            write(segments[names.length]);
+            return new Prerendered(prefix, Arrays.copyOf(buf, len));
+        }
+
+        /**
+         * Render and copy the body into an exactly sized array, for APIs that need one.
+         */
+        public byte[] toByteArray() {
+            render();
+            return Arrays.copyOf(buf, len);
+        }
+
+        private void writeSlot(int i) {
+            write(segments[i]);
+            if (!assigned[i]) {
+                throw new IllegalStateException("Slot '" + names[i] + "' has no value");
+            }
+            switch (types[i]) {
+                case INT -> writeLong(numbers[i]);
+                case STRING -> writeString(strings[i]);
+                case DATE -> writeDate(numbers[i]);
+            }
+        }
+
+        private void check(int slot, Type type) {
+            if (types[slot] != type) {
+                throw new IllegalArgumentException("Slot '" + names[slot] + "' is " + types[slot].name().toLowerCase() + ", not " + type.name().toLowerCase());
+            }
+        }
+
+        private void ensure(int extra) {
+            if (len + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + extra));
+            }
+        }
+
+        private void write(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, len, bytes.length);
+            len += bytes.length;
+        }
+
+        private void put(int b) {
+            buf[len++] = (byte) b;
+        }
+
+        private void writeLong(long value) {
+            ensure(20);
+            if (value < 0) {
+                put('-');
+                value = -value;
+            }
+            int start = len;
+            do {
+                put((int) ('0' + value % 10));
+                value /= 10;
+            } while (value > 0);
+            for (int i = start, j = len - 1; i < j; i++, j--) {
+                byte t = buf[i];
+                buf[i] = buf[j];
+                buf[j] = t;
+            }
+        }
+
+        private void writeDigits(long value, int width) {
+            for (int i = width - 1; i >= 0; i--) {
+                buf[len + i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            len += width;
+        }
+
+        private void writeDate(long epochSecond) {
+            long days = Math.floorDiv(epochSecond, 86_400);
+            long secondOfDay = Math.floorMod(epochSecond, 86_400);
+            // civil-from-days (Howard Hinnant)
+            long z = days + 719468;
+            long era = Math.floorDiv(z, 146097);
+            long doe = z - era * 146097;
+            long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+            long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+            long mp = (5 * doy + 2) / 153;
+            long day = doy - (153 * mp + 2) / 5 + 1;
+            long month = mp < 10 ? mp + 3 : mp - 9;
+            long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+            ensure(21);
+            put('"');
+            writeDigits(year, 4);
+            put('-');
+            writeDigits(month, 2);
+            put('-');
+            writeDigits(day, 2);
+            put('T');
+            writeDigits(secondOfDay / 3600, 2);
+            put(':');
+            writeDigits(secondOfDay / 60 % 60, 2);
+            put(':');
+            writeDigits(secondOfDay % 60, 2);
+            put('"');
+        }
+
+        /**
+         * Quote and escape a string, encoding it as UTF-8 directly into the buffer.
+         */
+        private void writeString(String value) {
+            if (value == null) {
+                write(NULL);
+                return;
+            }
+            ensure(value.length() * 6 + 2);
+            put('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    put('\\');
+                    put(c);
+                } else if (c < 0x20) {
+                    put('\\');
+                    switch (c) {
+                        case '\n' -> put('n');
+                        case '\r' -> put('r');
+                        case '\t' -> put('t');
+                        case '\b' -> put('b');
+                        case '\f' -> put('f');
+                        default -> {
+                            put('u');
+                            put('0');
+                            put('0');
+                            put(HEX[c >> 4]);
+                            put(HEX[c & 0xF]);
+                        }
+                    }
+                } else if (c < 0x80) {
+                    put(c);
+                } else if (c < 0x800) {
+                    put(0xC0 | c >> 6);
+                    put(0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    put(0xF0 | cp >> 18);
+                    put(0x80 | cp >> 12 & 0x3F);
+                    put(0x80 | cp >> 6 & 0x3F);
+                    put(0x80 | cp & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    // Lone surrogate: not encodable, substitute U+FFFD like String.getBytes does
+                    put(0xEF);
+                    put(0xBF);
+                    put(0xBD);
+                } else {
+                    put(0xE0 | c >> 12);
+                    put(0x80 | c >> 6 & 0x3F);
+                    put(0x80 | c & 0x3F);
+                }
+            }
+            put('"');
+        }
+    }
+
+    /**
+     * A body rendered but for one int value, from {@link Writer#prerender}.
+     */
+    public static final class Prerendered {
+        private final byte[] prefix;
+        private final byte[] suffix;
+
+        private Prerendered(byte[] prefix, byte[] suffix) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        /**
+         * The body with {@code value} in the slot, in a new array of exactly its size.
+         */
+        public byte[] render(int value) {
+            long magnitude = Math.abs((long) value);
+            int digits = 1;
+            for (long rest = magnitude / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            int width = value < 0 ? digits + 1 : digits;
+            byte[] body = new byte[prefix.length + width + suffix.length];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            if (value < 0) {
+                body[prefix.length] = '-';
+            }
+            for (int at = prefix.length + width - 1; at >= prefix.length + width - digits; at--) {
+                body[at] = (byte) ('0' + magnitude % 10);
+                magnitude /= 10;
+            }
+            System.arraycopy(suffix, 0, body, prefix.length + width, suffix.length);
+            return body;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.api.support;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests for {@link PayloadTemplate} rendering and escaping.
+ */
+public class PayloadTemplateTest {
+    private static final PayloadTemplate TEMPLATE = PayloadTemplate.compile(
+        "{\"id\": ${id:int}, \"name\": ${name:string}, \"date\": ${date:date}}");
+
+    private static String render(PayloadTemplate.Writer writer) {
+        ByteBuffer body = writer.render();
+        return new String(body.array(), body.position(), body.remaining(), StandardCharsets.UTF_8);
+    }
+
+    private static PayloadTemplate.Writer writer(int id, String name) {
+        return TEMPLATE.newWriter()
+            .setInt(TEMPLATE.slot("id"), id)
+            .setString(TEMPLATE.slot("name"), name)
+            .setDate(TEMPLATE.slot("date"), 1_577_836_800L);
+    }
+
+    /**
+     * Slots render in place of whole JSON values and static text is copied verbatim.
+     */
+    @Test
+    public void rendersSlotsBetweenStaticSegments() {
+        Assertions.assertEquals("{\"id\": 42, \"name\": \"Book\", \"date\": \"2020-01-01T00:00:00\"}",
+            render(writer(42, "Book")));
+    }
+
+    /**
+     * The update bodies rendered from templates are byte for byte the ones the suite sent before templates.
+     */
+    @Test
+    public void updatePayloadsKeepTheirBytes() {
+        Assertions.assertEquals("""
+            {
+                "id": %d,
+                "title": "Updated Test Book",
+                "description": "Updated description",
+                "pageCount": 456,
+                "excerpt": "Updated excerpt",
+                "publishDate": "2021-01-01T00:00:00"
+            }
+            """.formatted(17), new String(Payloads.updatedBook(17), StandardCharsets.UTF_8));
+        Assertions.assertEquals("""
+            {
+                "id": %d,
+                "firstName": "Updated",
+                "lastName": "Author"
+            }
+            """.formatted(23), new String(Payloads.updatedAuthor(23), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A prerendered body matches a full render for any value of its slot, at either end of the int range.
+     */
+    @Test
+    public void prerenderedBodiesMatchFullRenders() {
+        PayloadTemplate.Prerendered prerendered = writer(0, "Book").prerender(TEMPLATE.slot("id"));
+        for (int id : new int[] {0, 7, -7, 10, 99, 100, 123_456, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            Assertions.assertEquals(render(writer(id, "Book")), new String(prerendered.render(id), StandardCharsets.UTF_8));
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> writer(0, "Book").prerender(TEMPLATE.slot("name")));
+    }
+
+    /**
+     * Non-ASCII text is written as UTF-8 and JSON metacharacters are escaped.
+     */
+    @Test
+    public void escapesStrings() {
+        Assertions.assertEquals("{\"id\": -7, \"name\": \"José María \\\"García-Pérez\\\" \\\\ \\n\\u0001 😀\", \"date\": \"2020-01-01T00:00:00\"}",
+            render(writer(-7, "José María \"García-Pérez\" \\ \n\u0001 😀")));
+    }
+
+    /**
+     * A null string renders as a JSON null rather than a quoted value.
+     */
+    @Test
+    public void rendersNullString() {
+        Assertions.assertTrue(render(writer(1, null)).contains("\"name\": null"));
+    }
+
+    /**
+     * A writer keeps its values, so re-rendering with one changed slot reuses the rest.
+     */
+    @Test
+    public void reusesWriterAcrossRenders() {
+        PayloadTemplate.Writer writer = writer(1, "First");
+        render(writer);
+        writer.setInt(TEMPLATE.slot("id"), Integer.MIN_VALUE);
+        Assertions.assertEquals("{\"id\": -2147483648, \"name\": \"First\", \"date\": \"2020-01-01T00:00:00\"}",
+            new String(writer.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rendering refuses unset slots and setters refuse the wrong type.
+     */
+    @Test
+    public void rejectsMissingOrMistypedValues() {
+        Assertions.assertThrows(IllegalStateException.class, () -> TEMPLATE.newWriter().render());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TEMPLATE.newWriter().setString(TEMPLATE.slot("id"), "1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TEMPLATE.slot("missing"));
+    }
+}
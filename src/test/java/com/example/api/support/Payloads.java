@@ -0,0 +1,108 @@
+package com.example.api.support;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Request bodies shared by the functional tests and the load generator,
+ * so both exercise exactly the same traffic.
+ * Bodies that vary per request are rendered from precompiled {@link PayloadTemplate}s.
+ */
+public final class Payloads {
+    public static final String NEW_BOOK = """
+        {
+            "title": "Automated Test Book",
+            "description": "Book created by API automation tests",
+            "pageCount": 123,
+            "excerpt": "Testing is fun!",
+            "publishDate": "2020-01-01T00:00:00"
+        }
+        """;
+
+    public static final String NEW_AUTHOR = """
+        {
+            "firstName": "Test",
+            "lastName": "Author"
+        }
+        """;
+
+    /**
+     * A full Book body with slots {@code id}, {@code title}, {@code description}, {@code pageCount},
+     * {@code excerpt} and {@code publishDate}.
+     */
+    public static final PayloadTemplate BOOK = PayloadTemplate.compile("""
+        {
+            "id": ${id:int},
+            "title": ${title:string},
+            "description": ${description:string},
+            "pageCount": ${pageCount:int},
+            "excerpt": ${excerpt:string},
+            "publishDate": ${publishDate:date}
+        }
+        """);
+
+    /**
+     * A full Author body with slots {@code id}, {@code idBook}, {@code firstName} and {@code lastName}.
+     */
+    public static final PayloadTemplate AUTHOR = PayloadTemplate.compile("""
+        {
+            "id": ${id:int},
+            "idBook": ${idBook:int},
+            "firstName": ${firstName:string},
+            "lastName": ${lastName:string}
+        }
+        """);
+
+    /**
+     * The author update body as the suite has always sent it, without {@code idBook}, so the update does not
+     * touch which book the author belongs to.
+     */
+    private static final PayloadTemplate AUTHOR_UPDATE = PayloadTemplate.compile("""
+        {
+            "id": ${id:int},
+            "firstName": ${firstName:string},
+            "lastName": ${lastName:string}
+        }
+        """);
+
+    private static final byte[] NEW_BOOK_BYTES = NEW_BOOK.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NEW_AUTHOR_BYTES = NEW_AUTHOR.getBytes(StandardCharsets.UTF_8);
+
+    // Rendered once; each update body only adds the ID's digits, so fresh load threads allocate one array per call
+    private static final PayloadTemplate.Prerendered UPDATED_BOOK = BOOK.newWriter()
+        .setString(BOOK.slot("title"), "Updated Test Book")
+        .setString(BOOK.slot("description"), "Updated description")
+        .setInt(BOOK.slot("pageCount"), 456)
+        .setString(BOOK.slot("excerpt"), "Updated excerpt")
+        .setDate(BOOK.slot("publishDate"), 1_609_459_200L) // 2021-01-01T00:00:00
+        .prerender(BOOK.slot("id"));
+
+    private static final PayloadTemplate.Prerendered UPDATED_AUTHOR = AUTHOR_UPDATE.newWriter()
+        .setString(AUTHOR_UPDATE.slot("firstName"), "Updated")
+        .setString(AUTHOR_UPDATE.slot("lastName"), "Author")
+        .prerender(AUTHOR_UPDATE.slot("id"));
+
+    private Payloads() {
+    }
+
+    /**
+     * {@link #NEW_BOOK} as UTF-8. Shared; callers must not modify it.
+     */
+    public static byte[] newBook() {
+        return NEW_BOOK_BYTES;
+    }
+
+    /**
+     * {@link #NEW_AUTHOR} as UTF-8. Shared; callers must not modify it.
+     */
+    public static byte[] newAuthor() {
+        return NEW_AUTHOR_BYTES;
+    }
+
+    public static byte[] updatedBook(int id) {
+        return UPDATED_BOOK.render(id);
+    }
+
+    public static byte[] updatedAuthor(int id) {
+        return UPDATED_AUTHOR.render(id);
+    }
+}
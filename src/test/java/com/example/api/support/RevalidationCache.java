@@ -0,0 +1,104 @@
+package com.example.api.support;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RestAssured filter that keeps the bodies of tagged GET responses by URL and ETag and revalidates them with
+ * {@code If-None-Match}. When the server answers 304, the filter hands the test a 200 rebuilt from the cached
+ * body, so assertions are unchanged while the body is not transferred again.
+ * <p>
+ * Requests that already set {@code If-None-Match} pass through untouched, so a test can still observe the 304
+ * itself. The least recently used entries are evicted beyond the configured size.
+ */
+public final class RevalidationCache implements Filter {
+    private static final String IF_NONE_MATCH = "If-None-Match";
+
+    private final Map<String, Entry> entries;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * @param maxEntries URLs to remember at most
+     */
+    public RevalidationCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * A cache sized by {@code HTTP_REVALIDATION_CACHE_SIZE}.
+     */
+    public static RevalidationCache fromSettings() {
+        return new RevalidationCache(Settings.getInt("HTTP_REVALIDATION_CACHE_SIZE", 1024));
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!requestSpec.getMethod().equals("GET") || requestSpec.getHeaders().hasHeaderWithName(IF_NONE_MATCH)) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        String url = requestSpec.getURI();
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(url);
+        }
+        lookups.increment();
+        if (cached != null) {
+            requestSpec.header(IF_NONE_MATCH, cached.etag());
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (response.statusCode() == 304 && cached != null) {
+            notModified.increment();
+            bytesSaved.add(cached.body().length);
+            return new ResponseBuilder().clone(response)
+                .setStatusCode(200)
+                .setStatusLine(response.statusLine().replace("304 Not Modified", "200 OK"))
+                .setContentType(cached.contentType())
+                .setBody(cached.body())
+                .build();
+        }
+        String etag = response.header("ETag");
+        synchronized (entries) {
+            if (response.statusCode() == 200 && etag != null) {
+                entries.put(url, new Entry(etag, response.contentType(), response.asByteArray()));
+            } else {
+                entries.remove(url);
+            }
+        }
+        return response;
+    }
+
+    public Stats stats() {
+        return new Stats(lookups.sum(), notModified.sum(), bytesSaved.sum());
+    }
+
+    private record Entry(String etag, String contentType, byte[] body) {
+    }
+
+    /**
+     * @param lookups     GETs that went through the cache
+     * @param notModified of those, answered 304 and served from the cache
+     * @param bytesSaved  body bytes not transferred thanks to a 304
+     */
+    public record Stats(long lookups, long notModified, long bytesSaved) {
+        @Override
+        public String toString() {
+            return "lookups=" + lookups + " notModified=" + notModified + " bytesSaved=" + bytesSaved;
+        }
+    }
+}
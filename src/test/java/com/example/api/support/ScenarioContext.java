@@ -0,0 +1,38 @@
+package com.example.api.support;
+
+/**
+ * Per-invocation state for a create→get→update→delete chain.
+ * Each chain owns its own context, so chains can run concurrently without racing on shared ids.
+ */
+public final class ScenarioContext {
+    private volatile int createdId = -1;
+
+    /**
+     * Record the ID returned by the create step of this chain.
+     */
+    public void createdId(int id) {
+        this.createdId = id;
+    }
+
+    /**
+     * The ID returned by the create step, or -1 if the create step has not run.
+     */
+    public int createdId() {
+        return createdId;
+    }
+
+    /**
+     * Whether the create step of this chain produced a usable ID.
+     */
+    public boolean hasCreatedId() {
+        return createdId >= 0;
+    }
+
+    /**
+     * The ID the remaining steps should target.
+     * FakeRestAPI returns id: 0 for created resources, so fall back to an existing ID in that case.
+     */
+    public int targetId() {
+        return createdId == 0 ? 1 : createdId;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.api.support;
+
+import java.time.Duration;
+
+/**
+ * Reads suite configuration from system properties, falling back to environment variables.
+ * Names are used verbatim for both, e.g. {@code -DBASE_URL=...} or {@code BASE_URL=...}.
+ */
+public final class Settings {
+    private Settings() {
+    }
+
+    public static String get(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isEmpty()) {
+            value = System.getenv(name);
+        }
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        String value = get(name, null);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        String value = get(name, null);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    public static double getDouble(String name, double defaultValue) {
+        String value = get(name, null);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = get(name, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Durations accept ISO-8601 ({@code PT30S}) or a plain number of milliseconds.
+     */
+    public static Duration getDuration(String name, Duration defaultValue) {
+        String value = get(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        value = value.trim();
+        return value.startsWith("P") || value.startsWith("p")
+            ? Duration.parse(value)
+            : Duration.ofMillis(Long.parseLong(value));
+    }
+}